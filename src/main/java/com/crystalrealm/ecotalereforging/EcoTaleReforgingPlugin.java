@@ -7,15 +7,22 @@ import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
 import com.crystalrealm.ecotalereforging.lang.LangManager;
 import com.crystalrealm.ecotalereforging.npc.ReforgeStationManager;
 import com.crystalrealm.ecotalereforging.provider.economy.EconomyBridge;
+import com.crystalrealm.ecotalereforging.provider.economy.MemoryEconomyProvider;
 import com.crystalrealm.ecotalereforging.service.ItemValidationService;
+import com.crystalrealm.ecotalereforging.service.ReforgeAuditLog;
 import com.crystalrealm.ecotalereforging.service.ReforgeDataStore;
+import com.crystalrealm.ecotalereforging.service.ReforgeJournal;
+import com.crystalrealm.ecotalereforging.service.ReforgeMetrics;
 import com.crystalrealm.ecotalereforging.service.ReforgeService;
+import com.crystalrealm.ecotalereforging.service.ReforgeSimulator;
+import com.crystalrealm.ecotalereforging.service.StatsQueryService;
 import com.crystalrealm.ecotalereforging.service.WeaponStatsService;
 import com.crystalrealm.ecotalereforging.system.ReforgeActionBarSystem;
 import com.crystalrealm.ecotalereforging.system.ReforgeDamageSystem;
 import com.crystalrealm.ecotalereforging.tooltip.ReforgeTooltipProvider;
 import com.crystalrealm.ecotalereforging.util.AssetExtractor;
 import com.crystalrealm.ecotalereforging.util.MessageUtil;
+import com.crystalrealm.ecotalereforging.util.FileWatcher;
 import com.crystalrealm.ecotalereforging.util.PermissionHelper;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
@@ -44,16 +51,22 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
 
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
     private static final String VERSION = "1.0.5";
+    private static final int LOG_BUFFER_SIZE = 4096;
 
     // ── Services ────────────────────────────────────────────
     private ConfigManager        configManager;
     private LangManager          langManager;
     private ReforgeDataStore     dataStore;
+    private ReforgeJournal       journal;
+    private ReforgeAuditLog      auditLog;
+    private ReforgeMetrics       metrics;
+    private FileWatcher          fileWatcher;
     private ItemValidationService validator;
     private ReforgeService       reforgeService;
     private WeaponStatsService   weaponStatsService;
     private ReforgeStationManager      stationManager;
     private ReforgeActionBarSystem   actionBarSystem;    private EconomyBridge        economyBridge;
+    private volatile ReforgeTooltipProvider tooltipProvider;
     public EcoTaleReforgingPlugin(JavaPluginInit init) {
         super(init);
     }
@@ -76,6 +89,8 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
         configManager = new ConfigManager(getDataDirectory());
         configManager.loadOrCreate();
         ReforgeConfig config = configManager.getConfig();
+        PluginLogger.setDebugMode(() -> configManager.getConfig().getGeneral().isDebugMode());
+        if (config.getGeneral().isAsyncLogging()) PluginLogger.startAsync(LOG_BUFFER_SIZE);
 
         // 2. Permission resolver
         PermissionHelper.getInstance().init(getDataDirectory());
@@ -92,15 +107,30 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
 
         // 5.5. Economy bridge
         economyBridge = new EconomyBridge();
+        if ("memory".equalsIgnoreCase(config.getGeneral().getEconomyProvider())) {
+            // Load-testing ledger; registered only on request so it is never an auto-fallback
+            economyBridge.registerProvider("memory",
+                    new MemoryEconomyProvider(() -> config.getGeneral().getMemoryEconomy()));
+            LOGGER.warn("Using the in-memory test economy — balances are not real and reset on restart.");
+        }
         economyBridge.activate(config.getGeneral().getEconomyProvider());
+        economyBridge.setBalanceCacheTtl(() -> config.getGeneral().getBalanceCacheTtlMs());
+        if (config.getGeneral().isDeferredSettlement()) {
+            economyBridge.enableDeferredSettlement(getDataDirectory(), config.getGeneral().getSettlementIntervalMs());
+        }
         LOGGER.info("Economy provider: {}", economyBridge.getProviderName());
 
-        // 6. Reforge service
-        reforgeService = new ReforgeService(config, validator, dataStore, economyBridge);
+        // 6. Reforge service (journal and audit log are opened in start(), after crash recovery)
+        journal = new ReforgeJournal(getDataDirectory());
+        auditLog = new ReforgeAuditLog(getDataDirectory());
+        metrics = new ReforgeMetrics(getDataDirectory());
+        reforgeService = new ReforgeService(config, validator, dataStore, economyBridge, journal,
+                auditLog, metrics);
 
         // 6.5. Weapon stats (via WeaponStatsViewer plugin)
         weaponStatsService = new WeaponStatsService();
         weaponStatsService.init();
+        weaponStatsService.registerAssetListeners(getEventRegistry());
 
         // 6.6. Damage modification system — applies reforge bonus to weapon damage
         try {
@@ -132,7 +162,8 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
         LOGGER.info("Registered /reforge command.");
 
         getCommandRegistry().registerCommand(new ReforgeAdminCommandCollection(
-                configManager, langManager, VERSION
+                configManager, langManager, new StatsQueryService(weaponStatsService),
+                new ReforgeSimulator(configManager.getConfig()), auditLog, metrics, VERSION
         ));
         LOGGER.info("Registered /reforgeadmin command.");
     }
@@ -146,6 +177,12 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
         LOGGER.info("  Language:   {}", configManager.getConfig().getGeneral().getLanguage());
         LOGGER.info("═══════════════════════════════════════");
 
+        // Undo reforge attempts interrupted by a crash, then start journaling
+        journal.recover(economyBridge, dataStore);
+        journal.open();
+        if (configManager.getConfig().getGeneral().isAuditLog()) auditLog.open();
+        metrics.start(configManager.getConfig().getGeneral().getMetricsSnapshotMinutes() * 60_000L);
+
         // AssetStore is now populated — warm weapon stats cache
         weaponStatsService.lateInit();
 
@@ -153,22 +190,51 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
         if (actionBarSystem != null) {
             actionBarSystem.start();
         }
+
+        if (configManager.getConfig().getGeneral().isHotReload()) startFileWatcher();
+    }
+
+    /** Reload config, lang overrides and permissions.json when they change on disk — each on its own. */
+    private void startFileWatcher() {
+        fileWatcher = new FileWatcher();
+        fileWatcher.watchFile("config", configManager.getConfigPath(), () -> {
+            if (configManager.reloadIfChanged()) {
+                langManager.setServerLang(configManager.getConfig().getGeneral().getLanguage());
+            }
+        });
+        fileWatcher.watchDirectory("lang overrides", langManager.getOverrideDirectory(), ".json",
+                langManager::reloadOverrides);
+        PermissionHelper permissions = PermissionHelper.getInstance();
+        if (permissions.getPermissionsFile() != null) {
+            fileWatcher.watchFile("permissions", permissions.getPermissionsFile(), permissions::reloadIfChanged);
+        }
+        fileWatcher.start();
     }
 
     @Override
     protected void shutdown() {
         LOGGER.info("EcoTaleReforging shutting down...");
 
+        // Let in-flight economy calls settle before their transactions are closed
+        if (economyBridge != null) economyBridge.shutdown();
+
+        if (fileWatcher != null) fileWatcher.stop();
+
         // Save reforge data
         if (dataStore != null) dataStore.save();
+        if (journal != null) journal.close();
+        if (auditLog != null) auditLog.close();
+        if (metrics != null) metrics.shutdown();
 
         // Cleanup
         if (actionBarSystem != null) actionBarSystem.shutdown();
         if (stationManager != null) stationManager.shutdown();
         MessageUtil.clearCache();
         if (langManager != null) langManager.clearPlayerData();
+        if (tooltipProvider != null) LOGGER.info("Tooltip cache: {}", tooltipProvider.getCacheStats());
 
         LOGGER.info("EcoTaleReforging v{} — shutdown complete.", VERSION);
+        PluginLogger.stopAsync();
     }
 
     // ═════════════════════════════════════════════════════════
@@ -209,6 +275,7 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
 
                 ReforgeTooltipProvider provider = new ReforgeTooltipProvider(config);
                 api.registerProvider(provider);
+                tooltipProvider = provider;
                 LOGGER.info("ReforgeTooltipProvider registered with DynamicTooltipsLib (id: {})",
                         provider.getProviderId());
             } else {
@@ -248,6 +315,7 @@ public class EcoTaleReforgingPlugin extends JavaPlugin {
 
                 ReforgeTooltipProvider provider = new ReforgeTooltipProvider(config);
                 api.registerProvider(provider);
+                tooltipProvider = provider;
                 LOGGER.info("ReforgeTooltipProvider registered on retry {} (id: {})",
                         attempt + 1, provider.getProviderId());
             } catch (Exception e) {
@@ -3,7 +3,12 @@ package com.crystalrealm.ecotalereforging.commands;
 import com.crystalrealm.ecotalereforging.config.ConfigManager;
 import com.crystalrealm.ecotalereforging.gui.AdminReforgeGui;
 import com.crystalrealm.ecotalereforging.lang.LangManager;
-import com.crystalrealm.ecotalereforging.util.MiniMessageParser;
+import com.crystalrealm.ecotalereforging.model.ReforgeResult;
+import com.crystalrealm.ecotalereforging.service.ReforgeAuditLog;
+import com.crystalrealm.ecotalereforging.service.ReforgeMetrics;
+import com.crystalrealm.ecotalereforging.service.ReforgeSimulator;
+import com.crystalrealm.ecotalereforging.service.StatsQueryService;
+import com.crystalrealm.ecotalereforging.util.MessageUtil;
 import com.crystalrealm.ecotalereforging.util.PermissionHelper;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
@@ -19,8 +24,16 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Admin command collection for the reforging system.
@@ -29,26 +42,48 @@ import java.util.concurrent.CompletableFuture;
  * <ul>
  *   <li><b>/reforgeadmin</b> — open admin GUI</li>
  *   <li><b>/reforgeadmin reload</b> — reload config</li>
+ *   <li><b>/reforgeadmin stats</b> — rank weapons/armor by stat</li>
+ *   <li><b>/reforgeadmin simulate</b> — expected cost of reaching each level</li>
+ *   <li><b>/reforgeadmin audit</b> — search and summarize the reforge audit log</li>
+ *   <li><b>/reforgeadmin metrics</b> — success rates and economy sinks per level</li>
  * </ul>
  */
 public class ReforgeAdminCommandCollection extends AbstractCommandCollection {
 
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
 
     private final ConfigManager configManager;
     private final LangManager   langManager;
+    private final StatsQueryService statsQuery;
+    private final ReforgeSimulator simulator;
+    private final ReforgeAuditLog auditLog;
+    private final ReforgeMetrics metrics;
     private final String        pluginVersion;
 
     public ReforgeAdminCommandCollection(@Nonnull ConfigManager configManager,
                                          @Nonnull LangManager langManager,
+                                         @Nonnull StatsQueryService statsQuery,
+                                         @Nonnull ReforgeSimulator simulator,
+                                         @Nonnull ReforgeAuditLog auditLog,
+                                         @Nonnull ReforgeMetrics metrics,
                                          @Nonnull String pluginVersion) {
         super("reforgeadmin", "EcoTaleReforging — Admin panel");
         this.configManager = configManager;
         this.langManager   = langManager;
+        this.statsQuery    = statsQuery;
+        this.simulator     = simulator;
+        this.auditLog      = auditLog;
+        this.metrics       = metrics;
         this.pluginVersion = pluginVersion;
 
         addSubCommand(new OpenSubCommand());
         addSubCommand(new ReloadSubCommand());
+        addSubCommand(new StatsSubCommand());
+        addSubCommand(new SimulateSubCommand());
+        addSubCommand(new AuditSubCommand());
+        addSubCommand(new MetricsSubCommand());
     }
 
     // ═══════════════════════════════════════════════════════
@@ -75,6 +110,391 @@ public class ReforgeAdminCommandCollection extends AbstractCommandCollection {
         }
     }
 
+    // ═══════════════════════════════════════════════════════
+    //  /reforgeadmin stats <metric> top|range|pct ... [q:quality] [lvl:n]
+    // ═══════════════════════════════════════════════════════
+
+    private class StatsSubCommand extends AbstractAsyncCommand {
+        private static final int MAX_ROWS = 10;
+
+        StatsSubCommand() { super("stats", "Rank weapons/armor by stat"); }
+
+        @Override
+        public CompletableFuture<Void> executeAsync(CommandContext context) {
+            CommandSender sender = context.sender();
+            if (!checkPerm(sender, context, "ecotalereforging.admin")) return done();
+            if (!statsQuery.isAvailable()) {
+                context.sendMessage(msg(L(sender, "cmd.stats.unavailable")));
+                return done();
+            }
+
+            // Split positional args from q:/lvl: filters
+            List<String> args = new ArrayList<>();
+            String quality = null;
+            Integer itemLevel = null;
+            for (String arg : parseArgs(context, "stats")) {
+                String lower = arg.toLowerCase(Locale.ROOT);
+                if (lower.startsWith("q:") && lower.length() > 2) {
+                    quality = arg.substring(2);
+                } else if (lower.startsWith("lvl:")) {
+                    itemLevel = parseInt(arg.substring(4));
+                    if (itemLevel == null) {
+                        // An unfiltered answer would look like a filtered one
+                        context.sendMessage(msg(L(sender, "cmd.stats.usage")));
+                        return done();
+                    }
+                } else {
+                    args.add(lower);
+                }
+            }
+
+            StatsQueryService.Metric metric = StatsQueryService.Metric.parse(args.isEmpty() ? null : args.get(0));
+            String mode = args.size() > 1 ? args.get(1) : "top";
+            if (metric == null) {
+                context.sendMessage(msg(L(sender, "cmd.stats.usage")));
+                return done();
+            }
+
+            String filter = (quality != null ? quality : "")
+                    + (itemLevel != null ? (quality != null ? ", lvl " : "lvl ") + itemLevel : "");
+            String metricName = metric.name().toLowerCase(Locale.ROOT);
+
+            switch (mode) {
+                case "top" -> {
+                    Integer n = args.size() > 2 ? parseInt(args.get(2)) : Integer.valueOf(MAX_ROWS);
+                    if (n == null) {
+                        context.sendMessage(msg(L(sender, "cmd.stats.usage")));
+                        return done();
+                    }
+                    List<StatsQueryService.Entry> top = statsQuery.top(metric, quality, itemLevel,
+                            Math.min(n, MAX_ROWS));
+                    context.sendMessage(msg(L(sender, "cmd.stats.header", "metric", metricName, "filter", filter)));
+                    sendRows(context, sender, top);
+                }
+                case "range" -> {
+                    Double min = args.size() > 2 ? parseDouble(args.get(2)) : null;
+                    Double max = args.size() > 3 ? parseDouble(args.get(3)) : null;
+                    if (min == null || max == null) {
+                        context.sendMessage(msg(L(sender, "cmd.stats.usage")));
+                        return done();
+                    }
+                    StatsQueryService.RangeResult range = statsQuery.range(metric, quality, itemLevel,
+                            min, max, MAX_ROWS);
+                    context.sendMessage(msg(L(sender, "cmd.stats.header", "metric", metricName, "filter", filter)));
+                    context.sendMessage(msg(L(sender, "cmd.stats.range",
+                            "count", String.valueOf(range.count()),
+                            "min", formatStat(min), "max", formatStat(max))));
+                    sendRows(context, sender, range.entries());
+                }
+                case "pct" -> {
+                    Double p = args.size() > 2 ? parseDouble(args.get(2)) : null;
+                    if (p == null) {
+                        context.sendMessage(msg(L(sender, "cmd.stats.usage")));
+                        return done();
+                    }
+                    StatsQueryService.Entry entry = statsQuery.percentile(metric, quality, itemLevel, p);
+                    context.sendMessage(msg(L(sender, "cmd.stats.header", "metric", metricName, "filter", filter)));
+                    if (entry == null) {
+                        context.sendMessage(msg(L(sender, "cmd.stats.empty")));
+                    } else {
+                        context.sendMessage(msg(L(sender, "cmd.stats.percentile",
+                                "p", formatStat(p),
+                                "value", formatStat(entry.value()),
+                                "item", entry.itemId(),
+                                "count", String.valueOf(statsQuery.count(metric, quality, itemLevel)))));
+                    }
+                }
+                default -> context.sendMessage(msg(L(sender, "cmd.stats.usage")));
+            }
+            return done();
+        }
+
+        private void sendRows(CommandContext context, CommandSender sender, List<StatsQueryService.Entry> rows) {
+            if (rows.isEmpty()) {
+                context.sendMessage(msg(L(sender, "cmd.stats.empty")));
+                return;
+            }
+            int rank = 1;
+            for (StatsQueryService.Entry e : rows) {
+                context.sendMessage(msg(L(sender, "cmd.stats.row",
+                        "rank", String.valueOf(rank++),
+                        "item", e.itemId(),
+                        "value", formatStat(e.value()),
+                        "quality", e.quality() != null ? e.quality() : "-",
+                        "level", String.valueOf(e.itemLevel()))));
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════
+    //  /reforgeadmin simulate [level] [trials] [protect]
+    // ═══════════════════════════════════════════════════════
+
+    private class SimulateSubCommand extends AbstractAsyncCommand {
+        private static final long DEFAULT_TRIALS = 200_000;
+        private static final long MAX_TRIALS = 20_000_000;
+        private static final long TIME_BUDGET_MS = 10_000;
+
+        SimulateSubCommand() { super("simulate", "Expected cost of reaching each reforge level"); }
+
+        @Override
+        public CompletableFuture<Void> executeAsync(CommandContext context) {
+            CommandSender sender = context.sender();
+            if (!checkPerm(sender, context, "ecotalereforging.admin")) return done();
+
+            // Positional numbers: target level, then trial count; "protect" anywhere
+            int level = configManager.getConfig().getGeneral().getMaxReforgeLevel();
+            long trials = DEFAULT_TRIALS;
+            boolean protection = false;
+            int numbers = 0;
+            for (String arg : parseArgs(context, "simulate")) {
+                if (arg.equalsIgnoreCase("protect") || arg.equalsIgnoreCase("p")) {
+                    protection = true;
+                    continue;
+                }
+                Integer n = parseInt(arg);
+                if (n == null || n < 1 || numbers > 1) {
+                    context.sendMessage(msg(L(sender, "cmd.simulate.usage")));
+                    return done();
+                }
+                if (numbers++ == 0) level = n;
+                else trials = Math.min(n, MAX_TRIALS);
+            }
+
+            final int target = level;
+            final long requested = trials;
+            final boolean protect = protection;
+            // Monte Carlo can take seconds — keep it off the command thread
+            return CompletableFuture.runAsync(() -> {
+                ReforgeSimulator.Report report = simulator.simulate(target, requested, protect, TIME_BUDGET_MS);
+                if (report.exact().isEmpty()) {
+                    context.sendMessage(msg(L(sender, "cmd.simulate.empty")));
+                    return;
+                }
+                int reached = report.exact().size();
+                context.sendMessage(msg(L(sender, "cmd.simulate.header",
+                        "level", String.valueOf(reached),
+                        "mode", L(sender, protect ? "cmd.simulate.mode.protected" : "cmd.simulate.mode.unprotected"))));
+                context.sendMessage(msg(L(sender, "cmd.simulate.trials",
+                        "trials", String.valueOf(report.trials()),
+                        "ms", String.valueOf(report.elapsedMs()),
+                        "unfinished", String.valueOf(report.unfinished()))));
+                for (int i = 0; i < reached; i++) {
+                    ReforgeSimulator.LevelEstimate exact = report.exact().get(i);
+                    ReforgeSimulator.LevelEstimate mc = report.simulated().get(i);
+                    context.sendMessage(msg(L(sender, "cmd.simulate.row",
+                            "level", String.valueOf(exact.level()),
+                            "attempts", formatEstimate(exact.attempts()),
+                            "attempts_mc", formatEstimate(mc.attempts()),
+                            "coins", formatEstimate(exact.coins()),
+                            "coins_mc", formatEstimate(mc.coins()),
+                            "reach", formatEstimate(exact.reachChance() * 100),
+                            "reach_mc", formatEstimate(mc.reachChance() * 100))));
+                }
+
+                ReforgeSimulator.LevelEstimate last = report.exact().get(reached - 1);
+                StringBuilder mats = new StringBuilder();
+                for (Map.Entry<String, Double> m : last.materials().entrySet()) {
+                    if (mats.length() > 0) mats.append(", ");
+                    mats.append(m.getKey()).append(" x").append(formatEstimate(m.getValue()));
+                }
+                if (mats.length() > 0) {
+                    context.sendMessage(msg(L(sender, "cmd.simulate.materials",
+                            "level", String.valueOf(reached), "materials", mats.toString())));
+                }
+                if (!protect) {
+                    context.sendMessage(msg(L(sender, "cmd.simulate.returned",
+                            "destroy", formatEstimate(last.destroyChance() * 100),
+                            "rate", formatEstimate(configManager.getConfig().getGeneral().getFailureReturnRate() * 100))));
+                }
+            }).exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                LOGGER.error("[reforgeadmin] simulate failed", cause);
+                context.sendMessage(msg(L(sender, "cmd.simulate.failed", "error", String.valueOf(cause.getMessage()))));
+                return null;
+            });
+        }
+
+        private static String formatEstimate(double value) {
+            if (Double.isNaN(value)) return "-";
+            if (Double.isInfinite(value)) return "∞";
+            return formatStat(value);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════
+    //  /reforgeadmin audit [player:<name|uuid>] [item:<text>] [hours:<n>] [result:<r>]
+    // ═══════════════════════════════════════════════════════
+
+    private class AuditSubCommand extends AbstractAsyncCommand {
+        private static final int LATEST_ROWS = 5;
+
+        AuditSubCommand() { super("audit", "Search and summarize the reforge audit log"); }
+
+        @Override
+        public CompletableFuture<Void> executeAsync(CommandContext context) {
+            CommandSender sender = context.sender();
+            if (!checkPerm(sender, context, "ecotalereforging.admin")) return done();
+            if (!auditLog.isOpen()) {
+                context.sendMessage(msg(L(sender, "cmd.audit.disabled")));
+                return done();
+            }
+
+            UUID player = null;
+            String item = null;
+            long since = 0;
+            ReforgeResult result = null;
+            for (String arg : parseArgs(context, "audit")) {
+                int colon = arg.indexOf(':');
+                String key = colon > 0 ? arg.substring(0, colon).toLowerCase(Locale.ROOT) : "";
+                String value = colon > 0 ? arg.substring(colon + 1) : "";
+                switch (key) {
+                    case "player" -> {
+                        player = parseUuid(value);
+                        if (player == null) player = MessageUtil.findPlayerUuid(value);
+                        if (player == null) {
+                            context.sendMessage(msg(L(sender, "cmd.audit.unknown_player", "player", value)));
+                            return done();
+                        }
+                    }
+                    case "item" -> item = value;
+                    case "hours" -> {
+                        Double hours = parseDouble(value);
+                        if (hours == null || hours <= 0) {
+                            context.sendMessage(msg(L(sender, "cmd.audit.usage")));
+                            return done();
+                        }
+                        since = System.currentTimeMillis() - (long) (hours * 3_600_000L);
+                    }
+                    case "result" -> {
+                        result = parseResult(value);
+                        if (result == null) {
+                            context.sendMessage(msg(L(sender, "cmd.audit.usage")));
+                            return done();
+                        }
+                    }
+                    default -> {
+                        context.sendMessage(msg(L(sender, "cmd.audit.usage")));
+                        return done();
+                    }
+                }
+            }
+
+            ReforgeAuditLog.Filter filter = new ReforgeAuditLog.Filter(player, item, since, result);
+            // Reads every audit file — keep it off the command thread
+            return CompletableFuture.runAsync(() -> {
+                ReforgeAuditLog.Summary summary = auditLog.scan(filter, LATEST_ROWS);
+                context.sendMessage(msg(L(sender, "cmd.audit.header",
+                        "scanned", String.valueOf(summary.scanned()),
+                        "ms", String.valueOf(summary.elapsedMs()))));
+                if (summary.matched() == 0) {
+                    context.sendMessage(msg(L(sender, "cmd.audit.empty")));
+                    return;
+                }
+                context.sendMessage(msg(L(sender, "cmd.audit.summary",
+                        "matched", String.valueOf(summary.matched()),
+                        "success", String.valueOf(summary.successes()),
+                        "destroyed", String.valueOf(summary.destroyed()),
+                        "protected", String.valueOf(summary.protectedFailures()),
+                        "coins", MessageUtil.formatCoins(summary.coins()))));
+                for (ReforgeAuditLog.LevelStats level : summary.levels()) {
+                    context.sendMessage(msg(L(sender, "cmd.audit.level",
+                            "level", String.valueOf(level.level()),
+                            "attempts", String.valueOf(level.attempts()),
+                            "observed", formatStat(level.successRate() * 100),
+                            "expected", formatStat(level.expectedRate() * 100))));
+                }
+                for (ReforgeAuditLog.Entry e : summary.latest()) {
+                    context.sendMessage(msg(L(sender, "cmd.audit.row",
+                            "time", TIME_FORMAT.format(Instant.ofEpochMilli(e.timestamp())),
+                            "player", e.player().toString().substring(0, 8),
+                            "item", e.itemId(),
+                            "from", String.valueOf(e.fromLevel()),
+                            "to", e.toLevel() < 0 ? "x" : String.valueOf(e.toLevel()),
+                            "result", e.result().name().toLowerCase(Locale.ROOT),
+                            "roll", formatStat(e.roll() * 100),
+                            "chance", formatStat(e.chance() * 100))));
+                }
+            });
+        }
+
+        private static UUID parseUuid(String raw) {
+            try { return UUID.fromString(raw); } catch (IllegalArgumentException e) { return null; }
+        }
+
+        private static ReforgeResult parseResult(String raw) {
+            return switch (raw.toLowerCase(Locale.ROOT)) {
+                case "success", "ok" -> ReforgeResult.SUCCESS;
+                case "fail", "failure", "destroyed" -> ReforgeResult.FAILURE;
+                case "protected" -> ReforgeResult.FAILURE_PROTECTED;
+                default -> null;
+            };
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════
+    //  /reforgeadmin metrics [reset]
+    // ═══════════════════════════════════════════════════════
+
+    private class MetricsSubCommand extends AbstractAsyncCommand {
+        MetricsSubCommand() { super("metrics", "Reforge success rates and economy sinks"); }
+
+        @Override
+        public CompletableFuture<Void> executeAsync(CommandContext context) {
+            CommandSender sender = context.sender();
+            if (!checkPerm(sender, context, "ecotalereforging.admin")) return done();
+
+            List<String> args = parseArgs(context, "metrics");
+            if (!args.isEmpty()) {
+                if (args.size() == 1 && args.get(0).equalsIgnoreCase("reset")) {
+                    metrics.reset();
+                    context.sendMessage(msg(L(sender, "cmd.metrics.reset")));
+                } else {
+                    context.sendMessage(msg(L(sender, "cmd.metrics.usage")));
+                }
+                return done();
+            }
+
+            ReforgeMetrics.Snapshot snap = metrics.snapshot();
+            context.sendMessage(msg(L(sender, "cmd.metrics.header",
+                    "since", TIME_FORMAT.format(Instant.ofEpochMilli(snap.since())))));
+            if (snap.total().attempts() == 0) {
+                context.sendMessage(msg(L(sender, "cmd.metrics.empty")));
+                return done();
+            }
+            sendWindow(context, sender, "cmd.metrics.window.minute", snap.lastMinute());
+            sendWindow(context, sender, "cmd.metrics.window.hour", snap.lastHour());
+            sendWindow(context, sender, "cmd.metrics.window.day", snap.lastDay());
+            sendWindow(context, sender, "cmd.metrics.window.total", snap.total());
+            context.sendMessage(msg(L(sender, "cmd.metrics.materials",
+                    "consumed", String.valueOf(snap.total().materialsConsumed()),
+                    "returned", String.valueOf(snap.total().materialsReturned()))));
+
+            snap.levels().forEach((level, t) -> {
+                var levelCfg = configManager.getConfig().getLevelConfig(level);
+                context.sendMessage(msg(L(sender, "cmd.metrics.level",
+                        "level", String.valueOf(level),
+                        "attempts", String.valueOf(t.attempts()),
+                        "observed", formatStat(t.successRate() * 100),
+                        "configured", levelCfg != null ? formatStat(levelCfg.getSuccessChance() * 100) : "-",
+                        "destroyed", String.valueOf(t.destroyed()),
+                        "coins", MessageUtil.formatCoins(t.coins()))));
+            });
+            return done();
+        }
+
+        private void sendWindow(CommandContext context, CommandSender sender, String nameKey,
+                                ReforgeMetrics.Totals t) {
+            context.sendMessage(msg(L(sender, "cmd.metrics.window",
+                    "window", L(sender, nameKey),
+                    "attempts", String.valueOf(t.attempts()),
+                    "success", formatStat(t.successRate() * 100),
+                    "destroyed", String.valueOf(t.destroyed()),
+                    "protected", String.valueOf(t.protectedFailures()),
+                    "coins", MessageUtil.formatCoins(t.coins()))));
+        }
+    }
+
     // ═══════════════════════════════════════════════════════
     //  /reforgeadmin open  — Open admin GUI (default action)
     // ═══════════════════════════════════════════════════════
@@ -132,7 +552,7 @@ public class ReforgeAdminCommandCollection extends AbstractCommandCollection {
                         if (result instanceof PlayerRef playerRef) {
                             UUID uuid = sender.getUuid();
                             AdminReforgeGui.open(configManager, langManager,
-                                    playerRef, ref, store, uuid, pluginVersion);
+                                    playerRef, ref, store, uuid, metrics, pluginVersion);
                         }
                     } catch (Exception e) {
                         LOGGER.error("[reforgeadmin] failed on WorldThread", e);
@@ -151,6 +571,35 @@ public class ReforgeAdminCommandCollection extends AbstractCommandCollection {
     //  HELPERS
     // ═══════════════════════════════════════════════════════
 
+    /** Arguments typed after the given sub-command keyword. */
+    private static List<String> parseArgs(CommandContext context, String subCommand) {
+        List<String> args = new ArrayList<>();
+        try {
+            String input = context.getInputString();
+            if (input == null || input.isBlank()) return args;
+            boolean found = false;
+            for (String part : input.trim().split("\\s+")) {
+                if (found) args.add(part);
+                else if (part.equalsIgnoreCase(subCommand)) found = true;
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to parse command args: {}", e.getMessage());
+        }
+        return args;
+    }
+
+    private static Integer parseInt(String raw) {
+        try { return Integer.parseInt(raw.trim()); } catch (NumberFormatException e) { return null; }
+    }
+
+    private static Double parseDouble(String raw) {
+        try { return Double.parseDouble(raw.trim().replace(',', '.')); } catch (NumberFormatException e) { return null; }
+    }
+
+    private static String formatStat(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
     private String L(CommandSender sender, String key, String... args) {
         return langManager.getForPlayer(sender.getUuid(), key, args);
     }
@@ -162,7 +611,7 @@ public class ReforgeAdminCommandCollection extends AbstractCommandCollection {
     }
 
     private static com.hypixel.hytale.server.core.Message msg(String miniMessage) {
-        return com.hypixel.hytale.server.core.Message.parse(MiniMessageParser.toJson(miniMessage));
+        return MessageUtil.toMessage(miniMessage);
     }
 
     private static CompletableFuture<Void> done() {
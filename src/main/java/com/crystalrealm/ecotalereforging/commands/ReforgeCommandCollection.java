@@ -7,7 +7,6 @@ import com.crystalrealm.ecotalereforging.service.ItemValidationService;
 import com.crystalrealm.ecotalereforging.service.ReforgeService;
 import com.crystalrealm.ecotalereforging.service.WeaponStatsService;
 import com.crystalrealm.ecotalereforging.util.MessageUtil;
-import com.crystalrealm.ecotalereforging.util.MiniMessageParser;
 import com.crystalrealm.ecotalereforging.util.PermissionHelper;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
@@ -232,7 +231,7 @@ public class ReforgeCommandCollection extends AbstractCommandCollection {
     }
 
     private static com.hypixel.hytale.server.core.Message msg(String miniMessage) {
-        return com.hypixel.hytale.server.core.Message.parse(MiniMessageParser.toJson(miniMessage));
+        return MessageUtil.toMessage(miniMessage);
     }
 
     private static CompletableFuture<Void> done() {
@@ -2,6 +2,8 @@ package com.crystalrealm.ecotalereforging.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.crystalrealm.ecotalereforging.util.FileWatcher;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
 import javax.annotation.Nonnull;
@@ -9,6 +11,10 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Manages loading, saving and hot-reloading of JSON configuration.
@@ -24,6 +30,8 @@ public class ConfigManager {
 
     private final Path dataDirectory;
     private ReforgeConfig config;
+    /** Hash of the file content last loaded or saved; lets the file watcher skip our own writes. */
+    private volatile byte[] contentHash;
 
     public ConfigManager(@Nonnull Path dataDirectory) {
         this.dataDirectory = dataDirectory;
@@ -63,11 +71,51 @@ public class ConfigManager {
         }
     }
 
+    /**
+     * Reload only if the file content differs from what was last loaded or
+     * saved. The new config is parsed and validated before anything is
+     * swapped; an invalid file leaves the current config untouched.
+     * Called from the file watcher thread.
+     *
+     * @return true if a new config was applied
+     */
+    public boolean reloadIfChanged() {
+        Path configPath = getConfigPath();
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(configPath);
+        } catch (IOException e) {
+            LOGGER.debug("Config not readable yet: {}", e.getMessage());
+            return false;
+        }
+        byte[] hash = FileWatcher.contentHash(bytes);
+        if (MessageDigest.isEqual(hash, contentHash)) return false;
+
+        ReforgeConfig loaded;
+        try {
+            loaded = GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), ReforgeConfig.class);
+        } catch (JsonParseException e) {
+            LOGGER.warn("Config change ignored — invalid JSON: {}", e.getMessage());
+            return false;
+        }
+        List<String> problems = validate(loaded);
+        if (!problems.isEmpty()) {
+            LOGGER.warn("Config change ignored — {} problem(s): {}", problems.size(), String.join("; ", problems));
+            return false;
+        }
+        apply(loaded);
+        contentHash = hash;
+        LOGGER.info("Configuration file changed — reloaded.");
+        return true;
+    }
+
     public void saveConfig() {
+        getConfig().bumpGeneration();
         Path configPath = getConfigPath();
-        try (Writer writer = new OutputStreamWriter(
-                Files.newOutputStream(configPath), StandardCharsets.UTF_8)) {
-            GSON.toJson(config, writer);
+        byte[] bytes = GSON.toJson(config).getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.write(configPath, bytes);
+            contentHash = FileWatcher.contentHash(bytes);
         } catch (IOException e) {
             LOGGER.error("Failed to save config: {}", e.getMessage());
         }
@@ -90,20 +138,64 @@ public class ConfigManager {
     }
 
     private void loadFromFile(Path path) throws IOException {
-        try (Reader reader = new InputStreamReader(
-                Files.newInputStream(path), StandardCharsets.UTF_8)) {
-            ReforgeConfig loaded = GSON.fromJson(reader, ReforgeConfig.class);
-            if (loaded == null) {
-                LOGGER.warn("Config parsed as null, using defaults.");
-                loaded = new ReforgeConfig();
+        byte[] bytes = Files.readAllBytes(path);
+        ReforgeConfig loaded;
+        try {
+            loaded = GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), ReforgeConfig.class);
+        } catch (JsonParseException e) {
+            throw new IOException("invalid JSON: " + e.getMessage(), e);
+        }
+        if (loaded == null) {
+            LOGGER.warn("Config parsed as null, using defaults.");
+            loaded = new ReforgeConfig();
+        }
+        apply(loaded);
+        contentHash = FileWatcher.contentHash(bytes);
+    }
+
+    private synchronized void apply(ReforgeConfig loaded) {
+        if (config != null) {
+            // Preserve the existing object reference so services keep seeing updates
+            config.updateFrom(loaded);
+        } else {
+            config = loaded;
+        }
+    }
+
+    /** Sanity checks for a hot-reloaded config; an empty list means it is safe to apply. */
+    private static List<String> validate(ReforgeConfig c) {
+        List<String> problems = new ArrayList<>();
+        if (c == null) {
+            problems.add("file is empty");
+            return problems;
+        }
+        if (c.getGeneral() == null) problems.add("missing \"general\" section");
+        else {
+            if (c.getGeneral().getMaxReforgeLevel() < 0) problems.add("maxReforgeLevel is negative");
+            double ret = c.getGeneral().getFailureReturnRate();
+            if (ret < 0 || ret > 1) problems.add("failureReturnRate must be 0.0–1.0");
+        }
+        if (c.getLevels() == null || c.getLevels().isEmpty()) {
+            problems.add("no levels configured");
+            return problems;
+        }
+        for (Map.Entry<String, ReforgeConfig.LevelConfig> e : c.getLevels().entrySet()) {
+            ReforgeConfig.LevelConfig lc = e.getValue();
+            if (lc == null) {
+                problems.add("level " + e.getKey() + " is empty");
+                continue;
             }
-            if (config != null) {
-                // Preserve the existing object reference so services keep seeing updates
-                config.updateFrom(loaded);
-            } else {
-                config = loaded;
+            try {
+                Integer.parseInt(e.getKey());
+            } catch (NumberFormatException ex) {
+                problems.add("level key \"" + e.getKey() + "\" is not a number");
+            }
+            if (lc.getSuccessChance() < 0 || lc.getSuccessChance() > 1) {
+                problems.add("level " + e.getKey() + " successChance must be 0.0–1.0");
             }
+            if (lc.getCoinCost() < 0) problems.add("level " + e.getKey() + " coinCost is negative");
         }
+        return problems;
     }
 
     private void createDefault(Path path) throws IOException {
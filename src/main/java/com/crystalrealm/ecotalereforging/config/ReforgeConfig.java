@@ -1,6 +1,7 @@
 package com.crystalrealm.ecotalereforging.config;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Root configuration object for EcoTaleReforging.
@@ -8,11 +9,22 @@ import java.util.*;
  */
 public class ReforgeConfig {
 
-    private General general = new General();
-    private Map<String, LevelConfig> levels = new LinkedHashMap<>();
-    private AllowedItems allowedItems = new AllowedItems();
-    private Map<String, List<MaterialEntry>> reverseRecipes = new LinkedHashMap<>();
-    private Map<String, String> customItems = new LinkedHashMap<>();
+    // Gson reads and writes these fields; code reads the Sections built from them
+    private volatile General general = new General();
+    private volatile Map<String, LevelConfig> levels = new LinkedHashMap<>();
+    private volatile AllowedItems allowedItems = new AllowedItems();
+    private volatile Map<String, List<MaterialEntry>> reverseRecipes = new LinkedHashMap<>();
+    private volatile Map<String, String> customItems = new LinkedHashMap<>();
+
+    /**
+     * All five sections behind one volatile reference. A hot reload swaps the
+     * whole set at once, so a reader never sees new levels with old general
+     * settings. Built on first read, after Gson has filled the fields. Not serialized.
+     */
+    private transient volatile Sections sections;
+
+    /** Bumped on every reload/save so derived caches can tell they are stale. Not serialized. */
+    private final transient AtomicInteger generation = new AtomicInteger();
 
     public ReforgeConfig() {
         // Defaults: 10 levels with progressive difficulty
@@ -31,24 +43,25 @@ public class ReforgeConfig {
 
     // ── Getters / Setters ────────────────────────────────────
 
-    public General getGeneral() { return general; }
-    public void setGeneral(General general) { this.general = general; }
+    public General getGeneral() { return sections().general(); }
+    public synchronized void setGeneral(General general) { this.general = general; rebuildSections(); }
 
-    public Map<String, LevelConfig> getLevels() { return levels; }
-    public void setLevels(Map<String, LevelConfig> levels) { this.levels = levels; }
+    public Map<String, LevelConfig> getLevels() { return sections().levels(); }
+    public synchronized void setLevels(Map<String, LevelConfig> levels) { this.levels = levels; rebuildSections(); }
 
-    public AllowedItems getAllowedItems() { return allowedItems; }
-    public void setAllowedItems(AllowedItems allowedItems) { this.allowedItems = allowedItems; }
+    public AllowedItems getAllowedItems() { return sections().allowedItems(); }
+    public synchronized void setAllowedItems(AllowedItems allowedItems) { this.allowedItems = allowedItems; rebuildSections(); }
 
-    public Map<String, List<MaterialEntry>> getReverseRecipes() { return reverseRecipes; }
-    public void setReverseRecipes(Map<String, List<MaterialEntry>> reverseRecipes) { this.reverseRecipes = reverseRecipes; }
+    public Map<String, List<MaterialEntry>> getReverseRecipes() { return sections().reverseRecipes(); }
+    public synchronized void setReverseRecipes(Map<String, List<MaterialEntry>> reverseRecipes) { this.reverseRecipes = reverseRecipes; rebuildSections(); }
 
     /** Custom items map: itemId → display name. Keys are added to admin material cycle. */
-    public Map<String, String> getCustomItems() { return customItems; }
-    public void setCustomItems(Map<String, String> customItems) { this.customItems = customItems; }
+    public Map<String, String> getCustomItems() { return sections().customItems(); }
+    public synchronized void setCustomItems(Map<String, String> customItems) { this.customItems = customItems; rebuildSections(); }
 
     /** Get display name for a custom item, or null if not registered. */
     public String getCustomItemName(String itemId) {
+        Map<String, String> customItems = sections().customItems();
         if (customItems == null || itemId == null) return null;
         // Direct lookup first (fast path)
         String name = customItems.get(itemId);
@@ -68,22 +81,44 @@ public class ReforgeConfig {
     }
 
     /**
-     * Copy all fields from another config into this instance.
-     * Keeps this object reference alive so services that hold it see updates.
+     * Take over all sections of another config in one step.
+     * Keeps this object reference alive so services that hold it see updates;
+     * readers on other threads see either the old set or the new one, never a mix.
      */
-    public void updateFrom(ReforgeConfig other) {
-        this.general = other.general;
-        this.levels = other.levels;
-        this.allowedItems = other.allowedItems;
-        this.reverseRecipes = other.reverseRecipes;
-        this.customItems = other.customItems;
+    public synchronized void updateFrom(ReforgeConfig other) {
+        Sections next = other.sections();
+        this.general = next.general();
+        this.levels = next.levels();
+        this.allowedItems = next.allowedItems();
+        this.reverseRecipes = next.reverseRecipes();
+        this.customItems = next.customItems();
+        this.sections = next;
+        bumpGeneration();
     }
 
+    private Sections sections() {
+        Sections s = sections;
+        return s != null ? s : rebuildSections();
+    }
+
+    private synchronized Sections rebuildSections() {
+        Sections s = new Sections(general, levels, allowedItems, reverseRecipes, customItems);
+        sections = s;
+        return s;
+    }
+
+    /** Current config generation; changes whenever the config is reloaded or edited. */
+    public int getGeneration() { return generation.get(); }
+
+    /** Mark the config as changed (called after in-place edits). */
+    public void bumpGeneration() { generation.incrementAndGet(); }
+
     /**
      * Get level config for specific reforge level.
      * Falls back to the highest defined level if requested level isn't explicitly configured.
      */
     public LevelConfig getLevelConfig(int level) {
+        Map<String, LevelConfig> levels = sections().levels();
         LevelConfig lc = levels.get(String.valueOf(level));
         if (lc != null) return lc;
 
@@ -106,6 +141,13 @@ public class ReforgeConfig {
     //  INNER CLASSES
     // ═══════════════════════════════════════════════════════
 
+    /** One consistent set of top-level sections; swapped as a whole on reload. */
+    private record Sections(General general,
+                            Map<String, LevelConfig> levels,
+                            AllowedItems allowedItems,
+                            Map<String, List<MaterialEntry>> reverseRecipes,
+                            Map<String, String> customItems) {}
+
     public static class General {
         private String language = "en";
         private String messagePrefix = "<dark_gray>[<gold>⚒ Reforge<dark_gray>]";
@@ -115,6 +157,15 @@ public class ReforgeConfig {
         private boolean protectionEnabled = true;
         private double protectionCostMultiplier = 2.0;
         private String economyProvider = "ecotale";
+        private int autoReforgeMaxAttempts = 100;
+        private long balanceCacheTtlMs = 2000;
+        private boolean deferredSettlement = false;
+        private long settlementIntervalMs = 5000;
+        private boolean hotReload = true;
+        private boolean asyncLogging = true;
+        private boolean auditLog = true;
+        private int metricsSnapshotMinutes = 5;
+        private MemoryEconomy memoryEconomy = new MemoryEconomy();
 
         public String getLanguage() { return language; }
         public void setLanguage(String language) { this.language = language; }
@@ -139,6 +190,60 @@ public class ReforgeConfig {
 
         public double getProtectionCostMultiplier() { return protectionCostMultiplier; }
         public void setProtectionCostMultiplier(double protectionCostMultiplier) { this.protectionCostMultiplier = protectionCostMultiplier; }
+
+        /** Upper bound on attempts in one auto-reforge run (0 disables auto-reforge). */
+        public int getAutoReforgeMaxAttempts() { return autoReforgeMaxAttempts; }
+        public void setAutoReforgeMaxAttempts(int autoReforgeMaxAttempts) { this.autoReforgeMaxAttempts = autoReforgeMaxAttempts; }
+
+        /** How long a looked-up balance is reused for display and pre-checks (0 disables caching). */
+        public long getBalanceCacheTtlMs() { return balanceCacheTtlMs; }
+        public void setBalanceCacheTtlMs(long balanceCacheTtlMs) { this.balanceCacheTtlMs = balanceCacheTtlMs; }
+
+        /** Book costs locally and settle one net amount per player per window (read at startup). */
+        public boolean isDeferredSettlement() { return deferredSettlement; }
+        public void setDeferredSettlement(boolean deferredSettlement) { this.deferredSettlement = deferredSettlement; }
+
+        public long getSettlementIntervalMs() { return settlementIntervalMs; }
+        public void setSettlementIntervalMs(long settlementIntervalMs) { this.settlementIntervalMs = settlementIntervalMs; }
+
+        /** Watch config, lang overrides and permissions.json and reload them on change (read at startup). */
+        public boolean isHotReload() { return hotReload; }
+        public void setHotReload(boolean hotReload) { this.hotReload = hotReload; }
+
+        /** Write log records from a background thread instead of the calling one (read at startup). */
+        public boolean isAsyncLogging() { return asyncLogging; }
+        public void setAsyncLogging(boolean asyncLogging) { this.asyncLogging = asyncLogging; }
+
+        /** Record every reforge roll to the binary audit log (read at startup). */
+        public boolean isAuditLog() { return auditLog; }
+        public void setAuditLog(boolean auditLog) { this.auditLog = auditLog; }
+
+        /** Minutes between writes of metrics.json; 0 writes it only on shutdown (read at startup). */
+        public int getMetricsSnapshotMinutes() { return metricsSnapshotMinutes; }
+        public void setMetricsSnapshotMinutes(int metricsSnapshotMinutes) { this.metricsSnapshotMinutes = metricsSnapshotMinutes; }
+
+        /** Settings for the {@code "memory"} economy provider (load testing only). */
+        public MemoryEconomy getMemoryEconomy() { return memoryEconomy != null ? memoryEconomy : (memoryEconomy = new MemoryEconomy()); }
+        public void setMemoryEconomy(MemoryEconomy memoryEconomy) { this.memoryEconomy = memoryEconomy; }
+    }
+
+    public static class MemoryEconomy {
+        private double startingBalance = 100000.0;
+        private long latencyMs = 0;
+        private long latencyJitterMs = 0;
+        private double failureRate = 0.0;
+
+        public double getStartingBalance() { return startingBalance; }
+        public void setStartingBalance(double startingBalance) { this.startingBalance = startingBalance; }
+
+        public long getLatencyMs() { return latencyMs; }
+        public void setLatencyMs(long latencyMs) { this.latencyMs = latencyMs; }
+
+        public long getLatencyJitterMs() { return latencyJitterMs; }
+        public void setLatencyJitterMs(long latencyJitterMs) { this.latencyJitterMs = latencyJitterMs; }
+
+        public double getFailureRate() { return failureRate; }
+        public void setFailureRate(double failureRate) { this.failureRate = failureRate; }
     }
 
     public static class LevelConfig {
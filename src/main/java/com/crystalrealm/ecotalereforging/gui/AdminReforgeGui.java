@@ -3,7 +3,10 @@ package com.crystalrealm.ecotalereforging.gui;
 import com.crystalrealm.ecotalereforging.config.ConfigManager;
 import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
 import com.crystalrealm.ecotalereforging.lang.LangManager;
+import com.crystalrealm.ecotalereforging.service.ReforgeMetrics;
+import com.crystalrealm.ecotalereforging.service.ReforgeSimulator;
 import com.crystalrealm.ecotalereforging.util.MessageUtil;
+import com.crystalrealm.ecotalereforging.util.MiniMessageParser;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
 import com.hypixel.hytale.codec.builder.BuilderCodec;
@@ -23,6 +26,7 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
@@ -33,6 +37,7 @@ import java.util.UUID;
  * <ul>
  *   <li>General: max level, language, debug</li>
  *   <li>Level Editor: per-level chance, bonuses, costs</li>
+ *   <li>Expected Cost: exact attempts/coins to reach the edited level</li>
  *   <li>Actions: reload, save config</li>
  * </ul>
  */
@@ -59,6 +64,8 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
     private final LangManager   lang;
     private final UUID          playerUuid;
     private final String        pluginVersion;
+    private final ReforgeSimulator simulator;
+    private final ReforgeMetrics metrics;
 
     @Nullable private String statusMessage;
 
@@ -124,10 +131,13 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
                            @Nonnull LangManager lang,
                            @Nonnull PlayerRef playerRef,
                            @Nonnull UUID playerUuid,
+                           @Nonnull ReforgeMetrics metrics,
                            @Nonnull String pluginVersion,
                            @Nullable String statusMessage) {
         super(playerRef, CustomPageLifetime.CanDismiss, CODEC);
         this.configManager = configManager;
+        this.simulator = new ReforgeSimulator(configManager.getConfig());
+        this.metrics = metrics;
         this.lang          = lang;
         this.playerUuid    = playerUuid;
         this.pluginVersion = pluginVersion;
@@ -284,10 +294,11 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
         updateLevelEditor(cmd);
         updateAllowedItemsEditor(cmd);
         updateRecipeEditor(cmd);
+        updateSimulation(cmd);
         updateStats(cmd);
         updateButtonLabels(cmd);
 
-        LOGGER.info("Admin GUI built for {}", playerUuid);
+        LOGGER.debug("Admin GUI built for {}", playerUuid);
     }
     // ════════════════════════════════════════════════════════
 
@@ -927,6 +938,31 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
         }
     }
 
+    /** Exact expected cost of taking a fresh item to the level being edited. */
+    private void updateSimulation(@Nonnull UICommandBuilder cmd) {
+        cmd.set("#SecSim.Text", L("gui.admin.sec_simulation"));
+        cmd.set("#SimTargetLabel.Text", L("gui.admin.sim.target"));
+        cmd.set("#SimTargetValue.Text", "+" + editingLevel);
+        cmd.set("#SimPlainLabel.Text", L("gui.admin.sim.unprotected"));
+        cmd.set("#SimProtLabel.Text", L("gui.admin.sim.protected"));
+
+        ReforgeSimulator.LevelEstimate plain = simulator.exact(false, editingLevel);
+        ReforgeSimulator.LevelEstimate prot = simulator.exact(true, editingLevel);
+        cmd.set("#SimPlainValue.Text", plain == null ? "—" : L("gui.admin.sim.value_plain",
+                "attempts", formatEstimate(plain.attempts()),
+                "coins", formatEstimate(plain.coins()),
+                "chance", formatEstimate(plain.reachChance() * 100)));
+        cmd.set("#SimProtValue.Text", prot == null ? "—" : L("gui.admin.sim.value_protected",
+                "attempts", formatEstimate(prot.attempts()),
+                "coins", formatEstimate(prot.coins())));
+    }
+
+    private static String formatEstimate(double value) {
+        if (Double.isNaN(value)) return "—";
+        if (Double.isInfinite(value)) return "∞";
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
     private void updateStats(@Nonnull UICommandBuilder cmd) {
         ReforgeConfig config = configManager.getConfig();
 
@@ -935,6 +971,36 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
         cmd.set("#VersionValue.Text", pluginVersion);
         cmd.set("#TotalLevelsLabel.Text", L("gui.admin.total_levels"));
         cmd.set("#TotalLevelsValue.Text", String.valueOf(config.getLevels().size()));
+
+        ReforgeMetrics.Snapshot snap = metrics.snapshot();
+        cmd.set("#MetricsTotalLabel.Text", L("gui.admin.metrics.total"));
+        cmd.set("#MetricsTotalValue.Text", formatWindow(snap.total()));
+        cmd.set("#MetricsHourLabel.Text", L("gui.admin.metrics.hour"));
+        cmd.set("#MetricsHourValue.Text", formatWindow(snap.lastHour()));
+        cmd.set("#MetricsDayLabel.Text", L("gui.admin.metrics.day"));
+        cmd.set("#MetricsDayValue.Text", formatWindow(snap.lastDay()));
+        cmd.set("#MetricsMaterialsLabel.Text", L("gui.admin.metrics.materials"));
+        cmd.set("#MetricsMaterialsValue.Text", L("gui.admin.metrics.value_materials",
+                "consumed", String.valueOf(snap.total().materialsConsumed()),
+                "returned", String.valueOf(snap.total().materialsReturned())));
+
+        // Observed vs configured chance for the level being edited
+        ReforgeMetrics.Totals level = snap.levels().get(editingLevel);
+        ReforgeConfig.LevelConfig levelCfg = config.getLevelConfig(editingLevel);
+        cmd.set("#MetricsLevelLabel.Text", L("gui.admin.metrics.level", "level", String.valueOf(editingLevel)));
+        cmd.set("#MetricsLevelValue.Text", level == null || levelCfg == null ? "—" : L("gui.admin.metrics.value_level",
+                "observed", formatEstimate(level.successRate() * 100),
+                "attempts", String.valueOf(level.attempts()),
+                "configured", formatEstimate(levelCfg.getSuccessChance() * 100)));
+    }
+
+    private String formatWindow(@Nonnull ReforgeMetrics.Totals t) {
+        if (t.attempts() == 0) return "—";
+        return L("gui.admin.metrics.value_window",
+                "attempts", String.valueOf(t.attempts()),
+                "success", formatEstimate(t.successRate() * 100),
+                "destroyed", String.valueOf(t.destroyed()),
+                "coins", MessageUtil.formatCoins(t.coins()));
     }
 
     private void updateButtonLabels(@Nonnull UICommandBuilder cmd) {
@@ -970,6 +1036,7 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
             updateLevelEditor(cmd);
             updateAllowedItemsEditor(cmd);
             updateRecipeEditor(cmd);
+            updateSimulation(cmd);
             updateStats(cmd);
             updateButtonLabels(cmd);
 
@@ -983,7 +1050,7 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
     private void reopen(@Nullable String status) {
         close();
         AdminReforgeGui newPage = new AdminReforgeGui(
-                configManager, lang, playerRef, playerUuid, pluginVersion, status);
+                configManager, lang, playerRef, playerUuid, metrics, pluginVersion, status);
         PageOpenHelper.openPage(savedRef, savedStore, newPage);
     }
 
@@ -997,9 +1064,10 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
                             @Nonnull Ref<EntityStore> ref,
                             @Nonnull Store<EntityStore> store,
                             @Nonnull UUID playerUuid,
+                            @Nonnull ReforgeMetrics metrics,
                             @Nonnull String pluginVersion) {
         AdminReforgeGui page = new AdminReforgeGui(
-                configManager, lang, playerRef, playerUuid, pluginVersion, null);
+                configManager, lang, playerRef, playerUuid, metrics, pluginVersion, null);
         PageOpenHelper.openPage(ref, store, page);
     }
 
@@ -1012,8 +1080,7 @@ public final class AdminReforgeGui extends InteractiveCustomUIPage<AdminReforgeG
     }
 
     private static String stripForUI(String text) {
-        if (text == null) return "";
-        return text.replaceAll("<[^>]+>", "").trim();
+        return MiniMessageParser.stripTags(text).trim();
     }
 
     // ════════════════════════════════════════════════════════
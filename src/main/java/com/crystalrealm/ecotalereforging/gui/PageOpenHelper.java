@@ -7,7 +7,9 @@ import com.hypixel.hytale.server.core.entity.entities.player.pages.InteractiveCu
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
 
 /**
  * Utility that opens/closes InteractiveCustomUIPage through 100% reflection.
@@ -68,6 +70,25 @@ public final class PageOpenHelper {
         }
     }
 
+    /**
+     * The world thread that owns {@code store}, or {@code null} if it cannot be
+     * resolved. Callers must then give up rather than touch the world from
+     * whatever thread they are on.
+     */
+    @Nullable
+    public static Executor worldExecutor(@Nonnull Store<EntityStore> store) {
+        try {
+            Object extData = store.getClass().getMethod("getExternalData").invoke(store);
+            Object world = extData.getClass().getMethod("getWorld").invoke(extData);
+            if (world instanceof Executor worldExec) return worldExec;
+            LOGGER.warn("[PageOpenHelper] World is not an executor: {}",
+                    world == null ? "null" : world.getClass().getName());
+        } catch (Exception e) {
+            LOGGER.warn("[PageOpenHelper] World executor unavailable: {}", e.getMessage());
+        }
+        return null;
+    }
+
     private static Method findMethod(Class<?> clazz, String name, int paramCount) {
         for (Method m : clazz.getMethods()) {
             if (name.equals(m.getName()) && m.getParameterCount() == paramCount) {
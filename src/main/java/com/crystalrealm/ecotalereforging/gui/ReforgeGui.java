@@ -1,13 +1,17 @@
 package com.crystalrealm.ecotalereforging.gui;
 
 import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
+import com.crystalrealm.ecotalereforging.lang.LangKeys;
 import com.crystalrealm.ecotalereforging.lang.LangManager;
+import com.crystalrealm.ecotalereforging.model.AutoReforgeSummary;
 import com.crystalrealm.ecotalereforging.model.ReforgeAttemptInfo;
 import com.crystalrealm.ecotalereforging.model.ReforgeResult;
+import com.crystalrealm.ecotalereforging.service.InventorySnapshot;
 import com.crystalrealm.ecotalereforging.service.ItemValidationService;
 import com.crystalrealm.ecotalereforging.service.ReforgeService;
 import com.crystalrealm.ecotalereforging.service.WeaponStatsService;
 import com.crystalrealm.ecotalereforging.util.MessageUtil;
+import com.crystalrealm.ecotalereforging.util.MiniMessageParser;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
 import com.hypixel.hytale.codec.builder.BuilderCodec;
@@ -27,7 +31,11 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Player-facing reforging GUI.
@@ -36,7 +44,7 @@ import java.util.UUID;
  * <ul>
  *   <li>Center: Current weapon/armor info, reforge level, stats</li>
  *   <li>Left: Required materials + coin cost, success chance</li>
- *   <li>Bottom: Forge button</li>
+ *   <li>Bottom: Forge button, auto-reforge controls (target level + spending cap)</li>
  *   <li>Status banners for success/failure notifications</li>
  * </ul>
  */
@@ -72,6 +80,18 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
     /** Whether the player has enabled protection for the next reforge attempt. */
     private boolean protectionSelected = false;
 
+    /** Auto-reforge target level; 0 means "next level". */
+    private int autoTarget = 0;
+
+    /** Last balance fetched off-thread; {@code NaN} until the first lookup completes. */
+    private double knownBalance = Double.NaN;
+
+    /** Index into {@link #AUTO_CAP_SHARES}. */
+    private int autoCapIndex = 1;
+
+    /** Auto-reforge spending cap choices, as a share of the current balance. */
+    private static final double[] AUTO_CAP_SHARES = {0.10, 0.25, 0.50, 1.00};
+
     private static final int MAX_SLOTS = 8;
 
     // Saved for re-open
@@ -134,16 +154,16 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
         cmd.append(PAGE_PATH);
 
         // ── Title ───────────────────────────────────────────
-        cmd.set("#TitleLabel.Text", L("gui.reforge.title"));
+        cmd.set("#TitleLabel.Text", L(LangKeys.GUI_REFORGE_TITLE));
 
         // ── Translate static UI labels ──────────────────────
-        cmd.set("#InventoryHeader.Text", L("gui.reforge.section.inventory"));
-        cmd.set("#ItemInfoHeader.Text", L("gui.reforge.section.item_info"));
-        cmd.set("#LblLevel.Text", L("gui.reforge.label.level"));
-        cmd.set("#LblStats.Text", L("gui.reforge.label.stats"));
-        cmd.set("#LblCoinCost.Text", L("gui.reforge.label.coin_cost"));
-        cmd.set("#LblSuccess.Text", L("gui.reforge.label.success"));
-        cmd.set("#RefreshBtn.Text", L("gui.reforge.btn.refresh"));
+        cmd.set("#InventoryHeader.Text", L(LangKeys.GUI_REFORGE_SECTION_INVENTORY));
+        cmd.set("#ItemInfoHeader.Text", L(LangKeys.GUI_REFORGE_SECTION_ITEM_INFO));
+        cmd.set("#LblLevel.Text", L(LangKeys.GUI_REFORGE_LABEL_LEVEL));
+        cmd.set("#LblStats.Text", L(LangKeys.GUI_REFORGE_LABEL_STATS));
+        cmd.set("#LblCoinCost.Text", L(LangKeys.GUI_REFORGE_LABEL_COIN_COST));
+        cmd.set("#LblSuccess.Text", L(LangKeys.GUI_REFORGE_LABEL_SUCCESS));
+        cmd.set("#RefreshBtn.Text", L(LangKeys.GUI_REFORGE_BTN_REFRESH));
 
         // ── Bind events ─────────────────────────────────────
         events.addEventBinding(CustomUIEventBindingType.Activating, "#ForgeBtn",
@@ -152,6 +172,14 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
                 new EventData().append(KEY_ACTION, "refresh"));
         events.addEventBinding(CustomUIEventBindingType.Activating, "#ProtectionToggleBtn",
                 new EventData().append(KEY_ACTION, "toggle_protection"));
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#AutoTargetDownBtn",
+                new EventData().append(KEY_ACTION, "auto_target_down"));
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#AutoTargetUpBtn",
+                new EventData().append(KEY_ACTION, "auto_target_up"));
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#AutoCapBtn",
+                new EventData().append(KEY_ACTION, "auto_cap"));
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#AutoBtn",
+                new EventData().append(KEY_ACTION, "auto_reforge"));
 
         // ── Inventory item slot buttons (up to 8) ───────────
         for (int i = 0; i < MAX_SLOTS; i++) {
@@ -175,10 +203,12 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
 
         // ── Fill selected item info ─────────────────────────
         updateItemInfo(cmd);
-        updateMaterials(cmd);
-        updateForgeButton(cmd);
+        InventorySnapshot inventory = reforgeService.snapshotInventory(player);
+        updateMaterials(cmd, inventory);
+        updateForgeButton(cmd, inventory);
+        requestBalance();
 
-        LOGGER.info("Reforge GUI built for {} (selectedSlot={})", playerUuid, selectedSlot);
+        LOGGER.debug("Reforge GUI built for {} (selectedSlot={})", playerUuid, selectedSlot);
     }
 
     // ════════════════════════════════════════════════════════
@@ -190,10 +220,14 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
                                 @Nonnull Store<EntityStore> store,
                                 @Nonnull ReforgeEventData data) {
         switch (data.action) {
-            case "reforge"            -> handleReforge();
+            case "reforge"            -> handleReforge(store);
             case "refresh"            -> handleRefresh();
             case "select"             -> handleSelect(data.slot);
             case "toggle_protection"  -> handleToggleProtection();
+            case "auto_target_down"   -> handleAutoTarget(-1);
+            case "auto_target_up"     -> handleAutoTarget(1);
+            case "auto_cap"           -> handleAutoCap();
+            case "auto_reforge"       -> handleAutoReforge(store);
         }
     }
 
@@ -205,7 +239,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
             List<int[]> slots = reforgeService.findReforgeableSlots(player);
             if (uiIndex >= 0 && uiIndex < slots.size()) {
                 selectedSlot = slots.get(uiIndex)[0]; // actual inventory slot
-                LOGGER.info("Player {} selected item at slot {} (UI index {})", playerUuid, selectedSlot, uiIndex);
+                LOGGER.debug("Player {} selected item at slot {} (UI index {})", playerUuid, selectedSlot, uiIndex);
                 refreshPage(null, null);
             }
         } catch (NumberFormatException e) {
@@ -223,9 +257,9 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
 
     // ── REFORGE CLICK ───────────────────────────────────────
 
-    private void handleReforge() {
+    private void handleReforge(@Nonnull Store<EntityStore> store) {
         if (selectedSlot < 0) {
-            refreshPage(L("gui.reforge.error.no_item"), null);
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_NO_ITEM), null);
             return;
         }
 
@@ -233,39 +267,45 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
         ItemStack item = reforgeService.getItemAtSlot(player, selectedSlot);
         if (item == null || item.isEmpty()) {
             selectedSlot = -1;
-            refreshPage(L("gui.reforge.error.no_item"), null);
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_NO_ITEM), null);
             return;
         }
 
         if (!validator.isReforgeable(item)) {
             selectedSlot = -1;
-            refreshPage(L("gui.reforge.error.invalid_item"), null);
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_INVALID_ITEM), null);
             return;
         }
 
         if (validator.isMaxLevel(item, playerUuid)) {
-            refreshPage(L("gui.reforge.error.max_level"), null);
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_MAX_LEVEL), null);
             return;
         }
 
         int currentLevel = validator.getReforgeLevel(item, playerUuid);
 
-        // Check materials
-        if (!reforgeService.hasMaterials(player, currentLevel)) {
-            refreshPage(L("gui.reforge.error.no_materials"), null);
+        // Check coins
+        if (!reforgeService.hasCoins(knownBalance, currentLevel)) {
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_NO_COINS), null);
             return;
         }
 
-        // Check coins
-        if (!reforgeService.hasCoins(playerUuid, currentLevel)) {
-            refreshPage(L("gui.reforge.error.no_coins"), null);
+        Executor world = PageOpenHelper.worldExecutor(store);
+        if (world == null) {
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_GENERIC), null);
             return;
         }
 
-        // Attempt reforge at selected slot
-        ReforgeAttemptInfo result = reforgeService.attemptReforgeAtSlot(player, playerUuid, selectedSlot, protectionSelected);
-        if (result == null) {
-            refreshPage(L("gui.reforge.error.generic"), null);
+        // Queue the attempt; clicks are applied in order, one at a time
+        reforgeService.attemptReforge(player, playerUuid, selectedSlot, protectionSelected, world)
+                .whenCompleteAsync((result, error) -> showAttemptResult(item, result, error), world);
+    }
+
+    private void showAttemptResult(@Nonnull ItemStack item,
+                                   @Nullable ReforgeAttemptInfo result,
+                                   @Nullable Throwable error) {
+        if (error != null || result == null) {
+            refreshPage(L(isBusy(error) ? LangKeys.GUI_REFORGE_ERROR_BUSY : LangKeys.GUI_REFORGE_ERROR_GENERIC), null);
             return;
         }
 
@@ -277,30 +317,127 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
                 } else {
                     bonusText = MessageUtil.formatBonus(result.getDefenseBonus()) + " DEF";
                 }
-                String msg = L("gui.reforge.success",
+                String msg = L(LangKeys.GUI_REFORGE_SUCCESS,
                         "level", String.valueOf(result.getTargetLevel()),
                         "bonus", bonusText);
                 refreshPage(null, msg);
             }
             case FAILURE -> {
                 String itemName = validator.getDisplayName(result.getItemId());
-                String msg = L("gui.reforge.failure",
+                String msg = L(LangKeys.GUI_REFORGE_FAILURE,
                         "item", itemName);
                 selectedSlot = -1; // item destroyed, deselect
                 refreshPage(msg, null);
             }
             case FAILURE_PROTECTED -> {
                 String itemName = validator.getDisplayName(result.getItemId());
-                String msg = L("gui.reforge.failure_protected",
+                String msg = L(LangKeys.GUI_REFORGE_FAILURE_PROTECTED,
                         "item", itemName);
                 refreshPage(msg, null);
             }
             case CANNOT_ATTEMPT -> {
-                refreshPage(L("gui.reforge.error.cannot_attempt"), null);
+                ReforgeAttemptInfo.Refusal refusal = result.getRefusal();
+                int key = refusal == ReforgeAttemptInfo.Refusal.NO_MATERIALS ? LangKeys.GUI_REFORGE_ERROR_NO_MATERIALS
+                        : refusal == ReforgeAttemptInfo.Refusal.NO_COINS ? LangKeys.GUI_REFORGE_ERROR_NO_COINS
+                        : LangKeys.GUI_REFORGE_ERROR_CANNOT_ATTEMPT;
+                refreshPage(L(key), null);
+            }
+        }
+    }
+
+    /** Whether an attempt was refused because the player's queue is full. */
+    private static boolean isBusy(@Nullable Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RejectedExecutionException;
+    }
+
+    // ── AUTO-REFORGE ────────────────────────────────────────
+
+    private void handleAutoTarget(int delta) {
+        ItemStack item = selectedSlot >= 0 ? reforgeService.getItemAtSlot(player, selectedSlot) : null;
+        if (item != null && !item.isEmpty()) {
+            autoTarget = clampAutoTarget(validator.getReforgeLevel(item, playerUuid), autoTarget + delta);
+        }
+        refreshPage(null, null);
+    }
+
+    private void handleAutoCap() {
+        autoCapIndex = (autoCapIndex + 1) % AUTO_CAP_SHARES.length;
+        refreshPage(null, null);
+    }
+
+    private void handleAutoReforge(@Nonnull Store<EntityStore> store) {
+        if (selectedSlot < 0) {
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_NO_ITEM), null);
+            return;
+        }
+
+        ItemStack item = reforgeService.getItemAtSlot(player, selectedSlot);
+        if (item == null || item.isEmpty() || !validator.isReforgeable(item)) {
+            selectedSlot = -1;
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_INVALID_ITEM), null);
+            return;
+        }
+        if (validator.isMaxLevel(item, playerUuid)) {
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_MAX_LEVEL), null);
+            return;
+        }
+
+        // Page state is read here, on the world thread; the run starts after the balance hop
+        final int slot = selectedSlot;
+        final boolean protection = protectionSelected;
+        int level = validator.getReforgeLevel(item, playerUuid);
+        int target = clampAutoTarget(level, autoTarget);
+        double share = AUTO_CAP_SHARES[autoCapIndex];
+        Executor world = PageOpenHelper.worldExecutor(store);
+        if (world == null) {
+            refreshPage(L(LangKeys.GUI_REFORGE_ERROR_GENERIC), null);
+            return;
+        }
+
+        // The cap is a share of the live balance, not the cached one
+        reforgeService.refreshPlayerBalanceAsync(playerUuid)
+                .thenCompose(balance -> reforgeService.autoReforge(player, playerUuid, slot,
+                        target, balance * share, protection, world))
+                .whenCompleteAsync(this::showAutoResult, world);
+    }
+
+    private void showAutoResult(@Nullable AutoReforgeSummary summary, @Nullable Throwable error) {
+        if (error != null || summary == null) {
+            refreshPage(L(isBusy(error) ? LangKeys.GUI_REFORGE_ERROR_BUSY : LangKeys.GUI_REFORGE_ERROR_GENERIC), null);
+            return;
+        }
+
+        String result = L(LangKeys.GUI_REFORGE_AUTO_RESULT,
+                "attempts", String.valueOf(summary.getAttempts()),
+                "from", String.valueOf(summary.getStartLevel()),
+                "to", String.valueOf(summary.getFinalLevel()),
+                "spent", reforgeService.formatCurrency(summary.getCoinsSpent()));
+        String reason = L("gui.reforge.auto.stop." + summary.getStopReason().name().toLowerCase(Locale.ROOT),
+                "item", validator.getDisplayName(summary.getItemId()));
+
+        switch (summary.getStopReason()) {
+            case TARGET_REACHED -> {
+                autoTarget = 0;
+                refreshPage(null, result + " " + reason);
             }
+            case DESTROYED -> {
+                selectedSlot = -1;
+                autoTarget = 0;
+                refreshPage(result + " " + reason, null);
+            }
+            case INVALID -> refreshPage(reason, null);
+            default -> refreshPage(result + " " + reason, null);
         }
     }
 
+    /** Target within (current level, max level]; 0 or out-of-range values mean "next level". */
+    private int clampAutoTarget(int currentLevel, int target) {
+        int max = config.getGeneral().getMaxReforgeLevel();
+        if (target <= currentLevel) return Math.min(currentLevel + 1, max);
+        return Math.min(target, max);
+    }
+
     // ── REFRESH CLICK ───────────────────────────────────────
 
     private void handleRefresh() {
@@ -348,7 +485,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
 
         if (totalItems == 0) {
             cmd.set("#NoItemsWrap.Visible", true);
-            cmd.set("#NoItemsLabel.Text", L("gui.reforge.no_reforgeable_items"));
+            cmd.set("#NoItemsLabel.Text", L(LangKeys.GUI_REFORGE_NO_REFORGEABLE_ITEMS));
         } else {
             cmd.set("#NoItemsWrap.Visible", false);
         }
@@ -360,7 +497,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
         if (item == null || item.isEmpty()) {
             cmd.set("#SelectedItemRow.Visible", false);
             cmd.set("#ItemLevel.Text", "");
-            cmd.set("#ItemStats.Text", L("gui.reforge.select_item"));
+            cmd.set("#ItemStats.Text", L(LangKeys.GUI_REFORGE_SELECT_ITEM));
             cmd.set("#WeaponStatsSection.Visible", false);
             return;
         }
@@ -373,16 +510,16 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
         cmd.set("#SelectedItemRow.Visible", true);
         cmd.set("#SelectedItemIcon.ItemId", stripNamespace(itemId));
         cmd.set("#ItemName.Text", displayName);
-        cmd.set("#ItemCategory.Text", isWeapon ? L("gui.reforge.category.weapon") : L("gui.reforge.category.armor"));
+        cmd.set("#ItemCategory.Text", isWeapon ? L(LangKeys.GUI_REFORGE_CATEGORY_WEAPON) : L(LangKeys.GUI_REFORGE_CATEGORY_ARMOR));
 
         // Show detailed weapon stats from WeaponStatsViewer
         // (Removed — weapon stats are shown on the item tooltip via DynamicTooltipsLib)
         cmd.set("#WeaponStatsSection.Visible", false);
 
         if (level > 0) {
-            cmd.set("#ItemLevel.Text", L("gui.reforge.level", "level", String.valueOf(level)));
+            cmd.set("#ItemLevel.Text", L(LangKeys.GUI_REFORGE_LEVEL, "level", String.valueOf(level)));
         } else {
-            cmd.set("#ItemLevel.Text", L("gui.reforge.not_reforged"));
+            cmd.set("#ItemLevel.Text", L(LangKeys.GUI_REFORGE_NOT_REFORGED));
         }
 
         // Stats display
@@ -391,7 +528,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
             int maxLevel = config.getGeneral().getMaxReforgeLevel();
 
             if (level >= maxLevel) {
-                cmd.set("#ItemStats.Text", L("gui.reforge.max_level_reached"));
+                cmd.set("#ItemStats.Text", L(LangKeys.GUI_REFORGE_MAX_LEVEL_REACHED));
             } else {
                 double currentBonus = isWeapon
                         ? reforgeService.getDamageBonus(level)
@@ -406,13 +543,13 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
                 String statsText;
                 if (!isWeapon) {
                     // Armor: show DEF bonus
-                    statsText = L("gui.reforge.stats",
+                    statsText = L(LangKeys.GUI_REFORGE_STATS,
                             "current_bonus", MessageUtil.formatBonus(currentBonus),
                             "next_bonus", MessageUtil.formatBonus(nextBonus),
                             "stat", "DEF",
                             "chance", MessageUtil.formatPercent(chance));
                 } else {
-                    statsText = L("gui.reforge.stats",
+                    statsText = L(LangKeys.GUI_REFORGE_STATS,
                             "current_bonus", MessageUtil.formatBonus(currentBonus),
                             "next_bonus", MessageUtil.formatBonus(nextBonus),
                             "stat", statLabel,
@@ -421,16 +558,16 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
                 cmd.set("#ItemStats.Text", statsText);
             }
         } else {
-            cmd.set("#ItemStats.Text", L("gui.reforge.cannot_reforge"));
+            cmd.set("#ItemStats.Text", L(LangKeys.GUI_REFORGE_CANNOT_REFORGE));
         }
     }
 
     private static final int MAX_MAT_SLOTS = 4;
 
-    private void updateMaterials(@Nonnull UICommandBuilder cmd) {
+    private void updateMaterials(@Nonnull UICommandBuilder cmd, @Nonnull InventorySnapshot inventory) {
         ItemStack item = selectedSlot >= 0 ? reforgeService.getItemAtSlot(player, selectedSlot) : null;
 
-        cmd.set("#MaterialsHeader.Text", L("gui.reforge.materials_header"));
+        cmd.set("#MaterialsHeader.Text", L(LangKeys.GUI_REFORGE_MATERIALS_HEADER));
 
         if (item == null || item.isEmpty() || !validator.isReforgeable(item)) {
             hideMaterialSlots(cmd);
@@ -446,7 +583,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
             // Show max level message in first slot
             cmd.set("#MatSlot0Wrap.Visible", true);
             cmd.set("#MatIcon0.ItemId", "");
-            cmd.set("#MatLabel0.Text", L("gui.reforge.max_level_reached"));
+            cmd.set("#MatLabel0.Text", L(LangKeys.GUI_REFORGE_MAX_LEVEL_REACHED));
             cmd.set("#CoinCost.Text", "");
             return;
         }
@@ -458,7 +595,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
                 ReforgeConfig.MaterialEntry mat = materials.get(i);
                 String matName = getLocalizedItemName(mat.getItemId());
                 String iconId = stripNamespace(mat.getItemId());
-                int playerHas = reforgeService.countMaterial(player, mat.getItemId());
+                int playerHas = inventory.count(mat.getItemId());
                 boolean hasEnough = playerHas >= mat.getCount();
                 cmd.set("#MatSlot" + i + "Wrap.Visible", true);
                 cmd.set("#MatIcon" + i + ".ItemId", iconId);
@@ -477,7 +614,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
             String formattedCost = reforgeService.formatCurrency(coinCost);
             cmd.set("#CoinCost.Text", formattedCost);
         } else {
-            cmd.set("#CoinCost.Text", L("gui.reforge.free"));
+            cmd.set("#CoinCost.Text", L(LangKeys.GUI_REFORGE_FREE));
         }
     }
 
@@ -487,7 +624,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
         }
     }
 
-    private void updateForgeButton(@Nonnull UICommandBuilder cmd) {
+    private void updateForgeButton(@Nonnull UICommandBuilder cmd, @Nonnull InventorySnapshot inventory) {
         ItemStack item = selectedSlot >= 0 ? reforgeService.getItemAtSlot(player, selectedSlot) : null;
 
         if (item == null || item.isEmpty() || !validator.isReforgeable(item)) {
@@ -495,6 +632,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
             cmd.set("#RefreshBtnWrap.Visible", true);
             cmd.set("#RiskLabel.Text", "");
             cmd.set("#ProtectionWrap.Visible", false);
+            cmd.set("#AutoWrap.Visible", false);
             return;
         }
 
@@ -506,40 +644,55 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
             cmd.set("#RefreshBtnWrap.Visible", false);
             cmd.set("#RiskLabel.Text", "");
             cmd.set("#ProtectionWrap.Visible", false);
+            cmd.set("#AutoWrap.Visible", false);
             return;
         }
 
-        boolean hasMats = reforgeService.hasMaterials(player, level);
-        boolean hasCoins = reforgeService.hasCoins(playerUuid, level);
+        boolean hasMats = reforgeService.hasMaterials(inventory, level);
+        boolean hasCoins = reforgeService.hasCoins(knownBalance, level);
 
         cmd.set("#ForgeBtnWrap.Visible", true);
         cmd.set("#RefreshBtnWrap.Visible", true);
 
         // Always show "FORGE" text; button is visually styled via ForgeStyle
-        cmd.set("#ForgeBtn.Text", L("gui.reforge.btn.forge"));
+        cmd.set("#ForgeBtn.Text", L(LangKeys.GUI_REFORGE_BTN_FORGE));
 
         // ── Protection toggle ──────────────────────────────
         if (reforgeService.isProtectionEnabled()) {
             cmd.set("#ProtectionWrap.Visible", true);
             cmd.set("#ProtectionToggleBtn.Text", protectionSelected
-                    ? L("gui.reforge.protection.on")
-                    : L("gui.reforge.protection.off"));
+                    ? L(LangKeys.GUI_REFORGE_PROTECTION_ON)
+                    : L(LangKeys.GUI_REFORGE_PROTECTION_OFF));
 
             double protCost = reforgeService.getProtectionCost(level);
             String formattedCost = reforgeService.formatCurrency(protCost);
-            cmd.set("#ProtectionCostLabel.Text", L("gui.reforge.protection.cost", "cost", formattedCost));
+            cmd.set("#ProtectionCostLabel.Text", L(LangKeys.GUI_REFORGE_PROTECTION_COST, "cost", formattedCost));
         } else {
             cmd.set("#ProtectionWrap.Visible", false);
             protectionSelected = false; // reset if disabled
         }
 
+        // ── Auto-reforge controls ───────────────────────────
+        if (config.getGeneral().getAutoReforgeMaxAttempts() > 0) {
+            int target = clampAutoTarget(level, autoTarget);
+            double share = AUTO_CAP_SHARES[autoCapIndex];
+            cmd.set("#AutoWrap.Visible", true);
+            cmd.set("#AutoTargetLabel.Text", L(LangKeys.GUI_REFORGE_AUTO_TARGET, "level", String.valueOf(target)));
+            cmd.set("#AutoCapBtn.Text", L(LangKeys.GUI_REFORGE_AUTO_CAP,
+                    "percent", MessageUtil.formatPercent(share),
+                    "cap", Double.isNaN(knownBalance) ? "-" : reforgeService.formatCurrency(knownBalance * share)));
+            cmd.set("#AutoBtn.Text", L(LangKeys.GUI_REFORGE_BTN_AUTO));
+        } else {
+            cmd.set("#AutoWrap.Visible", false);
+        }
+
         // Show missing resources as subtle warning near the button (NOT as top error banner)
         if (!hasMats || !hasCoins) {
-            cmd.set("#RiskLabel.Text", L("gui.reforge.btn.insufficient"));
+            cmd.set("#RiskLabel.Text", L(LangKeys.GUI_REFORGE_BTN_INSUFFICIENT));
         } else {
             // Risk/chance display
             double chance = reforgeService.getSuccessChance(level);
-            cmd.set("#RiskLabel.Text", L("gui.reforge.risk",
+            cmd.set("#RiskLabel.Text", L(LangKeys.GUI_REFORGE_RISK,
                     "chance", MessageUtil.formatPercent(chance)));
         }
     }
@@ -549,6 +702,8 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
     // ════════════════════════════════════════════════════════
 
     private void refreshPage(@Nullable String error, @Nullable String success) {
+        errorMessage = error;
+        successMessage = success;
         try {
             UICommandBuilder cmd = new UICommandBuilder();
 
@@ -559,16 +714,33 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
 
             buildItemList(cmd);
             updateItemInfo(cmd);
-            updateMaterials(cmd);
-            updateForgeButton(cmd);
+            InventorySnapshot inventory = reforgeService.snapshotInventory(player);
+            updateMaterials(cmd, inventory);
+            updateForgeButton(cmd, inventory);
 
             sendUpdate(cmd);
+            requestBalance();
         } catch (Exception e) {
             LOGGER.warn("[refreshPage] sendUpdate failed, reopening: {}", e.getMessage());
             reopen(error, success);
         }
     }
 
+    /**
+     * Look the balance up off-thread and redraw once it changes. Economy
+     * providers may hit a database, so page builds only read {@link #knownBalance}.
+     */
+    private void requestBalance() {
+        if (savedStore == null) return;
+        Executor world = PageOpenHelper.worldExecutor(savedStore);
+        if (world == null) return;
+        reforgeService.getPlayerBalanceAsync(playerUuid).thenAcceptAsync(balance -> {
+            if (Double.compare(balance, knownBalance) == 0) return;
+            knownBalance = balance;
+            refreshPage(errorMessage, successMessage);
+        }, world);
+    }
+
     private void reopen(@Nullable String error, @Nullable String success) {
         close();
         ReforgeGui newPage = new ReforgeGui(
@@ -605,9 +777,12 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
         return lang.getForPlayer(playerUuid, key, args);
     }
 
+    private String L(int keyId, String... args) {
+        return lang.getForPlayer(playerUuid, keyId, args);
+    }
+
     private static String stripForUI(String text) {
-        if (text == null) return "";
-        return text.replaceAll("<[^>]+>", "").trim();
+        return MiniMessageParser.stripTags(text).trim();
     }
 
     /**
@@ -665,7 +840,7 @@ public final class ReforgeGui extends InteractiveCustomUIPage<ReforgeGui.Reforge
             String matKey = "item.material." + matName;
             String localMat = L(matKey);
             if (localMat.equals(matKey)) localMat = matName;
-            String ingotWord = L("item.craft.Ingot");
+            String ingotWord = L(LangKeys.ITEM_CRAFT_INGOT);
             if (ingotWord.equals("item.craft.Ingot")) ingotWord = "Ingot";
             return localMat + " " + ingotWord;
         } else {
@@ -0,0 +1,115 @@
+package com.crystalrealm.ecotalereforging.lang;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message keys interned to dense int ids.
+ *
+ * <p>Every key found in a language file gets an id when the files are
+ * loaded; {@link LangManager} stores each locale as an array indexed by that
+ * id. Keys used from code are resolved once into the constants below, so a
+ * lookup with a constant is two array reads and no hashing.</p>
+ *
+ * <p>Ids are process-wide and never reused: a key dropped from the files on
+ * reload keeps its id and simply resolves to nothing.</p>
+ */
+public final class LangKeys {
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[256];
+    private static int count;
+
+    // ════════════════════════════════════════════════════════
+    //  KEYS USED FROM CODE
+    // ════════════════════════════════════════════════════════
+
+    public static final int CMD_NO_PERMISSION = id("cmd.no_permission");
+
+    public static final int GUI_REFORGE_AUTO_CAP = id("gui.reforge.auto.cap");
+    public static final int GUI_REFORGE_AUTO_RESULT = id("gui.reforge.auto.result");
+    public static final int GUI_REFORGE_AUTO_TARGET = id("gui.reforge.auto.target");
+    public static final int GUI_REFORGE_BTN_AUTO = id("gui.reforge.btn.auto");
+    public static final int GUI_REFORGE_BTN_FORGE = id("gui.reforge.btn.forge");
+    public static final int GUI_REFORGE_BTN_INSUFFICIENT = id("gui.reforge.btn.insufficient");
+    public static final int GUI_REFORGE_BTN_REFRESH = id("gui.reforge.btn.refresh");
+    public static final int GUI_REFORGE_CANNOT_REFORGE = id("gui.reforge.cannot_reforge");
+    public static final int GUI_REFORGE_CATEGORY_ARMOR = id("gui.reforge.category.armor");
+    public static final int GUI_REFORGE_CATEGORY_WEAPON = id("gui.reforge.category.weapon");
+    public static final int GUI_REFORGE_ERROR_BUSY = id("gui.reforge.error.busy");
+    public static final int GUI_REFORGE_ERROR_CANNOT_ATTEMPT = id("gui.reforge.error.cannot_attempt");
+    public static final int GUI_REFORGE_ERROR_GENERIC = id("gui.reforge.error.generic");
+    public static final int GUI_REFORGE_ERROR_INVALID_ITEM = id("gui.reforge.error.invalid_item");
+    public static final int GUI_REFORGE_ERROR_MAX_LEVEL = id("gui.reforge.error.max_level");
+    public static final int GUI_REFORGE_ERROR_NO_COINS = id("gui.reforge.error.no_coins");
+    public static final int GUI_REFORGE_ERROR_NO_ITEM = id("gui.reforge.error.no_item");
+    public static final int GUI_REFORGE_ERROR_NO_MATERIALS = id("gui.reforge.error.no_materials");
+    public static final int GUI_REFORGE_FAILURE = id("gui.reforge.failure");
+    public static final int GUI_REFORGE_FAILURE_PROTECTED = id("gui.reforge.failure_protected");
+    public static final int GUI_REFORGE_FREE = id("gui.reforge.free");
+    public static final int GUI_REFORGE_LABEL_COIN_COST = id("gui.reforge.label.coin_cost");
+    public static final int GUI_REFORGE_LABEL_LEVEL = id("gui.reforge.label.level");
+    public static final int GUI_REFORGE_LABEL_STATS = id("gui.reforge.label.stats");
+    public static final int GUI_REFORGE_LABEL_SUCCESS = id("gui.reforge.label.success");
+    public static final int GUI_REFORGE_LEVEL = id("gui.reforge.level");
+    public static final int GUI_REFORGE_MATERIALS_HEADER = id("gui.reforge.materials_header");
+    public static final int GUI_REFORGE_MAX_LEVEL_REACHED = id("gui.reforge.max_level_reached");
+    public static final int GUI_REFORGE_NO_REFORGEABLE_ITEMS = id("gui.reforge.no_reforgeable_items");
+    public static final int GUI_REFORGE_NOT_REFORGED = id("gui.reforge.not_reforged");
+    public static final int GUI_REFORGE_PROTECTION_COST = id("gui.reforge.protection.cost");
+    public static final int GUI_REFORGE_PROTECTION_OFF = id("gui.reforge.protection.off");
+    public static final int GUI_REFORGE_PROTECTION_ON = id("gui.reforge.protection.on");
+    public static final int GUI_REFORGE_RISK = id("gui.reforge.risk");
+    public static final int GUI_REFORGE_SECTION_INVENTORY = id("gui.reforge.section.inventory");
+    public static final int GUI_REFORGE_SECTION_ITEM_INFO = id("gui.reforge.section.item_info");
+    public static final int GUI_REFORGE_SELECT_ITEM = id("gui.reforge.select_item");
+    public static final int GUI_REFORGE_STATS = id("gui.reforge.stats");
+    public static final int GUI_REFORGE_SUCCESS = id("gui.reforge.success");
+    public static final int GUI_REFORGE_TITLE = id("gui.reforge.title");
+
+    public static final int ITEM_CRAFT_INGOT = id("item.craft.Ingot");
+
+    private LangKeys() {}
+
+    // ════════════════════════════════════════════════════════
+    //  INTERNING
+    // ════════════════════════════════════════════════════════
+
+    /** Id of the key, assigning the next free one if it has none yet. */
+    public static int id(@Nonnull String key) {
+        Integer id = IDS.get(key);
+        return id != null ? id : assign(key);
+    }
+
+    /** Id of the key, or {@code -1} if no language file or constant has it. Never assigns. */
+    public static int lookup(@Nonnull String key) {
+        Integer id = IDS.get(key);
+        return id != null ? id : -1;
+    }
+
+    /** The key behind an id, or {@code "?"} for an id never handed out. */
+    @Nonnull
+    public static String name(int id) {
+        String[] n = names;
+        return id >= 0 && id < n.length && n[id] != null ? n[id] : "?";
+    }
+
+    /** Number of ids handed out so far; every id is below this. */
+    static synchronized int size() {
+        return count;
+    }
+
+    private static synchronized int assign(String key) {
+        Integer existing = IDS.get(key);
+        if (existing != null) return existing;
+        int id = count++;
+        String[] n = names;
+        if (id == n.length) n = Arrays.copyOf(n, n.length * 2);
+        n[id] = key;
+        names = n;
+        IDS.put(key, id);
+        return id;
+    }
+}
@@ -5,6 +5,7 @@ import com.google.gson.reflect.TypeToken;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.*;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
@@ -25,10 +26,20 @@ public class LangManager {
 
     public static final List<String> SUPPORTED_LANGS = List.of("en", "ru", "pt_br", "fr", "de", "es");
     public static final String DEFAULT_LANG = "ru";
-
-    private final Map<String, Map<String, String>> translations = new HashMap<>();
+    private static final int EN = SUPPORTED_LANGS.indexOf("en");
+
+    /**
+     * Bundled messages plus overrides, compiled into one template array per
+     * locale (in {@link #SUPPORTED_LANGS} order) indexed by {@link LangKeys}
+     * id. Keys a locale lacks hold the {@code en} template, so a lookup never
+     * falls back at runtime. Replaced as a whole so readers never see a
+     * half-loaded table.
+     */
+    private volatile MessageTemplate[][] tables = new MessageTemplate[SUPPORTED_LANGS.size()][0];
+    /** Messages from the JAR, parsed once per {@link #load}; overrides are layered on a copy. */
+    private Map<String, Map<String, String>> bundled = Map.of();
     private final Map<UUID, String> playerLangs = new ConcurrentHashMap<>();
-    private String serverLang;
+    private volatile String serverLang;
     private final Path dataDirectory;
 
     public LangManager(@Nonnull Path dataDirectory) {
@@ -36,39 +47,62 @@ public class LangManager {
         this.serverLang = DEFAULT_LANG;
     }
 
-    public void load(@Nonnull String defaultLang) {
-        this.serverLang = SUPPORTED_LANGS.contains(defaultLang) ? defaultLang : DEFAULT_LANG;
+    public synchronized void load(@Nonnull String defaultLang) {
+        setServerLang(defaultLang);
 
+        Map<String, Map<String, String>> parsed = new HashMap<>();
         for (String lang : SUPPORTED_LANGS) {
             Map<String, String> messages = loadLangFile(lang);
             if (messages != null && !messages.isEmpty()) {
-                translations.put(lang, messages);
+                parsed.put(lang, messages);
                 LOGGER.info("Loaded {} messages for locale '{}'.", messages.size(), lang);
             }
         }
-        loadCustomOverrides();
+        bundled = parsed;
+        tables = withOverrides(parsed);
         LOGGER.info("LangManager initialized. Server language: '{}'", serverLang);
     }
 
     public void reload(@Nonnull String defaultLang) {
-        translations.clear();
         load(defaultLang);
     }
 
+    /**
+     * Re-read only the override files in {@code lang/} and layer them on the
+     * already parsed bundled messages. Called by the file watcher.
+     */
+    public synchronized void reloadOverrides() {
+        tables = withOverrides(bundled);
+        LOGGER.info("Language overrides reloaded.");
+    }
+
+    /** Switch the server language without re-reading any files. */
+    public void setServerLang(@Nonnull String langCode) {
+        this.serverLang = SUPPORTED_LANGS.contains(langCode) ? langCode : DEFAULT_LANG;
+    }
+
     @Nonnull
     public String get(@Nonnull String key, @Nonnull String... args) {
         return getForLang(serverLang, key, args);
     }
 
+    @Nonnull
+    public String get(int keyId, @Nonnull String... args) {
+        return getForLang(serverLang, keyId, args);
+    }
+
     @Nonnull
     public String getForLang(@Nonnull String langCode, @Nonnull String key, @Nonnull String... args) {
-        String message = getRaw(langCode, key);
-        if (args.length >= 2) {
-            for (int i = 0; i < args.length - 1; i += 2) {
-                message = message.replace("{" + args[i] + "}", args[i + 1]);
-            }
-        }
-        return message;
+        int keyId = LangKeys.lookup(key);
+        return keyId >= 0 ? getForLang(langCode, keyId, args) : key;
+    }
+
+    /** Message by interned key id (see {@link LangKeys}); the key itself if no locale has it. */
+    @Nonnull
+    public String getForLang(@Nonnull String langCode, int keyId, @Nonnull String... args) {
+        MessageTemplate[] table = tables[localeIndex(langCode)];
+        MessageTemplate template = keyId >= 0 && keyId < table.length ? table[keyId] : null;
+        return template != null ? template.render(args) : LangKeys.name(keyId);
     }
 
     @Nonnull
@@ -78,20 +112,14 @@ public class LangManager {
     }
 
     @Nonnull
-    private String getRaw(@Nonnull String langCode, @Nonnull String key) {
-        Map<String, String> messages = translations.get(langCode);
-        if (messages != null) {
-            String value = messages.get(key);
-            if (value != null) return value;
-        }
-        if (!"en".equals(langCode)) {
-            Map<String, String> en = translations.get("en");
-            if (en != null) {
-                String value = en.get(key);
-                if (value != null) return value;
-            }
-        }
-        return key;
+    public String getForPlayer(@Nonnull UUID playerUuid, int keyId, @Nonnull String... args) {
+        String lang = playerLangs.getOrDefault(playerUuid, serverLang);
+        return getForLang(lang, keyId, args);
+    }
+
+    private static int localeIndex(@Nonnull String langCode) {
+        int index = SUPPORTED_LANGS.indexOf(langCode);
+        return index >= 0 ? index : EN;
     }
 
     public boolean setPlayerLang(@Nonnull UUID playerUuid, @Nonnull String langCode) {
@@ -122,9 +150,16 @@ public class LangManager {
         }
     }
 
-    private void loadCustomOverrides() {
-        Path langDir = dataDirectory.resolve("lang");
-        if (!Files.isDirectory(langDir)) return;
+    /**
+     * {@code base} with the override files applied, compiled into templates.
+     * A broken override file is skipped, not half-applied.
+     */
+    private MessageTemplate[][] withOverrides(Map<String, Map<String, String>> base) {
+        Map<String, Map<String, String>> merged = new HashMap<>();
+        base.forEach((lang, messages) -> merged.put(lang, messages));
+
+        Path langDir = getOverrideDirectory();
+        if (!Files.isDirectory(langDir)) return compile(merged);
 
         for (String lang : SUPPORTED_LANGS) {
             Path customFile = langDir.resolve(lang + ".json");
@@ -132,7 +167,9 @@ public class LangManager {
                 try (Reader reader = Files.newBufferedReader(customFile, StandardCharsets.UTF_8)) {
                     Map<String, String> overrides = GSON.fromJson(reader, MAP_TYPE);
                     if (overrides != null) {
-                        translations.computeIfAbsent(lang, k -> new HashMap<>()).putAll(overrides);
+                        Map<String, String> messages = new HashMap<>(merged.getOrDefault(lang, Map.of()));
+                        messages.putAll(overrides);
+                        merged.put(lang, messages);
                         LOGGER.info("Applied {} custom overrides for '{}'.", overrides.size(), lang);
                     }
                 } catch (Exception e) {
@@ -140,5 +177,38 @@ public class LangManager {
                 }
             }
         }
+        return compile(merged);
+    }
+
+    /**
+     * Build the per-locale tables. Every key is interned first so all arrays
+     * share one size; each locale starts as a copy of the {@code en} table
+     * (sharing its templates) with its own messages written over it.
+     */
+    private static MessageTemplate[][] compile(Map<String, Map<String, String>> messagesByLang) {
+        messagesByLang.values().forEach(messages -> messages.keySet().forEach(LangKeys::id));
+        MessageTemplate[] en = fill(new MessageTemplate[LangKeys.size()], messagesByLang.get("en"));
+
+        MessageTemplate[][] compiled = new MessageTemplate[SUPPORTED_LANGS.size()][];
+        for (int i = 0; i < compiled.length; i++) {
+            Map<String, String> messages = messagesByLang.get(SUPPORTED_LANGS.get(i));
+            compiled[i] = i == EN || messages == null ? en : fill(en.clone(), messages);
+        }
+        return compiled;
+    }
+
+    private static MessageTemplate[] fill(MessageTemplate[] table, @Nullable Map<String, String> messages) {
+        if (messages == null) return table;
+        messages.forEach((key, text) -> {
+            int keyId = LangKeys.id(key);
+            if (text != null && keyId < table.length) table[keyId] = MessageTemplate.compile(text);
+        });
+        return table;
+    }
+
+    /** Directory holding per-language override files ({@code lang/<code>.json}). */
+    @Nonnull
+    public Path getOverrideDirectory() {
+        return dataDirectory.resolve("lang");
     }
 }
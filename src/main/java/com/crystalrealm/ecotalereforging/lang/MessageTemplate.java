@@ -0,0 +1,104 @@
+package com.crystalrealm.ecotalereforging.lang;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A translation compiled once into literal text and {@code {name}}
+ * placeholders.
+ *
+ * <p>{@link #render} fills placeholders from {@code key, value} argument
+ * pairs in a single pre-sized builder. Semantics match the old chained
+ * {@code String.replace}: the first pair with a matching key wins, and a
+ * placeholder without a matching pair is left as written. Messages without
+ * placeholders are returned as-is.</p>
+ */
+final class MessageTemplate {
+
+    private final String raw;
+    /** Literal text; {@code parts[i]} is a placeholder name where {@code placeholder[i]}. */
+    private final String[] parts;
+    private final boolean[] placeholder;
+    private final int literalLength;
+
+    private MessageTemplate(String raw, String[] parts, boolean[] placeholder, int literalLength) {
+        this.raw = raw;
+        this.parts = parts;
+        this.placeholder = placeholder;
+        this.literalLength = literalLength;
+    }
+
+    @Nonnull
+    static MessageTemplate compile(@Nonnull String raw) {
+        List<String> parts = new ArrayList<>();
+        List<Boolean> kinds = new ArrayList<>();
+        int literal = 0;
+        int pos = 0;
+        int len = raw.length();
+        while (pos < len) {
+            int open = raw.indexOf('{', pos);
+            int close = open < 0 ? -1 : raw.indexOf('}', open + 1);
+            // "{name}" with no nested '{' is a placeholder; anything else is literal text
+            if (open < 0 || close < 0) {
+                parts.add(raw.substring(pos));
+                kinds.add(false);
+                literal += len - pos;
+                break;
+            }
+            int nested = raw.indexOf('{', open + 1);
+            if (nested >= 0 && nested < close) {
+                parts.add(raw.substring(pos, nested));
+                kinds.add(false);
+                literal += nested - pos;
+                pos = nested;
+                continue;
+            }
+            if (open > pos) {
+                parts.add(raw.substring(pos, open));
+                kinds.add(false);
+                literal += open - pos;
+            }
+            parts.add(raw.substring(open + 1, close));
+            kinds.add(true);
+            pos = close + 1;
+        }
+
+        boolean[] placeholder = new boolean[kinds.size()];
+        for (int i = 0; i < placeholder.length; i++) placeholder[i] = kinds.get(i);
+        return new MessageTemplate(raw, parts.toArray(new String[0]), placeholder, literal);
+    }
+
+    @Nonnull
+    String raw() {
+        return raw;
+    }
+
+    /** Render with {@code key, value, key, value, ...} arguments. */
+    @Nonnull
+    String render(@Nonnull String... args) {
+        if (args.length < 2 || literalLength == raw.length()) return raw;
+
+        int capacity = literalLength;
+        for (int i = 1; i < args.length; i += 2) capacity += args[i].length();
+        StringBuilder sb = new StringBuilder(capacity);
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (!placeholder[i]) {
+                sb.append(part);
+                continue;
+            }
+            String value = lookup(part, args);
+            if (value != null) sb.append(value);
+            else sb.append('{').append(part).append('}');
+        }
+        return sb.toString();
+    }
+
+    private static String lookup(String name, String[] args) {
+        for (int i = 0; i < args.length - 1; i += 2) {
+            if (name.equals(args[i])) return args[i + 1];
+        }
+        return null;
+    }
+}
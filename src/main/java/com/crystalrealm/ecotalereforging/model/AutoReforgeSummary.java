@@ -0,0 +1,69 @@
+package com.crystalrealm.ecotalereforging.model;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Outcome of an auto-reforge run ("reforge until +N").
+ */
+public class AutoReforgeSummary {
+
+    /** Why the run ended. */
+    public enum StopReason {
+        /** The item reached the requested level. */
+        TARGET_REACHED,
+        /** The next attempt would exceed the spending cap. */
+        SPEND_CAP,
+        /** The player ran out of materials. */
+        NO_MATERIALS,
+        /** The player could not cover the first attempt. */
+        NO_COINS,
+        /** A failed attempt destroyed the item. */
+        DESTROYED,
+        /** The configured attempt limit was hit. */
+        ATTEMPT_LIMIT,
+        /** The item or run could not be started (invalid item, already max level, ...). */
+        INVALID
+    }
+
+    private final String itemId;
+    private final int startLevel;
+    private final int finalLevel;
+    private final int targetLevel;
+    private final int attempts;
+    private final int successes;
+    private final int protectedFailures;
+    private final double coinsSpent;
+    private final StopReason stopReason;
+
+    public AutoReforgeSummary(@Nonnull String itemId,
+                              int startLevel,
+                              int finalLevel,
+                              int targetLevel,
+                              int attempts,
+                              int successes,
+                              int protectedFailures,
+                              double coinsSpent,
+                              @Nonnull StopReason stopReason) {
+        this.itemId = itemId;
+        this.startLevel = startLevel;
+        this.finalLevel = finalLevel;
+        this.targetLevel = targetLevel;
+        this.attempts = attempts;
+        this.successes = successes;
+        this.protectedFailures = protectedFailures;
+        this.coinsSpent = coinsSpent;
+        this.stopReason = stopReason;
+    }
+
+    @Nonnull public String getItemId() { return itemId; }
+    public int getStartLevel() { return startLevel; }
+    public int getFinalLevel() { return finalLevel; }
+    public int getTargetLevel() { return targetLevel; }
+    public int getAttempts() { return attempts; }
+    public int getSuccesses() { return successes; }
+    public int getProtectedFailures() { return protectedFailures; }
+    public double getCoinsSpent() { return coinsSpent; }
+    @Nonnull public StopReason getStopReason() { return stopReason; }
+
+    public boolean isDestroyed() { return stopReason == StopReason.DESTROYED; }
+}
@@ -1,12 +1,23 @@
 package com.crystalrealm.ecotalereforging.model;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Holds information about a reforge attempt for display / event purposes.
  */
 public class ReforgeAttemptInfo {
 
+    /** Why a {@link ReforgeResult#CANNOT_ATTEMPT} attempt was refused. */
+    public enum Refusal {
+        /** Materials were short, or moved while the attempt was being paid for. */
+        NO_MATERIALS,
+        /** The coin withdrawal was refused. */
+        NO_COINS,
+        /** The selected item changed while the attempt was being paid for. */
+        ITEM_CHANGED
+    }
+
     private final String itemId;
     private final int currentLevel;
     private final int targetLevel;
@@ -15,6 +26,7 @@ public class ReforgeAttemptInfo {
     private final double damageBonus;
     private final double defenseBonus;
     private final ReforgeResult result;
+    private final Refusal refusal;
 
     public ReforgeAttemptInfo(@Nonnull String itemId,
                               int currentLevel,
@@ -24,6 +36,18 @@ public class ReforgeAttemptInfo {
                               double damageBonus,
                               double defenseBonus,
                               @Nonnull ReforgeResult result) {
+        this(itemId, currentLevel, targetLevel, successChance, coinCost, damageBonus, defenseBonus, result, null);
+    }
+
+    public ReforgeAttemptInfo(@Nonnull String itemId,
+                              int currentLevel,
+                              int targetLevel,
+                              double successChance,
+                              double coinCost,
+                              double damageBonus,
+                              double defenseBonus,
+                              @Nonnull ReforgeResult result,
+                              @Nullable Refusal refusal) {
         this.itemId = itemId;
         this.currentLevel = currentLevel;
         this.targetLevel = targetLevel;
@@ -32,6 +56,7 @@ public class ReforgeAttemptInfo {
         this.damageBonus = damageBonus;
         this.defenseBonus = defenseBonus;
         this.result = result;
+        this.refusal = refusal;
     }
 
     @Nonnull public String getItemId() { return itemId; }
@@ -42,4 +67,6 @@ public class ReforgeAttemptInfo {
     public double getDamageBonus() { return damageBonus; }
     public double getDefenseBonus() { return defenseBonus; }
     @Nonnull public ReforgeResult getResult() { return result; }
+    /** Set only for {@link ReforgeResult#CANNOT_ATTEMPT}. */
+    @Nullable public Refusal getRefusal() { return refusal; }
 }
@@ -3,6 +3,7 @@ package com.crystalrealm.ecotalereforging.npc;
 import com.crystalrealm.ecotalereforging.config.ConfigManager;
 import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
 import com.crystalrealm.ecotalereforging.gui.ReforgeGui;
+import com.crystalrealm.ecotalereforging.lang.LangKeys;
 import com.crystalrealm.ecotalereforging.lang.LangManager;
 import com.crystalrealm.ecotalereforging.service.ItemValidationService;
 import com.crystalrealm.ecotalereforging.service.ReforgeService;
@@ -233,7 +234,7 @@ public class ReforgeStationManager {
                     Player player = onlinePlayersByUuid.get(playerUuid);
                     if (player != null) {
                         try {
-                            String noPermMsg = langManager.getForPlayer(playerUuid, "cmd.no_permission");
+                            String noPermMsg = langManager.getForPlayer(playerUuid, LangKeys.CMD_NO_PERMISSION);
                             player.sendMessage(noPermMsg);
                         } catch (Exception ignored) {}
                     }
@@ -287,6 +288,8 @@ public class ReforgeStationManager {
         UUID uuid = player.getUuid();
         if (uuid != null) {
             onlinePlayersByUuid.put(uuid, player);
+            // Warm LuckPerms now so the F-press permission check never has to load the user
+            PermissionHelper.getInstance().preload(uuid);
         }
     }
 
@@ -3,6 +3,10 @@ package com.crystalrealm.ecotalereforging.provider.economy;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.UUID;
 
@@ -12,6 +16,11 @@ import java.util.UUID;
  * <p>EconomyAPI is a universal economy bridge that supports multiple backends:
  * EcoTale, TheEconomy, HyEssentialsX, VaultUnlocked, and more.</p>
  *
+ * <p>API methods are resolved once into method handles bound to the API
+ * instance and adapted to fixed primitive signatures, so a call is a single
+ * {@code invokeExact} with no argument arrays or boxing. A native
+ * {@code hasBalance} is used when the API has one.</p>
+ *
  * @see <a href="https://www.curseforge.com/hytale/mods/economyapi">CurseForge</a>
  */
 public class EconomyApiProvider implements EconomyProvider {
@@ -19,12 +28,35 @@ public class EconomyApiProvider implements EconomyProvider {
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
     private static final String API_CLASS = "com.sennecoolgames.economyapi.EconomyAPI";
 
+    private static final MethodType TRANSFER = MethodType.methodType(boolean.class, UUID.class, double.class, String.class);
+    private static final MethodType BALANCE  = MethodType.methodType(double.class, UUID.class);
+    private static final MethodType HAS      = MethodType.methodType(boolean.class, UUID.class, double.class);
+    private static final MethodType FORMAT   = MethodType.methodType(String.class, double.class);
+
+    private static final MethodHandle ALWAYS_TRUE = MethodHandles.constant(boolean.class, true);
+    private static final MethodHandle TO_DOUBLE;
+    private static final MethodHandle TO_STRING;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TO_DOUBLE = lookup.findStatic(EconomyApiProvider.class, "toDouble",
+                    MethodType.methodType(double.class, Object.class));
+            TO_STRING = lookup.findStatic(EconomyApiProvider.class, "toText",
+                    MethodType.methodType(String.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private boolean available;
     private Object apiInstance;
-    private Method depositMethod;
-    private Method withdrawMethod;
-    private Method getBalanceMethod;
-    private Method formatMethod;
+    private MethodHandle depositHandle;
+    private MethodHandle withdrawHandle;
+    private MethodHandle getBalanceHandle;
+    @Nullable
+    private MethodHandle hasBalanceHandle;
+    private MethodHandle formatHandle;
 
     public EconomyApiProvider() {
         resolve();
@@ -42,13 +74,16 @@ public class EconomyApiProvider implements EconomyProvider {
             }
 
             Class<?> instClass = apiInstance.getClass();
-            depositMethod    = instClass.getMethod("deposit",  UUID.class, double.class, String.class);
-            withdrawMethod   = instClass.getMethod("withdraw", UUID.class, double.class, String.class);
-            getBalanceMethod = instClass.getMethod("getBalance", UUID.class);
-            formatMethod     = instClass.getMethod("format", double.class);
+            depositHandle    = adaptTransfer(instClass.getMethod("deposit",  UUID.class, double.class, String.class));
+            withdrawHandle   = adaptTransfer(instClass.getMethod("withdraw", UUID.class, double.class, String.class));
+            getBalanceHandle = adaptBalance(instClass.getMethod("getBalance", UUID.class));
+            formatHandle     = bind(instClass.getMethod("format", double.class))
+                    .asType(MethodType.methodType(Object.class, double.class));
+            formatHandle     = MethodHandles.filterReturnValue(formatHandle, TO_STRING);
+            hasBalanceHandle = probeHasBalance(instClass);
 
             available = true;
-            LOGGER.info("EconomyAPI resolved successfully.");
+            LOGGER.info("EconomyAPI resolved successfully (native hasBalance: {}).", hasBalanceHandle != null);
         } catch (ClassNotFoundException e) {
             LOGGER.info("EconomyAPI not found — provider disabled.");
             available = false;
@@ -58,6 +93,55 @@ public class EconomyApiProvider implements EconomyProvider {
         }
     }
 
+    // ════════════════════════════════════════════════════════
+    //  HANDLE ADAPTERS
+    // ════════════════════════════════════════════════════════
+
+    private MethodHandle bind(Method method) throws IllegalAccessException {
+        return MethodHandles.publicLookup().unreflect(method).bindTo(apiInstance);
+    }
+
+    /** deposit/withdraw as {@code (UUID,double,String)boolean}; a non-boolean result counts as success. */
+    private MethodHandle adaptTransfer(Method method) throws IllegalAccessException {
+        MethodHandle mh = bind(method);
+        Class<?> ret = method.getReturnType();
+        if (ret == boolean.class || ret == Boolean.class) return mh.asType(TRANSFER);
+        if (ret != void.class) mh = mh.asType(mh.type().changeReturnType(void.class));
+        return MethodHandles.filterReturnValue(mh, ALWAYS_TRUE);
+    }
+
+    /** getBalance as {@code (UUID)double}, whether the API returns a primitive or a {@link Number}. */
+    private MethodHandle adaptBalance(Method method) throws IllegalAccessException {
+        MethodHandle mh = bind(method);
+        Class<?> ret = method.getReturnType();
+        if (ret.isPrimitive() && ret != boolean.class && ret != void.class) return mh.asType(BALANCE);
+        return MethodHandles.filterReturnValue(mh.asType(mh.type().changeReturnType(Object.class)), TO_DOUBLE);
+    }
+
+    @Nullable
+    private MethodHandle probeHasBalance(Class<?> instClass) {
+        try {
+            Method has = instClass.getMethod("hasBalance", UUID.class, double.class);
+            if (has.getReturnType() != boolean.class && has.getReturnType() != Boolean.class) return null;
+            return bind(has).asType(HAS);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number n ? n.doubleValue() : 0;
+    }
+
+    @Nullable
+    private static String toText(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  PROVIDER
+    // ════════════════════════════════════════════════════════
+
     @Nonnull
     @Override
     public String getName() {
@@ -71,11 +155,10 @@ public class EconomyApiProvider implements EconomyProvider {
 
     @Override
     public boolean deposit(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
-        if (!isAvailable() || depositMethod == null) return false;
+        if (!isAvailable() || depositHandle == null) return false;
         try {
-            depositMethod.invoke(apiInstance, playerUuid, amount, reason);
-            return true;
-        } catch (Exception e) {
+            return (boolean) depositHandle.invokeExact(playerUuid, amount, reason);
+        } catch (Throwable e) {
             LOGGER.warn("EconomyAPI deposit failed for {}: {}", playerUuid, e.getMessage());
             return false;
         }
@@ -83,11 +166,10 @@ public class EconomyApiProvider implements EconomyProvider {
 
     @Override
     public boolean withdraw(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
-        if (!isAvailable() || withdrawMethod == null) return false;
+        if (!isAvailable() || withdrawHandle == null) return false;
         try {
-            Object result = withdrawMethod.invoke(apiInstance, playerUuid, amount, reason);
-            return result instanceof Boolean b ? b : true;
-        } catch (Exception e) {
+            return (boolean) withdrawHandle.invokeExact(playerUuid, amount, reason);
+        } catch (Throwable e) {
             LOGGER.warn("EconomyAPI withdraw failed for {}: {}", playerUuid, e.getMessage());
             return false;
         }
@@ -95,24 +177,35 @@ public class EconomyApiProvider implements EconomyProvider {
 
     @Override
     public double getBalance(@Nonnull UUID playerUuid) {
-        if (!isAvailable() || getBalanceMethod == null) return 0;
+        if (!isAvailable() || getBalanceHandle == null) return 0;
         try {
-            Object result = getBalanceMethod.invoke(apiInstance, playerUuid);
-            if (result instanceof Number n) return n.doubleValue();
-        } catch (Exception e) {
+            return (double) getBalanceHandle.invokeExact(playerUuid);
+        } catch (Throwable e) {
             LOGGER.warn("EconomyAPI getBalance failed for {}: {}", playerUuid, e.getMessage());
         }
         return 0;
     }
 
+    @Override
+    public boolean hasBalance(@Nonnull UUID playerUuid, double amount) {
+        MethodHandle has = hasBalanceHandle;
+        if (has == null || !isAvailable()) return EconomyProvider.super.hasBalance(playerUuid, amount);
+        try {
+            return (boolean) has.invokeExact(playerUuid, amount);
+        } catch (Throwable e) {
+            LOGGER.warn("EconomyAPI hasBalance failed for {}: {}", playerUuid, e.getMessage());
+            return false;
+        }
+    }
+
     @Nonnull
     @Override
     public String format(double amount) {
-        if (!isAvailable() || formatMethod == null) return String.format("%.0f", amount);
+        if (!isAvailable() || formatHandle == null) return String.format("%.0f", amount);
         try {
-            Object result = formatMethod.invoke(apiInstance, amount);
-            return result != null ? result.toString() : String.format("%.0f", amount);
-        } catch (Exception e) {
+            String result = (String) formatHandle.invokeExact(amount);
+            return result != null ? result : String.format("%.0f", amount);
+        } catch (Throwable e) {
             return String.format("%.0f", amount);
         }
     }
@@ -4,9 +4,22 @@ import com.crystalrealm.ecotalereforging.util.PluginLogger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Path;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * Facade that routes economy operations to the active {@link EconomyProvider}.
@@ -14,13 +27,52 @@ import java.util.UUID;
  * <p>Supports multiple registered providers with config-driven or
  * auto-detected activation. Falls back to the first available provider
  * if the preferred one is unavailable.</p>
+ *
+ * <p>Providers may call into another plugin or a database, so every operation
+ * also has an {@code *Async} variant that runs on a small dedicated executor
+ * (virtual threads on Java 21+). World and ECS threads should use those and
+ * continue on their own executor when the future completes.</p>
+ *
+ * <p>Balances are cached per player for a short TTL and dropped whenever we
+ * deposit or withdraw for that player. The cache only serves reads for
+ * display and pre-checks: {@link #withdraw} and {@link #withdrawIfSufficient}
+ * always go to the provider, so a stale value can never authorize a spend.
+ * Invalidations leave a generation-stamped marker, and a refresh that
+ * started before the latest invalidation for its player is not cached, so a
+ * slow read cannot write back a balance from before a deposit or withdraw.</p>
+ *
+ * <p>With deferred settlement enabled ({@link #enableDeferredSettlement}),
+ * deposits, withdrawals and balance reads are served by a local
+ * {@link SettlementLedger} instead, which settles net amounts with the
+ * provider once per window. The TTL cache is bypassed in that mode.</p>
  */
 public class EconomyBridge {
 
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
 
+    /** Concurrent economy calls; more are queued. */
+    private static final int ASYNC_THREADS_PLATFORM = 4;
+    private static final int ASYNC_THREADS_VIRTUAL  = 32;
+    /** Queued calls beyond this are rejected instead of piling up behind a stalled economy. */
+    private static final int ASYNC_QUEUE_CAPACITY = 1024;
+
     private final LinkedHashMap<String, EconomyProvider> providers = new LinkedHashMap<>();
-    private EconomyProvider active;
+    private volatile EconomyProvider active;
+
+    private final ExecutorService asyncExecutor = createAsyncExecutor();
+
+    /** Cached balances; cleared wholesale past this size (online players stay far below it). */
+    private static final int MAX_CACHED_BALANCES = 4096;
+
+    private final Map<UUID, CachedBalance> balances = new ConcurrentHashMap<>();
+    /** Bumped by every invalidation and clear; cached entries remember the value a refresh started at. */
+    private final AtomicLong balanceGeneration = new AtomicLong();
+    /** Generation of the last wholesale clear; refreshes started before it are not cached. */
+    private volatile long balancesClearedAt;
+    private volatile LongSupplier balanceTtlMs = () -> 0;
+
+    @Nullable
+    private volatile SettlementLedger settlement;
 
     public EconomyBridge() {
         registerProvider("ecotale", new EcotaleEconomyProvider());
@@ -67,22 +119,137 @@ public class EconomyBridge {
 
     public boolean deposit(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
         if (active == null || !active.isAvailable()) return false;
-        return active.deposit(playerUuid, amount, reason);
+        SettlementLedger ledger = settlement;
+        if (ledger != null) return ledger.credit(playerUuid, amount);
+        try {
+            return active.deposit(playerUuid, amount, reason);
+        } finally {
+            invalidateBalance(playerUuid);
+        }
     }
 
     public boolean withdraw(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
         if (active == null || !active.isAvailable()) return false;
-        return active.withdraw(playerUuid, amount, reason);
+        SettlementLedger ledger = settlement;
+        if (ledger != null) return ledger.reserve(playerUuid, amount);
+        try {
+            return active.withdraw(playerUuid, amount, reason);
+        } finally {
+            invalidateBalance(playerUuid);
+        }
     }
 
+    /**
+     * Withdraw only if the provider confirms the player can cover it — one
+     * provider round trip where the backend supports it. Never uses the cache.
+     */
+    public boolean withdrawIfSufficient(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        if (active == null || !active.isAvailable()) return false;
+        SettlementLedger ledger = settlement;
+        if (ledger != null) return ledger.reserve(playerUuid, amount);
+        try {
+            return active.withdrawIfSufficient(playerUuid, amount, reason);
+        } finally {
+            invalidateBalance(playerUuid);
+        }
+    }
+
+    /** Balance for display and pre-checks; may be up to the configured TTL old. */
     public double getBalance(@Nonnull UUID playerUuid) {
         if (active == null || !active.isAvailable()) return 0;
-        return active.getBalance(playerUuid);
+        SettlementLedger ledger = settlement;
+        if (ledger != null) return ledger.balance(playerUuid, false);
+        CachedBalance cached = freshBalance(playerUuid);
+        return cached != null ? cached.balance : refreshBalance(playerUuid);
+    }
+
+    /** Balance straight from the provider; refreshes the cache. */
+    public double refreshBalance(@Nonnull UUID playerUuid) {
+        if (active == null || !active.isAvailable()) return 0;
+        SettlementLedger ledger = settlement;
+        if (ledger != null) return ledger.balance(playerUuid, true);
+        long started = balanceGeneration.get();
+        double balance = active.getBalance(playerUuid);
+        if (balanceTtlMs.getAsLong() > 0) {
+            if (balances.size() >= MAX_CACHED_BALANCES) clearBalances();
+            // Keep a newer entry or invalidation; this read may predate it
+            balances.compute(playerUuid, (k, old) ->
+                    started < balancesClearedAt || old != null && old.generation > started
+                            ? old : new CachedBalance(balance, System.nanoTime(), started));
+        }
+        return balance;
     }
 
     public boolean hasBalance(@Nonnull UUID playerUuid, double amount) {
         if (active == null || !active.isAvailable()) return false;
-        return active.hasBalance(playerUuid, amount);
+        SettlementLedger ledger = settlement;
+        if (ledger != null) return ledger.balance(playerUuid, false) >= amount;
+        CachedBalance cached = freshBalance(playerUuid);
+        return cached != null ? cached.balance >= amount : active.hasBalance(playerUuid, amount);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  BALANCE CACHE
+    // ════════════════════════════════════════════════════════
+
+    /** TTL source, read on every lookup so config reloads apply immediately; 0 disables the cache. */
+    public void setBalanceCacheTtl(@Nonnull LongSupplier ttlMs) {
+        this.balanceTtlMs = ttlMs;
+        clearBalances();
+    }
+
+    /** Drop the cached balance, e.g. after something else changed it. */
+    public void invalidateBalance(@Nonnull UUID playerUuid) {
+        balances.put(playerUuid, CachedBalance.invalidated(balanceGeneration.incrementAndGet()));
+    }
+
+    private void clearBalances() {
+        balancesClearedAt = balanceGeneration.incrementAndGet();
+        balances.clear();
+    }
+
+    /**
+     * The cached balance if it is still within the TTL. Expired entries stay
+     * in the map so their generation keeps fencing out older refreshes.
+     */
+    @Nullable
+    private CachedBalance freshBalance(UUID playerUuid) {
+        CachedBalance cached = balances.get(playerUuid);
+        if (cached == null || cached.isInvalidated()) return null;
+        long ttl = balanceTtlMs.getAsLong();
+        return ttl > 0 && System.nanoTime() - cached.fetchedAt < ttl * 1_000_000L ? cached : null;
+    }
+
+    /** A balance read, or an invalidation marker when {@code balance} is NaN. */
+    private record CachedBalance(double balance, long fetchedAt, long generation) {
+        static CachedBalance invalidated(long generation) {
+            return new CachedBalance(Double.NaN, 0, generation);
+        }
+
+        boolean isInvalidated() {
+            return Double.isNaN(balance);
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  DEFERRED SETTLEMENT
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Route deposits and withdrawals through a local ledger that settles net
+     * amounts with the provider every {@code intervalMs}. Unsettled amounts
+     * from a previous run are restored from {@code dataDirectory}.
+     */
+    public void enableDeferredSettlement(@Nonnull Path dataDirectory, long intervalMs) {
+        if (settlement != null) return;
+        SettlementLedger ledger = new SettlementLedger(dataDirectory, () -> active);
+        ledger.start(intervalMs);
+        clearBalances();
+        settlement = ledger;
+    }
+
+    public boolean isDeferredSettlement() {
+        return settlement != null;
     }
 
     @Nonnull
@@ -90,4 +257,96 @@ public class EconomyBridge {
         if (active == null || !active.isAvailable()) return String.format("%.0f", amount);
         return active.format(amount);
     }
+
+    // ════════════════════════════════════════════════════════
+    //  ASYNC
+    // ════════════════════════════════════════════════════════
+
+    @Nonnull
+    public CompletableFuture<Boolean> depositAsync(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        return async(() -> deposit(playerUuid, amount, reason));
+    }
+
+    @Nonnull
+    public CompletableFuture<Boolean> withdrawAsync(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        return async(() -> withdraw(playerUuid, amount, reason));
+    }
+
+    @Nonnull
+    public CompletableFuture<Boolean> withdrawIfSufficientAsync(@Nonnull UUID playerUuid, double amount,
+                                                                @Nonnull String reason) {
+        return async(() -> withdrawIfSufficient(playerUuid, amount, reason));
+    }
+
+    /** Served from the cache without a thread hop when the cached value is still fresh. */
+    @Nonnull
+    public CompletableFuture<Double> getBalanceAsync(@Nonnull UUID playerUuid) {
+        CachedBalance cached = isAvailable() ? freshBalance(playerUuid) : null;
+        if (cached != null) return CompletableFuture.completedFuture(cached.balance);
+        return async(() -> getBalance(playerUuid));
+    }
+
+    @Nonnull
+    public CompletableFuture<Double> refreshBalanceAsync(@Nonnull UUID playerUuid) {
+        return async(() -> refreshBalance(playerUuid));
+    }
+
+    @Nonnull
+    public CompletableFuture<Boolean> hasBalanceAsync(@Nonnull UUID playerUuid, double amount) {
+        return async(() -> hasBalance(playerUuid, amount));
+    }
+
+    /** Stop the async executor (calls already queued still run), then settle deferred amounts. */
+    public void shutdown() {
+        asyncExecutor.shutdown();
+        try {
+            if (!asyncExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.warn("Economy calls still running at shutdown: {}", asyncExecutor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Settle what the ledger still owes; anything the provider refuses stays on disk
+        SettlementLedger ledger = settlement;
+        if (ledger != null) ledger.shutdown();
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, asyncExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static ExecutorService createAsyncExecutor() {
+        ThreadFactory factory = virtualThreadFactory();
+        int threads = factory != null ? ASYNC_THREADS_VIRTUAL : ASYNC_THREADS_PLATFORM;
+        if (factory == null) {
+            AtomicInteger counter = new AtomicInteger();
+            factory = r -> {
+                Thread t = new Thread(r, "EcoTaleReforging-Economy-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(ASYNC_QUEUE_CAPACITY), factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /** Virtual thread factory on Java 21+, or {@code null}. Resolved reflectively — we compile for 17. */
+    @Nullable
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "EcoTaleReforging-Economy-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
 }
@@ -6,7 +6,7 @@ import java.util.UUID;
 /**
  * Universal interface for any economy plugin.
  *
- * <p>Reforging uses: deposit, withdraw, getBalance, hasBalance, format.</p>
+ * <p>Reforging uses: deposit, withdraw, withdrawIfSufficient, getBalance, hasBalance, format.</p>
  */
 public interface EconomyProvider {
 
@@ -31,6 +31,17 @@ public interface EconomyProvider {
      */
     boolean withdraw(@Nonnull UUID playerUuid, double amount, @Nonnull String reason);
 
+    /**
+     * Withdraws only if the player can cover the amount.
+     * <p>Default implementation checks {@link #hasBalance} first; backends whose
+     * withdraw already refuses overdrafts should override it with a single call.</p>
+     *
+     * @return true if the amount was withdrawn
+     */
+    default boolean withdrawIfSufficient(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        return hasBalance(playerUuid, amount) && withdraw(playerUuid, amount, reason);
+    }
+
     /**
      * Gets the player's current balance.
      */
@@ -49,6 +49,12 @@ public class EcotaleEconomyProvider implements EconomyProvider {
         }
     }
 
+    /** EcotaleAPI.withdraw already refuses when funds are short — one call instead of two. */
+    @Override
+    public boolean withdrawIfSufficient(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        return withdraw(playerUuid, amount, reason);
+    }
+
     @Override
     public double getBalance(@Nonnull UUID playerUuid) {
         try {
@@ -0,0 +1,132 @@
+package com.crystalrealm.ecotalereforging.provider.economy;
+
+import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process economy for load testing, selected with
+ * {@code "economyProvider": "memory"}. Never picked as a fallback.
+ *
+ * <p>Balances live in a lock-free ledger of fixed-point cents: one
+ * {@link AtomicLong} per player, updated with CAS so concurrent withdrawals
+ * can never overdraw. Unknown players start with the configured balance.
+ * Nothing is persisted — every restart begins from scratch.</p>
+ *
+ * <p>Optional latency (fixed plus random jitter) and a failure rate can be
+ * injected to mimic a remote economy; a failed call behaves like a real
+ * provider error and changes nothing. Settings are read on every call, so a
+ * config reload applies immediately.</p>
+ */
+public class MemoryEconomyProvider implements EconomyProvider {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private final Supplier<ReforgeConfig.MemoryEconomy> settings;
+    private final Map<UUID, AtomicLong> ledger = new ConcurrentHashMap<>();
+
+    public MemoryEconomyProvider(@Nonnull Supplier<ReforgeConfig.MemoryEconomy> settings) {
+        this.settings = settings;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return "Memory (testing)";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean deposit(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        long cents = toCents(amount);
+        if (cents < 0 || !simulateCall("deposit", playerUuid)) return false;
+        account(playerUuid).addAndGet(cents);
+        return true;
+    }
+
+    /** Refuses overdrafts, like EcotaleAPI. */
+    @Override
+    public boolean withdraw(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        long cents = toCents(amount);
+        if (cents < 0 || !simulateCall("withdraw", playerUuid)) return false;
+        AtomicLong balance = account(playerUuid);
+        long current;
+        do {
+            current = balance.get();
+            if (current < cents) return false;
+        } while (!balance.compareAndSet(current, current - cents));
+        return true;
+    }
+
+    @Override
+    public boolean withdrawIfSufficient(@Nonnull UUID playerUuid, double amount, @Nonnull String reason) {
+        return withdraw(playerUuid, amount, reason);
+    }
+
+    @Override
+    public double getBalance(@Nonnull UUID playerUuid) {
+        if (!simulateCall("getBalance", playerUuid)) return 0;
+        return account(playerUuid).get() / 100.0;
+    }
+
+    @Nonnull
+    @Override
+    public String format(double amount) {
+        return String.format(Locale.ROOT, "%.2f", amount);
+    }
+
+    /** Sum of all balances — with no deposits or withdrawals outside the plugin it only changes by what reforging spent. */
+    public double totalBalance() {
+        long total = 0;
+        for (AtomicLong balance : ledger.values()) total += balance.get();
+        return total / 100.0;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  INTERNALS
+    // ════════════════════════════════════════════════════════
+
+    private AtomicLong account(UUID playerUuid) {
+        AtomicLong balance = ledger.get(playerUuid);
+        if (balance != null) return balance;
+        return ledger.computeIfAbsent(playerUuid,
+                k -> new AtomicLong(toCents(Math.max(0, settings.get().getStartingBalance()))));
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /** Apply the configured latency, then roll for an injected failure. */
+    private boolean simulateCall(String op, UUID playerUuid) {
+        ReforgeConfig.MemoryEconomy s = settings.get();
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        long delay = Math.max(0, s.getLatencyMs());
+        if (s.getLatencyJitterMs() > 0) delay += rng.nextLong(s.getLatencyJitterMs() + 1);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (s.getFailureRate() > 0 && rng.nextDouble() < s.getFailureRate()) {
+            LOGGER.debug("Memory economy: injected {} failure for {}", op, playerUuid);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,615 @@
+package com.crystalrealm.ecotalereforging.provider.economy;
+
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Deferred settlement: reforge costs and refunds are booked against a local
+ * ledger and sent to the economy provider as one net withdraw or deposit per
+ * player per settlement window.
+ *
+ * <p>Each player has a <em>confirmed</em> balance (last read from the
+ * provider) and an <em>owed</em> amount (net debits not yet settled; negative
+ * when we owe the player). Spends are reserved against {@code confirmed − owed};
+ * the confirmed balance is re-read when it is older than
+ * {@link #CONFIRMED_MAX_AGE_MS} or a reservation would fail. Amounts are kept
+ * in cents so nets add up exactly.</p>
+ *
+ * <p>Every booking is appended to {@code pending_settlement.log} as
+ * {@code <uuid> <signedCents>} and forced before the caller is told it took
+ * effect. Records are written under the ledger monitor but forced outside
+ * it, and one force covers every record written before it, so concurrent
+ * bookings share a sync instead of queueing behind each other's. Before a net is
+ * sent to the provider, a {@code settling <uuid> <net> <balanceBefore>}
+ * intent is forced; when the call returns, {@code settled <uuid> <signedCents>}
+ * closes it and books the opposite amount if it succeeded. The per-player sum
+ * of amounts is always the outstanding net. After a crash the file is
+ * replayed; an intent left open means the provider call may or may not have
+ * gone through, so it is never re-sent blindly — it is resolved once against
+ * the provider balance, and flagged {@code REVIEW} in the reconciliation log
+ * if the balance does not tell. Each settlement is also written to
+ * {@code settlement_reconciliation.log} for audit.</p>
+ *
+ * <p>Trade-off: between windows the provider does not see our debits, and we
+ * only see outside spending once the confirmed balance is re-read. A net
+ * debit the provider refuses stays owed, is logged as {@code FAILED} and is
+ * retried every window.</p>
+ */
+final class SettlementLedger {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private static final String PENDING_FILE = "pending_settlement.log";
+    private static final String RECONCILIATION_FILE = "settlement_reconciliation.log";
+
+    /** Confirmed balances older than this are re-read before they back a spend. */
+    private static final long CONFIRMED_MAX_AGE_MS = 30_000;
+    /** Settled players untouched for this long are dropped from memory. */
+    private static final long IDLE_EVICT_MS = 10 * 60_000;
+    /** Rewrite the pending file with just the open nets once it grows past this. */
+    private static final long COMPACT_BYTES = 64 * 1024;
+    /** Reconciliation log is rotated to {@code .1} past this size. */
+    private static final long RECONCILIATION_MAX_BYTES = 8L * 1024 * 1024;
+
+    private final Path pendingFile;
+    private final Path reconciliationFile;
+    private final Supplier<EconomyProvider> provider;
+
+    /** Guarded by {@code this}. */
+    private final Map<UUID, Account> accounts = new HashMap<>();
+    @Nullable
+    private FileChannel pending;
+    /** Records written to {@link #pending} so far. Guarded by {@code this}. */
+    private long written;
+    /** Records known to be on disk. */
+    private final AtomicLong forced = new AtomicLong();
+    private final Object forceLock = new Object();
+    @Nullable
+    private ScheduledExecutorService scheduler;
+
+    SettlementLedger(@Nonnull Path dataDirectory, @Nonnull Supplier<EconomyProvider> provider) {
+        this.pendingFile = dataDirectory.resolve(PENDING_FILE);
+        this.reconciliationFile = dataDirectory.resolve(RECONCILIATION_FILE);
+        this.provider = provider;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  LIFECYCLE
+    // ════════════════════════════════════════════════════════
+
+    /** Replay nets left by the previous run, then start settling every {@code intervalMs}. */
+    synchronized void start(long intervalMs) {
+        if (scheduler != null) return;
+        int restored = load();
+        if (restored > 0) LOGGER.warn("Restored unsettled balances for {} player(s); settling on the next window", restored);
+
+        long interval = Math.max(250, intervalMs);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "EcoTaleReforging-Settlement");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::settleSafely, interval, interval, TimeUnit.MILLISECONDS);
+        LOGGER.info("Deferred economy settlement enabled (window {}ms)", interval);
+    }
+
+    /** Stop the window, settle what is owed and close the pending file. Unsettled nets stay on disk. */
+    void shutdown() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s != null) {
+            s.shutdown();
+            try {
+                s.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        settle();
+        synchronized (this) {
+            if (pending == null) return;
+            try {
+                if (outstanding() == 0 && !anyInDoubt()) pending.truncate(0);
+                pending.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close pending settlement file: {}", e.getMessage());
+            }
+            pending = null;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  BOOKING
+    // ════════════════════════════════════════════════════════
+
+    /** Reserve a spend against the player's available balance; refuses instead of overdrawing. */
+    boolean reserve(@Nonnull UUID playerUuid, double amount) {
+        long cents = toCents(amount);
+        if (cents <= 0) return cents == 0;
+        long seq = 0;
+        synchronized (this) {
+            Account a = account(playerUuid);
+            if (a.isFresh(System.currentTimeMillis()) && a.available() >= cents) seq = book(playerUuid, a, cents);
+        }
+        if (seq == 0) {
+            // Stale, unknown or short — ask the provider once before refusing
+            refresh(playerUuid);
+            synchronized (this) {
+                Account a = account(playerUuid);
+                if (!a.isKnown() || a.available() < cents) return false;
+                seq = book(playerUuid, a, cents);
+            }
+        }
+        return durable(playerUuid, seq, cents);
+    }
+
+    /** Credit the player (refund, change); paid out with the next settlement. */
+    boolean credit(@Nonnull UUID playerUuid, double amount) {
+        long cents = toCents(amount);
+        if (cents <= 0) return cents == 0;
+        long seq;
+        synchronized (this) {
+            seq = book(playerUuid, account(playerUuid), -cents);
+        }
+        return durable(playerUuid, seq, -cents);
+    }
+
+    /** Balance the player can spend right now: confirmed minus what is still owed. */
+    double balance(@Nonnull UUID playerUuid, boolean forceRefresh) {
+        boolean stale;
+        synchronized (this) {
+            stale = forceRefresh || !account(playerUuid).isFresh(System.currentTimeMillis());
+        }
+        if (stale) refresh(playerUuid);
+        synchronized (this) {
+            Account a = account(playerUuid);
+            return a.isKnown() ? a.available() / 100.0 : 0;
+        }
+    }
+
+    /** Write a booking and apply it; the record's sequence number, or {@code -1} if it was not written. */
+    private long book(UUID playerUuid, Account a, long signedCents) {
+        long seq = write(playerUuid, playerUuid + " " + signedCents);
+        if (seq > 0) a.owed += signedCents;
+        return seq;
+    }
+
+    /**
+     * Force a booking to disk. If that fails the booking is taken back, since
+     * the caller will treat it as refused.
+     */
+    private boolean durable(UUID playerUuid, long seq, long signedCents) {
+        if (seq < 0) return false;
+        if (sync(seq)) return true;
+        synchronized (this) {
+            account(playerUuid).owed -= signedCents;
+            write(playerUuid, playerUuid + " " + -signedCents);
+        }
+        return false;
+    }
+
+    /** Re-read the confirmed balance, unless a settlement for the player is in flight. */
+    private void refresh(UUID playerUuid) {
+        EconomyProvider p = provider.get();
+        if (p == null || !p.isAvailable()) return;
+        long version;
+        synchronized (this) {
+            Account a = account(playerUuid);
+            if (a.settling) return;
+            version = a.version;
+        }
+        double balance;
+        try {
+            balance = p.getBalance(playerUuid);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Settlement balance read failed for {}: {}", playerUuid, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            Account a = account(playerUuid);
+            // A settlement that started or finished meanwhile makes this read ambiguous
+            if (a.settling || a.version != version) return;
+            a.confirmed = toCents(balance);
+            a.confirmedAt = System.currentTimeMillis();
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  SETTLEMENT
+    // ════════════════════════════════════════════════════════
+
+    private void settleSafely() {
+        try {
+            settle();
+        } catch (RuntimeException e) {
+            LOGGER.error("Settlement window failed: {}", e.getMessage());
+        }
+    }
+
+    /** Send every open net to the provider — one call per player. */
+    void settle() {
+        resolveInDoubt();
+
+        List<UUID> due = new ArrayList<>();
+        List<Long> nets = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<UUID, Account> e : accounts.entrySet()) {
+                Account a = e.getValue();
+                if (a.owed == 0 || a.settling || a.inDoubt) continue;
+                a.settling = true;
+                due.add(e.getKey());
+                nets.add(a.owed);
+            }
+        }
+
+        int settled = 0, failed = 0;
+        long closed = 0;
+        for (int i = 0; i < due.size(); i++) {
+            UUID uuid = due.get(i);
+            long net = nets.get(i);
+            EconomyProvider p = provider.get();
+            boolean ok = false;
+            long intent = -1;
+            Long before = null;
+            if (p != null && p.isAvailable()) {
+                // The balance before the call lets a crash mid-call be resolved on replay
+                before = readBalanceCents(p, uuid);
+                synchronized (this) {
+                    intent = write(uuid, "settling " + uuid + " " + net + " " + (before != null ? before : "?"));
+                }
+                if (intent > 0 && sync(intent)) {
+                    try {
+                        ok = net > 0
+                                ? p.withdraw(uuid, net / 100.0, "EcoTaleReforging: settled reforge costs")
+                                : p.deposit(uuid, -net / 100.0, "EcoTaleReforging: settled reforge refunds");
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Settlement call failed for {}: {}", uuid, e.getMessage());
+                    }
+                }
+            }
+            long left;
+            synchronized (this) {
+                Account a = account(uuid);
+                a.settling = false;
+                a.version++;
+                // Closing the intent and booking the offset is one line, so a crash can't split them.
+                // It is forced with the rest of the window; a replay that misses it resolves the intent.
+                if (intent > 0 && (closed = write(uuid, "settled " + uuid + " " + (ok ? -net : 0))) < 0) {
+                    a.inDoubt = true;
+                    a.doubtNet = net;
+                    a.doubtBefore = before != null ? before : Long.MIN_VALUE;
+                } else if (ok) {
+                    a.owed -= net;
+                    if (a.isKnown()) a.confirmed -= net;
+                }
+                left = a.owed;
+            }
+            reconcile(uuid, net, ok ? "OK" : "FAILED", left);
+            if (ok) settled++;
+            else {
+                failed++;
+                refresh(uuid); // the provider refused — see what the player really has
+            }
+        }
+        if (closed > 0) sync(closed);
+        if (failed > 0) LOGGER.warn("Settlement: {} settled, {} failed (retrying next window)", settled, failed);
+        else if (settled > 0) LOGGER.debug("Settlement: {} player(s) settled", settled);
+
+        synchronized (this) {
+            evictIdle();
+            compactIfLarge();
+        }
+    }
+
+    /**
+     * Settle intents left open by a crash. The provider call may or may not
+     * have gone through; the balance read before it decides which, and a
+     * balance that fits neither is written off for manual review instead of
+     * being sent again.
+     */
+    private void resolveInDoubt() {
+        EconomyProvider p = provider.get();
+        if (p == null || !p.isAvailable()) return;
+        List<UUID> doubtful = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<UUID, Account> e : accounts.entrySet()) {
+                Account a = e.getValue();
+                if (!a.inDoubt || a.settling) continue;
+                a.settling = true;
+                doubtful.add(e.getKey());
+            }
+        }
+        long closed = 0;
+        for (UUID uuid : doubtful) {
+            Long now = readBalanceCents(p, uuid);
+            long net, applied, left;
+            String status;
+            synchronized (this) {
+                Account a = account(uuid);
+                a.settling = false;
+                if (now == null) continue; // try again next window
+                net = a.doubtNet;
+                boolean known = a.doubtBefore != Long.MIN_VALUE;
+                if (known && now == a.doubtBefore - net) {
+                    applied = -net;
+                    status = "RECOVERED";
+                } else if (known && now == a.doubtBefore) {
+                    applied = 0;
+                    status = "NOT_APPLIED";
+                } else {
+                    applied = -net;
+                    status = "REVIEW";
+                }
+                long seq = write(uuid, "settled " + uuid + " " + applied);
+                if (seq < 0) continue;
+                closed = seq;
+                a.inDoubt = false;
+                a.owed += applied;
+                a.version++;
+                left = a.owed;
+            }
+            reconcile(uuid, net, status, left);
+            if ("REVIEW".equals(status)) {
+                LOGGER.error("Settlement of {} for {} was interrupted and the balance does not show whether it "
+                        + "went through — not retried, review {}", formatCents(net), uuid, RECONCILIATION_FILE);
+            }
+        }
+        if (closed > 0) sync(closed);
+    }
+
+    @Nullable
+    private static Long readBalanceCents(EconomyProvider p, UUID playerUuid) {
+        try {
+            return toCents(p.getBalance(playerUuid));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Settlement balance read failed for {}: {}", playerUuid, e.getMessage());
+            return null;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  FILES
+    // ════════════════════════════════════════════════════════
+
+    /** Read the pending file into owed amounts and open intents, compact it and open it for appending. */
+    private int load() {
+        Map<UUID, Long> nets = new HashMap<>();
+        Map<UUID, long[]> intents = new HashMap<>();
+        if (Files.exists(pendingFile)) {
+            try {
+                for (String line : Files.readAllLines(pendingFile, StandardCharsets.UTF_8)) {
+                    String[] parts = line.trim().split(" ");
+                    try {
+                        if (parts[0].equals("settling") && parts.length == 4) {
+                            long before = parts[3].equals("?") ? Long.MIN_VALUE : Long.parseLong(parts[3]);
+                            intents.put(UUID.fromString(parts[1]), new long[]{Long.parseLong(parts[2]), before});
+                        } else if (parts[0].equals("settled") && parts.length == 3) {
+                            UUID uuid = UUID.fromString(parts[1]);
+                            nets.merge(uuid, Long.parseLong(parts[2]), Long::sum);
+                            intents.remove(uuid);
+                        } else if (parts.length == 2) {
+                            nets.merge(UUID.fromString(parts[0]), Long.parseLong(parts[1]), Long::sum);
+                        }
+                    } catch (IllegalArgumentException ignored) {
+                        // torn last line after a crash
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.error("Failed to read {}: {}", pendingFile, e.getMessage());
+            }
+        }
+        int restored = 0;
+        for (Map.Entry<UUID, Long> e : nets.entrySet()) {
+            if (e.getValue() == 0) continue;
+            account(e.getKey()).owed = e.getValue();
+            restored++;
+        }
+        for (Map.Entry<UUID, long[]> e : intents.entrySet()) {
+            Account a = account(e.getKey());
+            a.inDoubt = true;
+            a.doubtNet = e.getValue()[0];
+            a.doubtBefore = e.getValue()[1];
+            LOGGER.warn("Settlement of {} for {} was interrupted; checking the balance before anything is resent",
+                    formatCents(a.doubtNet), e.getKey());
+        }
+        rewritePending();
+        return restored;
+    }
+
+    /**
+     * Append one record without forcing it. Call under the monitor; returns
+     * the sequence number to {@link #sync}, or {@code -1} if it may not have
+     * been written.
+     */
+    private long write(UUID playerUuid, String record) {
+        if (pending == null) {
+            LOGGER.warn("Pending settlement file is not open — refusing to write '{}' for {}", record, playerUuid);
+            return -1;
+        }
+        try {
+            ByteBuffer buf = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) pending.write(buf);
+            return ++written;
+        } catch (IOException e) {
+            LOGGER.error("Pending settlement write failed for {}: {}", playerUuid, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Force records up to {@code seq} to disk. Call outside the monitor.
+     * Threads that arrive while a force runs wait for it and usually find
+     * their record already covered.
+     */
+    private boolean sync(long seq) {
+        if (forced.get() >= seq) return true;
+        synchronized (forceLock) {
+            while (forced.get() < seq) {
+                FileChannel c;
+                long upTo;
+                synchronized (this) {
+                    c = pending;
+                    upTo = written;
+                }
+                if (c == null) {
+                    LOGGER.warn("Pending settlement file closed before record {} was forced", seq);
+                    return false;
+                }
+                try {
+                    c.force(false);
+                    forced.accumulateAndGet(upTo, Math::max);
+                } catch (ClosedChannelException e) {
+                    // Compacted meanwhile — the rewrite was forced; otherwise retry on the new channel
+                    synchronized (this) {
+                        if (pending == c) return false;
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Pending settlement sync failed: {}", e.getMessage());
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void compactIfLarge() {
+        try {
+            if (pending != null && pending.size() > COMPACT_BYTES) rewritePending();
+        } catch (IOException e) {
+            LOGGER.debug("Pending settlement compaction failed: {}", e.getMessage());
+        }
+    }
+
+    /** Replace the pending file with one line per open net (write to temp, then atomic move). */
+    private void rewritePending() {
+        try {
+            if (pending != null) pending.close();
+            pending = null;
+            Files.createDirectories(pendingFile.getParent());
+            List<String> lines = new ArrayList<>();
+            for (Map.Entry<UUID, Account> e : accounts.entrySet()) {
+                if (e.getValue().owed != 0) lines.add(e.getKey() + " " + e.getValue().owed);
+            }
+            // Open intents go after the nets they are part of, so a replay sees them still open
+            for (Map.Entry<UUID, Account> e : accounts.entrySet()) {
+                Account a = e.getValue();
+                if (a.inDoubt) {
+                    lines.add("settling " + e.getKey() + " " + a.doubtNet + " "
+                            + (a.doubtBefore != Long.MIN_VALUE ? a.doubtBefore : "?"));
+                }
+            }
+            Path tmp = pendingFile.resolveSibling(PENDING_FILE + ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            try (FileChannel c = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                c.force(true);
+            }
+            Files.move(tmp, pendingFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forced.accumulateAndGet(written, Math::max); // everything written so far is in the forced rewrite
+        } catch (IOException e) {
+            LOGGER.error("Failed to rewrite {}: {}", pendingFile, e.getMessage());
+        }
+        try {
+            pending = FileChannel.open(pendingFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.error("Failed to open {}: {} — deferred settlement cannot book", pendingFile, e.getMessage());
+        }
+    }
+
+    private void reconcile(UUID playerUuid, long net, String status, long outstanding) {
+        String line = Instant.now() + " " + playerUuid + " " + (net > 0 ? "DEBIT " : "CREDIT ")
+                + formatCents(Math.abs(net)) + " " + status
+                + " outstanding=" + formatCents(outstanding) + "\n";
+        try {
+            if (Files.exists(reconciliationFile) && Files.size(reconciliationFile) > RECONCILIATION_MAX_BYTES) {
+                Files.move(reconciliationFile, reconciliationFile.resolveSibling(RECONCILIATION_FILE + ".1"),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.writeString(reconciliationFile, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.warn("Reconciliation log write failed: {}", e.getMessage());
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  HELPERS
+    // ════════════════════════════════════════════════════════
+
+    private Account account(UUID playerUuid) {
+        return accounts.computeIfAbsent(playerUuid, k -> new Account());
+    }
+
+    private long outstanding() {
+        long total = 0;
+        for (Account a : accounts.values()) total += Math.abs(a.owed);
+        return total;
+    }
+
+    private boolean anyInDoubt() {
+        for (Account a : accounts.values()) if (a.inDoubt) return true;
+        return false;
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<Account> it = accounts.values().iterator();
+        while (it.hasNext()) {
+            Account a = it.next();
+            if (a.owed == 0 && !a.settling && !a.inDoubt && now - a.confirmedAt > IDLE_EVICT_MS) it.remove();
+        }
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static String formatCents(long cents) {
+        return (cents < 0 ? "-" : "") + Math.abs(cents) / 100 + "." + String.format(Locale.ROOT, "%02d", Math.abs(cents) % 100);
+    }
+
+    private static final class Account {
+        long confirmed;
+        long confirmedAt = -1;
+        long owed;
+        /** Bumped after each settlement so balance reads that raced it are discarded. */
+        long version;
+        boolean settling;
+        /** A settlement call of {@code doubtNet} was interrupted; held back until resolved. */
+        boolean inDoubt;
+        long doubtNet;
+        /** Balance in cents read just before that call; {@link Long#MIN_VALUE} if unknown. */
+        long doubtBefore = Long.MIN_VALUE;
+
+        boolean isKnown() { return confirmedAt >= 0; }
+        boolean isFresh(long now) { return isKnown() && now - confirmedAt < CONFIRMED_MAX_AGE_MS; }
+        long available() { return confirmed - owed; }
+    }
+}
@@ -0,0 +1,114 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Per-player attempt mailbox.
+ *
+ * <p>Attempts submitted for the same player run one at a time, in the order
+ * they were submitted; attempts of different players never wait on each
+ * other. Each player's queue holds at most {@code maxDepth} attempts
+ * (including the running one) — a submission beyond that fails with
+ * {@link RejectedExecutionException}. A queue is dropped as soon as it
+ * drains, so idle players cost nothing.</p>
+ *
+ * <p>Each attempt is started on the executor it was submitted with (the
+ * player's world thread). An attempt may itself be asynchronous — the next
+ * one starts only when the future it returns has completed.</p>
+ */
+final class AttemptQueue {
+
+    private final int maxDepth;
+    private final ConcurrentHashMap<UUID, ArrayDeque<Job<?>>> lanes = new ConcurrentHashMap<>();
+
+    AttemptQueue(int maxDepth) {
+        this.maxDepth = Math.max(1, maxDepth);
+    }
+
+    /** Queue an attempt for the player; it starts right away if nothing else is queued. */
+    @Nonnull
+    <T> CompletableFuture<T> submit(@Nonnull UUID playerUuid,
+                                    @Nonnull Executor executor,
+                                    @Nonnull Supplier<CompletableFuture<T>> attempt) {
+        Job<T> job = new Job<>(executor, attempt);
+        boolean[] accepted = new boolean[1];
+        boolean[] idle = new boolean[1];
+        // compute() holds the bin lock, so enqueue and drain never race for the same player
+        lanes.compute(playerUuid, (k, lane) -> {
+            if (lane == null) lane = new ArrayDeque<>();
+            if (lane.size() >= maxDepth) return lane;
+            accepted[0] = true;
+            idle[0] = lane.isEmpty();
+            lane.addLast(job);
+            return lane;
+        });
+        if (!accepted[0]) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Attempt queue full for " + playerUuid));
+        }
+        if (idle[0]) dispatch(playerUuid, job);
+        return job.result;
+    }
+
+    /** Number of attempts queued or running for the player. */
+    int pending(@Nonnull UUID playerUuid) {
+        int[] size = new int[1];
+        lanes.computeIfPresent(playerUuid, (k, lane) -> {
+            size[0] = lane.size();
+            return lane;
+        });
+        return size[0];
+    }
+
+    private void dispatch(UUID playerUuid, Job<?> job) {
+        try {
+            job.executor.execute(() -> job.run().whenComplete((r, e) -> advance(playerUuid)));
+        } catch (RejectedExecutionException e) {
+            // Executor gone (world unloaded) — fail this attempt and move on
+            job.result.completeExceptionally(e);
+            advance(playerUuid);
+        }
+    }
+
+    /** Drop the finished head of the player's queue and start the next attempt, if any. */
+    private void advance(UUID playerUuid) {
+        Object[] next = new Object[1];
+        lanes.computeIfPresent(playerUuid, (k, lane) -> {
+            lane.pollFirst();
+            next[0] = lane.peekFirst();
+            return lane.isEmpty() ? null : lane;
+        });
+        if (next[0] != null) dispatch(playerUuid, (Job<?>) next[0]);
+    }
+
+    private static final class Job<T> {
+        final Executor executor;
+        final Supplier<CompletableFuture<T>> attempt;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Job(Executor executor, Supplier<CompletableFuture<T>> attempt) {
+            this.executor = executor;
+            this.attempt = attempt;
+        }
+
+        /** Start the attempt; the returned stage completes once {@link #result} has. */
+        CompletableFuture<?> run() {
+            try {
+                attempt.get().whenComplete((value, error) -> {
+                    if (error != null) result.completeExceptionally(error);
+                    else result.complete(value);
+                });
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+            return result.handle((v, e) -> null);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One-pass index of a player's inventory, keyed by bare lower-case item id.
+ *
+ * <p>Built once per operation (a GUI refresh, a reforge attempt) so material
+ * checks and consumption read from the same scan instead of walking the
+ * container once per material. Ids with and without a namespace prefix
+ * resolve to the same key, matching how materials are written in the
+ * config.</p>
+ *
+ * <p>Not thread-safe; a snapshot belongs to the operation that built it and
+ * goes stale as soon as the inventory is changed by anything other than
+ * {@link #consume}. {@link #consume} re-reads only the slots it is about to
+ * touch and refuses if any of them changed, so a snapshot may be taken
+ * before an async hop and consumed after it.</p>
+ */
+public final class InventorySnapshot {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    /** Raw item id → interned key. Item ids come from a fixed asset set, so this stays small. */
+    private static final Map<String, String> KEYS = new ConcurrentHashMap<>();
+    private static final int MAX_KEYS = 4096;
+
+    private static final InventorySnapshot EMPTY = new InventorySnapshot(null, Map.of());
+
+    @Nullable
+    private final ItemContainer container;
+    private final Map<String, Slots> byItem;
+
+    private InventorySnapshot(@Nullable ItemContainer container, @Nonnull Map<String, Slots> byItem) {
+        this.container = container;
+        this.byItem = byItem;
+    }
+
+    /** Scan the combined hotbar-first container once. Never returns {@code null}. */
+    @Nonnull
+    public static InventorySnapshot of(@Nonnull Inventory inventory) {
+        try {
+            ItemContainer container = inventory.getCombinedHotbarFirst();
+            if (container == null) return EMPTY;
+
+            Map<String, Slots> byItem = new HashMap<>();
+            short slotCount = container.getCapacity();
+            for (short i = 0; i < slotCount; i++) {
+                ItemStack stack = container.getItemStack(i);
+                if (stack == null || stack.isEmpty()) continue;
+                String id = stack.getItemId();
+                if (id == null) continue;
+                byItem.computeIfAbsent(key(id), k -> new Slots()).add(i, stack);
+            }
+            return new InventorySnapshot(container, byItem);
+        } catch (Exception e) {
+            LOGGER.debug("Inventory snapshot failed: {}", e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Normalised lookup key: namespace stripped, lower-cased, interned.
+     * {@code "hytale:Ingredient_Bar_Iron"} and {@code "ingredient_bar_iron"} share a key.
+     */
+    @Nonnull
+    public static String key(@Nonnull String itemId) {
+        String cached = KEYS.get(itemId);
+        if (cached != null) return cached;
+
+        int colon = itemId.indexOf(':');
+        String bare = colon >= 0 ? itemId.substring(colon + 1) : itemId;
+        String key = bare.toLowerCase(Locale.ROOT).intern();
+        if (KEYS.size() >= MAX_KEYS) KEYS.clear();
+        KEYS.put(itemId, key);
+        return key;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  QUERIES
+    // ════════════════════════════════════════════════════════
+
+    /** Total quantity of an item across all slots. */
+    public int count(@Nonnull String itemId) {
+        Slots slots = byItem.get(key(itemId));
+        return slots != null ? slots.total : 0;
+    }
+
+    /** Whether every material is present in the required amount. */
+    public boolean hasAll(@Nonnull List<ReforgeConfig.MaterialEntry> required) {
+        for (ReforgeConfig.MaterialEntry mat : required) {
+            if (count(mat.getItemId()) < mat.getCount()) return false;
+        }
+        return true;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  CONSUMPTION
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Remove the materials from the inventory, earliest slots first, after
+     * checking that all of them are present and that the slots to be touched
+     * still hold what was scanned. Nothing is removed if either check fails.
+     * The snapshot is updated to match.
+     *
+     * @param tx transaction to record the previous slot contents in, or {@code null}
+     * @return {@code false} if a material was missing or its slots changed
+     */
+    public boolean consume(@Nonnull List<ReforgeConfig.MaterialEntry> required,
+                           @Nullable ReforgeTransaction tx) {
+        if (required.isEmpty()) return true;
+        if (container == null || !hasAll(required) || !unchanged(required)) return false;
+
+        for (ReforgeConfig.MaterialEntry mat : required) {
+            Slots slots = byItem.get(key(mat.getItemId()));
+            int remaining = mat.getCount();
+            for (int i = 0; i < slots.size && remaining > 0; i++) {
+                int count = slots.quantity[i];
+                if (count <= 0) continue;
+                short slot = slots.slot[i];
+                try {
+                    if (tx != null) tx.slotChanging(container, slot, slots.stack[i]);
+                    if (count <= remaining) {
+                        container.removeItemStackFromSlot(slot);
+                        slots.quantity[i] = 0;
+                        slots.total -= count;
+                        remaining -= count;
+                    } else {
+                        int left = count - remaining;
+                        ItemStack reduced = slots.stack[i].withQuantity(left);
+                        container.setItemStackForSlot(slot, reduced);
+                        slots.stack[i] = reduced;
+                        slots.quantity[i] = left;
+                        slots.total -= remaining;
+                        remaining = 0;
+                    }
+                } catch (Exception e) {
+                    if (tx != null) throw e;
+                    LOGGER.warn("Failed to consume {} from slot {}: {}", mat.getItemId(), slot, e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Whether every slot {@link #consume} would touch still holds the scanned stack. */
+    private boolean unchanged(@Nonnull List<ReforgeConfig.MaterialEntry> required) {
+        for (ReforgeConfig.MaterialEntry mat : required) {
+            Slots slots = byItem.get(key(mat.getItemId()));
+            int remaining = mat.getCount();
+            for (int i = 0; i < slots.size && remaining > 0; i++) {
+                if (slots.quantity[i] <= 0) continue;
+                ItemStack now = container.getItemStack(slots.slot[i]);
+                if (now == null || now.getQuantity() != slots.quantity[i]
+                        || !slots.stack[i].getItemId().equals(now.getItemId())) {
+                    return false;
+                }
+                remaining -= slots.quantity[i];
+            }
+        }
+        return true;
+    }
+
+    /** Slots holding one item, in container order. */
+    private static final class Slots {
+        short[] slot = new short[4];
+        int[] quantity = new int[4];
+        ItemStack[] stack = new ItemStack[4];
+        int size;
+        int total;
+
+        void add(short index, ItemStack s) {
+            if (size == slot.length) {
+                slot = Arrays.copyOf(slot, size * 2);
+                quantity = Arrays.copyOf(quantity, size * 2);
+                stack = Arrays.copyOf(stack, size * 2);
+            }
+            slot[size] = index;
+            quantity[size] = s.getQuantity();
+            stack[size] = s;
+            size++;
+            total += s.getQuantity();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import com.crystalrealm.ecotalereforging.model.ReforgeResult;
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binary audit trail of reforge attempts, one fixed-size record per roll.
+ *
+ * <p>Attempts are queued by the world thread and written by a background
+ * thread in batches to {@code audit/reforge-audit-<millis>.bin}. A file is
+ * closed once it reaches {@value #MAX_FILE_BYTES} bytes and the oldest files
+ * beyond {@value #MAX_FILES} are deleted. If the queue is full the record is
+ * dropped and counted rather than holding up the attempt.</p>
+ *
+ * <p>Record layout ({@value #RECORD_BYTES} bytes, big-endian):</p>
+ * <pre>
+ *   0  short  format version (1)
+ *   2  byte   result ({@link ReforgeResult} ordinal)
+ *   3  byte   flags (1 = protection, 2 = auto-reforge)
+ *   4  short  level before
+ *   6  short  level after (-1 = item destroyed)
+ *   8  long   timestamp (epoch ms)
+ *  16  long   player UUID, high bits
+ *  24  long   player UUID, low bits
+ *  32  double roll
+ *  40  double success chance
+ *  48  double coins paid
+ *  56  byte   item id length
+ *  57  ...    item id, UTF-8, truncated to 71 bytes
+ * </pre>
+ *
+ * <p>{@link #scan} streams the files through a fixed buffer, so queries
+ * never hold more than one batch of records in memory.</p>
+ */
+public class ReforgeAuditLog {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    static final int RECORD_BYTES = 128;
+    private static final short FORMAT_VERSION = 1;
+    private static final int ITEM_OFFSET = 57;
+    private static final int MAX_ITEM_BYTES = RECORD_BYTES - ITEM_OFFSET;
+
+    private static final int FLAG_PROTECTION = 1;
+    private static final int FLAG_AUTO = 2;
+
+    private static final long MAX_FILE_BYTES = 8L * 1024 * 1024;
+    private static final int MAX_FILES = 16;
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_RECORDS = 256;
+
+    private static final String FILE_PREFIX = "reforge-audit-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    /** One attempt. {@code toLevel} is {@code -1} when the item was destroyed. */
+    public record Entry(long timestamp, UUID player, String itemId, int fromLevel, int toLevel,
+                        double roll, double chance, double cost, ReforgeResult result,
+                        boolean protection, boolean auto) {}
+
+    /** Scan filter; {@code null} fields match everything. */
+    public record Filter(@Nullable UUID player, @Nullable String item, long since, @Nullable ReforgeResult result) {}
+
+    /** Attempts and successes for one target level, with the configured chance averaged over them. */
+    public record LevelStats(int level, long attempts, long successes, double chanceSum) {
+        public double successRate() { return attempts == 0 ? 0 : (double) successes / attempts; }
+        public double expectedRate() { return attempts == 0 ? 0 : chanceSum / attempts; }
+    }
+
+    /** Result of a {@link #scan}: totals, per-level figures and the newest matching entries. */
+    public record Summary(long scanned, long matched, long successes, long destroyed, long protectedFailures,
+                          double coins, List<LevelStats> levels, List<Entry> latest, long elapsedMs) {}
+
+    private final Path directory;
+    private final ArrayBlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ReforgeAuditLog(@Nonnull Path dataDirectory) {
+        this.directory = dataDirectory.resolve("audit");
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  LIFECYCLE
+    // ════════════════════════════════════════════════════════
+
+    public synchronized void open() {
+        if (running) return;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            LOGGER.error("Failed to create audit directory {}: {} — reforge audit disabled", directory, e.getMessage());
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "EcoTaleReforging-Audit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Write out everything still queued, then stop the writer. */
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        // No interrupt: it would close the FileChannel mid-write. The writer polls often enough.
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        long lost = dropped.get();
+        if (lost > 0) LOGGER.warn("Reforge audit dropped {} record(s) while the queue was full", lost);
+    }
+
+    public boolean isOpen() {
+        return running;
+    }
+
+    /** Records dropped because the write queue was full. */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  WRITING
+    // ════════════════════════════════════════════════════════
+
+    /** Queue one attempt. Never blocks; does nothing while the log is closed. */
+    public void record(@Nonnull UUID player, @Nonnull String itemId, int fromLevel, int toLevel,
+                       double roll, double chance, double cost, @Nonnull ReforgeResult result,
+                       boolean protection, boolean auto) {
+        if (!running) return;
+        Entry entry = new Entry(System.currentTimeMillis(), player, itemId, fromLevel, toLevel,
+                roll, chance, cost, result, protection, auto);
+        if (!queue.offer(entry)) dropped.incrementAndGet();
+    }
+
+    private void writeLoop() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_BYTES);
+        CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder();
+        List<Entry> pending = new ArrayList<>(BATCH_RECORDS);
+        FileChannel channel = null;
+        try {
+            while (running || !queue.isEmpty()) {
+                Entry first;
+                try {
+                    first = queue.poll(250, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) continue;
+                pending.add(first);
+                queue.drainTo(pending, BATCH_RECORDS - 1);
+
+                batch.clear();
+                for (Entry entry : pending) encode(entry, batch, utf8);
+                batch.flip();
+                pending.clear();
+
+                try {
+                    if (channel == null || channel.size() >= MAX_FILE_BYTES) channel = rotate(channel);
+                    while (batch.hasRemaining()) channel.write(batch);
+                } catch (IOException e) {
+                    LOGGER.warn("Reforge audit write failed: {}", e.getMessage());
+                    closeQuietly(channel);
+                    channel = null;
+                }
+            }
+        } finally {
+            closeQuietly(channel);
+        }
+    }
+
+    /** Continue the newest file after a restart if it has room, otherwise start a new one. */
+    private FileChannel rotate(@Nullable FileChannel current) throws IOException {
+        closeQuietly(current);
+        List<Path> existing = listFiles();
+        Path newest = existing.isEmpty() ? null : existing.get(existing.size() - 1);
+        Path file = current == null && newest != null && Files.size(newest) < MAX_FILE_BYTES
+                && Files.size(newest) % RECORD_BYTES == 0
+                ? newest
+                : directory.resolve(FILE_PREFIX + System.currentTimeMillis() + FILE_SUFFIX);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        List<Path> files = listFiles();
+        for (int i = 0; i < files.size() - MAX_FILES; i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                LOGGER.debug("Could not delete old audit file {}: {}", files.get(i), e.getMessage());
+            }
+        }
+        return channel;
+    }
+
+    private static void closeQuietly(@Nullable FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+
+    static void encode(Entry e, ByteBuffer out, CharsetEncoder utf8) {
+        int start = out.position();
+        out.putShort(FORMAT_VERSION)
+                .put((byte) e.result().ordinal())
+                .put((byte) ((e.protection() ? FLAG_PROTECTION : 0) | (e.auto() ? FLAG_AUTO : 0)))
+                .putShort((short) e.fromLevel())
+                .putShort((short) e.toLevel())
+                .putLong(e.timestamp())
+                .putLong(e.player().getMostSignificantBits())
+                .putLong(e.player().getLeastSignificantBits())
+                .putDouble(e.roll())
+                .putDouble(e.chance())
+                .putDouble(e.cost());
+
+        // The encoder stops at a character boundary when the slot is full
+        ByteBuffer item = out.duplicate();
+        item.position(start + ITEM_OFFSET).limit(start + RECORD_BYTES);
+        utf8.reset();
+        utf8.encode(CharBuffer.wrap(e.itemId()), item, true);
+        out.put(start + ITEM_OFFSET - 1, (byte) (item.position() - start - ITEM_OFFSET));
+        for (int i = item.position(); i < start + RECORD_BYTES; i++) out.put(i, (byte) 0);
+        out.position(start + RECORD_BYTES);
+    }
+
+    static Entry decode(ByteBuffer in, int at) {
+        ReforgeResult[] results = ReforgeResult.values();
+        int flags = in.get(at + 3);
+        int itemLength = Math.min(in.get(at + ITEM_OFFSET - 1) & 0xFF, MAX_ITEM_BYTES);
+        byte[] item = new byte[itemLength];
+        in.get(at + ITEM_OFFSET, item);
+        return new Entry(in.getLong(at + 8),
+                new UUID(in.getLong(at + 16), in.getLong(at + 24)),
+                new String(item, StandardCharsets.UTF_8),
+                in.getShort(at + 4), in.getShort(at + 6),
+                in.getDouble(at + 32), in.getDouble(at + 40), in.getDouble(at + 48),
+                results[Math.min(in.get(at + 2) & 0xFF, results.length - 1)],
+                (flags & FLAG_PROTECTION) != 0, (flags & FLAG_AUTO) != 0);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  READING
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Stream every audit file, oldest first, and aggregate the records that
+     * match. Records still queued for writing are not included.
+     *
+     * @param latest how many of the newest matching entries to return
+     */
+    @Nonnull
+    public Summary scan(@Nonnull Filter filter, int latest) {
+        long start = System.nanoTime();
+        String item = filter.item() != null ? filter.item().toLowerCase(Locale.ROOT) : null;
+        TreeMap<Integer, long[]> counts = new TreeMap<>();
+        TreeMap<Integer, Double> chances = new TreeMap<>();
+        ArrayDeque<Entry> newest = new ArrayDeque<>(Math.max(1, latest));
+        long scanned = 0, matched = 0, successes = 0, destroyed = 0, protectedFailures = 0;
+        double coins = 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH_RECORDS * RECORD_BYTES);
+        for (Path file : listFiles()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // A file being appended to may end in a partial record — stop before it
+                long readable = channel.size() - channel.size() % RECORD_BYTES;
+                long offset = 0;
+                while (offset < readable) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), readable - offset));
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, offset + buffer.position()) < 0) break;
+                    }
+                    int records = buffer.position() / RECORD_BYTES;
+                    if (records == 0) break;
+                    offset += (long) records * RECORD_BYTES;
+
+                    for (int r = 0; r < records; r++) {
+                        int at = r * RECORD_BYTES;
+                        scanned++;
+                        // Cheap fixed-offset checks first; the item id is only decoded for survivors
+                        if (buffer.getShort(at) != FORMAT_VERSION) continue;
+                        if (buffer.getLong(at + 8) < filter.since()) continue;
+                        if (filter.result() != null && buffer.get(at + 2) != filter.result().ordinal()) continue;
+                        if (filter.player() != null
+                                && (buffer.getLong(at + 16) != filter.player().getMostSignificantBits()
+                                || buffer.getLong(at + 24) != filter.player().getLeastSignificantBits())) continue;
+
+                        Entry e = decode(buffer, at);
+                        if (item != null && !e.itemId().toLowerCase(Locale.ROOT).contains(item)) continue;
+
+                        matched++;
+                        coins += e.cost();
+                        switch (e.result()) {
+                            case SUCCESS -> successes++;
+                            case FAILURE -> destroyed++;
+                            case FAILURE_PROTECTED -> protectedFailures++;
+                            default -> {}
+                        }
+                        int level = e.fromLevel() + 1;
+                        long[] c = counts.computeIfAbsent(level, k -> new long[2]);
+                        c[0]++;
+                        if (e.result() == ReforgeResult.SUCCESS) c[1]++;
+                        chances.merge(level, e.chance(), Double::sum);
+
+                        if (latest > 0) {
+                            if (newest.size() == latest) newest.pollFirst();
+                            newest.addLast(e);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read audit file {}: {}", file, e.getMessage());
+            }
+        }
+
+        List<LevelStats> levels = new ArrayList<>(counts.size());
+        counts.forEach((level, c) -> levels.add(new LevelStats(level, c[0], c[1], chances.get(level))));
+        List<Entry> recent = new ArrayList<>(newest);
+        Collections.reverse(recent);
+        return new Summary(scanned, matched, successes, destroyed, protectedFailures, coins,
+                levels, recent, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Audit files, oldest first. */
+    private List<Path> listFiles() {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path p : stream) files.add(p);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to list audit files in {}: {}", directory, e.getMessage());
+        }
+        files.sort((a, b) -> Long.compare(fileTime(a), fileTime(b)));
+        return files;
+    }
+
+    private static long fileTime(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
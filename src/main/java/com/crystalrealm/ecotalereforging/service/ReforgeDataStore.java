@@ -63,17 +63,30 @@ public class ReforgeDataStore {
      * @param level      the new reforge level
      */
     public void setLevel(@Nonnull UUID playerUuid, @Nonnull String itemId, int level) {
+        setLevel(playerUuid, itemId, level, true);
+    }
+
+    /**
+     * Set the reforge level, optionally without writing to disk. Batch
+     * callers pass {@code persist = false} and call {@link #save()} once.
+     */
+    public void setLevel(@Nonnull UUID playerUuid, @Nonnull String itemId, int level, boolean persist) {
         String normalizedId = normalizeItemId(itemId);
         data.computeIfAbsent(playerUuid, k -> new ConcurrentHashMap<>())
                 .put(normalizedId, level);
-        save();
-        LOGGER.info("[ReforgeDataStore] Set {} / {} = level {}", playerUuid, normalizedId, level);
+        if (persist) save();
+        LOGGER.debug("[ReforgeDataStore] Set {} / {} = level {}", playerUuid, normalizedId, level);
     }
 
     /**
      * Remove reforge data for a specific player's item (e.g., on item destruction).
      */
     public void removeLevel(@Nonnull UUID playerUuid, @Nonnull String itemId) {
+        removeLevel(playerUuid, itemId, true);
+    }
+
+    /** Remove reforge data, optionally without writing to disk (see {@link #setLevel(UUID, String, int, boolean)}). */
+    public void removeLevel(@Nonnull UUID playerUuid, @Nonnull String itemId, boolean persist) {
         String normalizedId = normalizeItemId(itemId);
         Map<String, Integer> playerData = data.get(playerUuid);
         if (playerData != null) {
@@ -81,8 +94,8 @@ public class ReforgeDataStore {
             if (playerData.isEmpty()) {
                 data.remove(playerUuid);
             }
-            save();
-            LOGGER.info("[ReforgeDataStore] Removed {} / {}", playerUuid, normalizedId);
+            if (persist) save();
+            LOGGER.debug("[ReforgeDataStore] Removed {} / {}", playerUuid, normalizedId);
         }
     }
 
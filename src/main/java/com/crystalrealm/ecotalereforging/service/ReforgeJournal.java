@@ -0,0 +1,313 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import com.crystalrealm.ecotalereforging.provider.economy.EconomyBridge;
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only journal of in-flight reforge transactions.
+ *
+ * <p>One line per record: {@code <txId> <TYPE> [fields...]}. A transaction
+ * starts with {@code BEGIN}, lists its undo steps ({@code REFUND},
+ * {@code SLOT}, {@code LEVEL}) and ends with {@code COMMIT} or
+ * {@code ROLLBACK}. A withdrawal is announced by {@code PAYING} before the
+ * provider is called and confirmed by {@code REFUND} (taken) or
+ * {@code UNPAID} (refused). Lines go straight to the file channel, so they
+ * survive a process crash; payment records are also forced to disk.</p>
+ *
+ * <p>On startup {@link #recover} undoes every transaction without an end
+ * record: coins are refunded and stored levels restored. Slot changes are
+ * only reported — the world may or may not have saved the inventory before
+ * the crash, and replaying them could duplicate items. For the same reason
+ * the stored level of an item whose slot was rewritten is left as the
+ * attempt set it, so it keeps matching the item's own metadata. A
+ * {@code PAYING} without a confirmation is reported for review: whether the
+ * provider took the coins cannot be known offline.</p>
+ */
+public class ReforgeJournal {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+    private static final String FILE_NAME = "reforge_journal.log";
+
+    /** Truncate the file once it grows past this and no transaction is open. */
+    private static final long COMPACT_BYTES = 256 * 1024;
+
+    static final String BEGIN    = "BEGIN";
+    static final String PAYING   = "PAYING";
+    static final String UNPAID   = "UNPAID";
+    static final String REFUND   = "REFUND";
+    static final String SLOT     = "SLOT";
+    static final String LEVEL    = "LEVEL";
+    static final String COMMIT   = "COMMIT";
+    static final String ROLLBACK = "ROLLBACK";
+
+    private final Path file;
+    private final AtomicLong nextId = new AtomicLong(System.currentTimeMillis());
+
+    private FileChannel channel;
+    private int openTransactions;
+
+    public ReforgeJournal(@Nonnull Path dataDirectory) {
+        this.file = dataDirectory.resolve(FILE_NAME);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  LIFECYCLE
+    // ════════════════════════════════════════════════════════
+
+    /** Open the journal for appending. Call after {@link #recover}. */
+    public synchronized void open() {
+        if (channel != null) return;
+        try {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.error("Failed to open reforge journal {}: {} — attempts will not survive a crash",
+                    file, e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        if (channel == null) return;
+        try {
+            if (openTransactions == 0) channel.truncate(0);
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close reforge journal: {}", e.getMessage());
+        }
+        channel = null;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  WRITING
+    // ════════════════════════════════════════════════════════
+
+    @Nonnull
+    public ReforgeTransaction begin(@Nonnull UUID playerUuid) {
+        long id = nextId.getAndIncrement();
+        synchronized (this) {
+            openTransactions++;
+        }
+        append(id, BEGIN, playerUuid.toString());
+        return new ReforgeTransaction(this, id, playerUuid);
+    }
+
+    synchronized void append(long txId, @Nonnull String type, @Nonnull String... fields) {
+        if (channel == null) return;
+        StringBuilder sb = new StringBuilder(64).append(txId).append(' ').append(type);
+        for (String f : fields) sb.append(' ').append(f);
+        sb.append('\n');
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) channel.write(buf);
+            if (REFUND.equals(type) || PAYING.equals(type)) channel.force(false);
+        } catch (IOException e) {
+            LOGGER.warn("Reforge journal write failed ({} {}): {}", txId, type, e.getMessage());
+        }
+    }
+
+    /**
+     * Finish {@code txId} but leave {@code amount} owed to the player: a new
+     * transaction holding just that refund is opened in its place. Written in
+     * one forced write, so a crash leaves either the old transaction open or
+     * the new one. The new transaction stays open until the caller pays the
+     * refund and {@link #finish finishes} it; if that never happens, the next
+     * {@link #recover} pays it.
+     *
+     * @return id of the transaction holding the refund
+     */
+    synchronized long finishOwing(long txId, boolean committed, @Nonnull UUID playerUuid, double amount) {
+        long owingId = nextId.getAndIncrement();
+        if (channel == null) return owingId;
+        String lines = owingId + " " + BEGIN + " " + playerUuid + "\n"
+                + owingId + " " + REFUND + " " + amount + "\n"
+                + txId + " " + (committed ? COMMIT : ROLLBACK) + "\n";
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) channel.write(buf);
+            channel.force(false);
+        } catch (IOException e) {
+            LOGGER.warn("Reforge journal write failed ({} owing {}): {}", txId, amount, e.getMessage());
+        }
+        // The owing transaction takes the finished one's place in the open count
+        return owingId;
+    }
+
+    synchronized void finish(long txId, boolean committed) {
+        append(txId, committed ? COMMIT : ROLLBACK);
+        openTransactions = Math.max(0, openTransactions - 1);
+        if (openTransactions == 0 && channel != null) {
+            try {
+                if (channel.size() > COMPACT_BYTES) channel.truncate(0);
+            } catch (IOException e) {
+                LOGGER.debug("Reforge journal compaction failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  RECOVERY
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Undo transactions left open by a crash, then reset the journal.
+     * Refunds that cannot be paid yet (economy unavailable) are kept for
+     * the next start.
+     *
+     * @return number of transactions recovered
+     */
+    public synchronized int recover(@Nonnull EconomyBridge economy, @Nonnull ReforgeDataStore store) {
+        if (channel != null) throw new IllegalStateException("recover() must run before open()");
+        if (!Files.exists(file)) return 0;
+
+        Map<Long, Pending> pending = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length < 2) continue;
+                long id;
+                try {
+                    id = Long.parseLong(parts[0]);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                switch (parts[1]) {
+                    case BEGIN -> {
+                        if (parts.length >= 3) pending.put(id, new Pending(parseUuid(parts[2])));
+                    }
+                    case COMMIT, ROLLBACK -> pending.remove(id);
+                    default -> {
+                        Pending p = pending.get(id);
+                        if (p != null) p.steps.add(parts);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to read reforge journal {}: {}", file, e.getMessage());
+            return 0;
+        }
+
+        List<String> unpaid = new ArrayList<>();
+        int recovered = 0;
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            Pending p = entry.getValue();
+            if (p.playerUuid == null) continue;
+            recovered++;
+            long txId = entry.getKey();
+            Set<String> rewrittenItems = rewrittenItems(p.steps);
+            boolean paymentSettled = false;
+            for (int i = p.steps.size() - 1; i >= 0; i--) {
+                String[] step = p.steps.get(i);
+                switch (step[1]) {
+                    case REFUND, UNPAID -> paymentSettled = true;
+                    case PAYING -> {
+                        if (!paymentSettled) {
+                            LOGGER.error("[tx {}] Withdrawal of {} from {} was interrupted and may or may not "
+                                    + "have been taken — check the balance and refund by hand", txId,
+                                    step.length > 2 ? step[2] : "?", p.playerUuid);
+                        }
+                        continue;
+                    }
+                    case LEVEL -> {
+                        if (step.length > 3 && rewrittenItems.contains(step[3])) {
+                            LOGGER.warn("[tx {}] Level of {} / {} left as the attempt set it: the item's slot "
+                                    + "was rewritten too and is not replayed", txId, step[2], step[3]);
+                            continue;
+                        }
+                    }
+                    default -> { }
+                }
+                undoOffline(txId, p.playerUuid, step, economy, store, unpaid);
+            }
+        }
+
+        try {
+            Files.write(file, unpaid, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.error("Failed to reset reforge journal: {}", e.getMessage());
+        }
+        if (recovered > 0) {
+            LOGGER.warn("Recovered {} interrupted reforge attempt(s); {} refund(s) deferred",
+                    recovered, unpaid.size() / 2);
+        }
+        return recovered;
+    }
+
+    private static void undoOffline(long txId, UUID playerUuid, String[] step,
+                                    EconomyBridge economy, ReforgeDataStore store, List<String> unpaid) {
+        try {
+            switch (step[1]) {
+                case REFUND -> {
+                    double amount = Double.parseDouble(step[2]);
+                    if (economy.isAvailable()
+                            && economy.deposit(playerUuid, amount, "EcoTaleReforging: interrupted reforge refund")) {
+                        LOGGER.info("[tx {}] Refunded {} to {}", txId, amount, playerUuid);
+                    } else {
+                        unpaid.add(txId + " " + BEGIN + " " + playerUuid);
+                        unpaid.add(txId + " " + REFUND + " " + step[2]);
+                    }
+                }
+                case LEVEL -> {
+                    UUID owner = parseUuid(step[2]);
+                    if (owner != null) {
+                        ReforgeTransaction.restoreLevel(store, owner, step[3], Integer.parseInt(step[4]));
+                        LOGGER.info("[tx {}] Restored {} / {} to level {}", txId, owner, step[3], step[4]);
+                    }
+                }
+                case UNPAID -> { }
+                case SLOT -> LOGGER.warn("[tx {}] Slot {} of {} was changed by an interrupted reforge (was {}); "
+                        + "not replayed — check the player's inventory", txId, step[2], playerUuid, step[3]);
+                default -> LOGGER.debug("[tx {}] Unknown journal record {}", txId, step[1]);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("[tx {}] Could not undo {}: {}", txId, String.join(" ", step), e.getMessage());
+        }
+    }
+
+    /** Item ids whose slot a transaction rewrote, from the {@code SLOT} records' previous contents. */
+    private static Set<String> rewrittenItems(List<String[]> steps) {
+        Set<String> items = new HashSet<>();
+        for (String[] step : steps) {
+            if (!SLOT.equals(step[1]) || step.length < 4) continue;
+            int x = step[3].lastIndexOf('x');
+            if (x > 0) items.add(step[3].substring(0, x));
+        }
+        return items;
+    }
+
+    @Nullable
+    private static UUID parseUuid(String s) {
+        try {
+            return UUID.fromString(s);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Pending {
+        final UUID playerUuid;
+        final List<String[]> steps = new ArrayList<>();
+
+        Pending(@Nullable UUID playerUuid) {
+            this.playerUuid = playerUuid;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import com.crystalrealm.ecotalereforging.model.ReforgeResult;
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of reforge outcomes per target level, plus the same
+ * figures over the last minute, hour and day.
+ *
+ * <p>Every counter is a {@link LongAdder} (coins a {@link DoubleAdder}), so
+ * attempts on different world threads never contend and recording costs a
+ * handful of uncontended adds. Reading sums the cells, which is only done
+ * for the admin panel, the metrics command and snapshots.</p>
+ *
+ * <p>Windows are rings of time buckets. The first write in a new period
+ * swaps a fresh bucket into its slot with a compare-and-set, so a late
+ * write for the old period lands in the discarded bucket instead of
+ * leaking into the new one. A window therefore covers its span minus at
+ * most one bucket.</p>
+ *
+ * <p>Lifetime totals are written to {@value #SNAPSHOT_FILE} periodically and
+ * on shutdown, and read back on start. Windows always start empty.</p>
+ */
+public class ReforgeMetrics {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final String SNAPSHOT_FILE = "metrics.json";
+
+    /** Outcome counts over some span. Rates are 0 when nothing was attempted. */
+    public record Totals(long attempts, long successes, long protectedFailures, long destroyed,
+                         double coins, long materialsConsumed, long materialsReturned) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0, 0, 0, 0, 0);
+
+        public double successRate() { return attempts == 0 ? 0 : (double) successes / attempts; }
+        public double destroyRate() { return attempts == 0 ? 0 : (double) destroyed / attempts; }
+    }
+
+    /** Everything at one point in time; {@code levels} is keyed by target level. */
+    public record Snapshot(long since, Totals total, SortedMap<Integer, Totals> levels,
+                           Totals lastMinute, Totals lastHour, Totals lastDay) {}
+
+    private final Path snapshotFile;
+    private final Map<Integer, Counters> levels = new ConcurrentHashMap<>();
+    private final Window minute = new Window(1_000, 60);
+    private final Window hour = new Window(60_000, 60);
+    private final Window day = new Window(15 * 60_000, 96);
+
+    private volatile long since = System.currentTimeMillis();
+    @Nullable
+    private ScheduledExecutorService scheduler;
+
+    public ReforgeMetrics(@Nonnull Path dataDirectory) {
+        this.snapshotFile = dataDirectory.resolve(SNAPSHOT_FILE);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  LIFECYCLE
+    // ════════════════════════════════════════════════════════
+
+    /** Restore the last snapshot, then write a new one every {@code intervalMs} (0 = only on shutdown). */
+    public synchronized void start(long intervalMs) {
+        if (scheduler != null) return;
+        load();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "EcoTaleReforging-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        if (intervalMs > 0) {
+            long interval = Math.max(10_000, intervalMs);
+            scheduler.scheduleWithFixedDelay(this::saveSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Stop the snapshot timer and write a final snapshot. */
+    public void shutdown() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s == null) return;
+        s.shutdown();
+        try {
+            s.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  RECORDING
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Count one attempt at {@code level} (the level being reforged to).
+     *
+     * @param coins    coins actually charged
+     * @param consumed materials taken for the attempt
+     * @param returned materials given back after the item was destroyed
+     */
+    public void record(int level, @Nonnull ReforgeResult result, double coins, long consumed, long returned) {
+        if (result == ReforgeResult.CANNOT_ATTEMPT) return;
+        levels.computeIfAbsent(level, k -> new Counters()).add(result, coins, consumed, returned);
+        long now = System.currentTimeMillis();
+        minute.add(now, result, coins, consumed, returned);
+        hour.add(now, result, coins, consumed, returned);
+        day.add(now, result, coins, consumed, returned);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  READING
+    // ════════════════════════════════════════════════════════
+
+    @Nonnull
+    public Snapshot snapshot() {
+        SortedMap<Integer, Totals> perLevel = new TreeMap<>();
+        levels.forEach((level, c) -> perLevel.put(level, c.totals()));
+        long now = System.currentTimeMillis();
+        return new Snapshot(since, sum(perLevel.values()), Collections.unmodifiableSortedMap(perLevel),
+                minute.totals(now), hour.totals(now), day.totals(now));
+    }
+
+    /** Clear lifetime totals and windows; the next snapshot overwrites the file. */
+    public void reset() {
+        levels.clear();
+        minute.clear();
+        hour.clear();
+        day.clear();
+        since = System.currentTimeMillis();
+    }
+
+    private static Totals sum(Iterable<Totals> parts) {
+        long attempts = 0, successes = 0, protectedFailures = 0, destroyed = 0, consumed = 0, returned = 0;
+        double coins = 0;
+        for (Totals t : parts) {
+            attempts += t.attempts();
+            successes += t.successes();
+            protectedFailures += t.protectedFailures();
+            destroyed += t.destroyed();
+            coins += t.coins();
+            consumed += t.materialsConsumed();
+            returned += t.materialsReturned();
+        }
+        return new Totals(attempts, successes, protectedFailures, destroyed, coins, consumed, returned);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  PERSISTENCE
+    // ════════════════════════════════════════════════════════
+
+    private void saveSafely() {
+        try {
+            save();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Metrics snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    private void save() {
+        Snapshot snap = snapshot();
+        JsonObject root = new JsonObject();
+        root.addProperty("since", snap.since());
+        root.addProperty("savedAt", System.currentTimeMillis());
+        JsonObject byLevel = new JsonObject();
+        snap.levels().forEach((level, t) -> byLevel.add(String.valueOf(level), toJson(t)));
+        root.add("levels", byLevel);
+
+        Path tmp = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            Files.writeString(tmp, GSON.toJson(root), StandardCharsets.UTF_8);
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Metrics snapshot written: {} attempt(s) over {} level(s)",
+                    snap.total().attempts(), snap.levels().size());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(snapshotFile)) return;
+        try (Reader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+            if (root.has("since")) since = root.get("since").getAsLong();
+            JsonObject byLevel = root.has("levels") ? root.getAsJsonObject("levels") : new JsonObject();
+            for (Map.Entry<String, JsonElement> e : byLevel.entrySet()) {
+                JsonObject t = e.getValue().getAsJsonObject();
+                Counters c = levels.computeIfAbsent(Integer.parseInt(e.getKey()), k -> new Counters());
+                c.attempts.add(getLong(t, "attempts"));
+                c.successes.add(getLong(t, "successes"));
+                c.protectedFailures.add(getLong(t, "protectedFailures"));
+                c.destroyed.add(getLong(t, "destroyed"));
+                c.coins.add(t.has("coins") ? t.get("coins").getAsDouble() : 0);
+                c.materialsConsumed.add(getLong(t, "materialsConsumed"));
+                c.materialsReturned.add(getLong(t, "materialsReturned"));
+            }
+            LOGGER.info("Restored reforge metrics for {} level(s)", byLevel.size());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private static JsonObject toJson(Totals t) {
+        JsonObject o = new JsonObject();
+        o.addProperty("attempts", t.attempts());
+        o.addProperty("successes", t.successes());
+        o.addProperty("protectedFailures", t.protectedFailures());
+        o.addProperty("destroyed", t.destroyed());
+        o.addProperty("coins", t.coins());
+        o.addProperty("materialsConsumed", t.materialsConsumed());
+        o.addProperty("materialsReturned", t.materialsReturned());
+        return o;
+    }
+
+    private static long getLong(JsonObject o, String name) {
+        return o.has(name) ? o.get(name).getAsLong() : 0;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  COUNTERS
+    // ════════════════════════════════════════════════════════
+
+    private static class Counters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder successes = new LongAdder();
+        final LongAdder protectedFailures = new LongAdder();
+        final LongAdder destroyed = new LongAdder();
+        final DoubleAdder coins = new DoubleAdder();
+        final LongAdder materialsConsumed = new LongAdder();
+        final LongAdder materialsReturned = new LongAdder();
+
+        void add(ReforgeResult result, double cost, long consumed, long returned) {
+            attempts.increment();
+            switch (result) {
+                case SUCCESS -> successes.increment();
+                case FAILURE_PROTECTED -> protectedFailures.increment();
+                case FAILURE -> destroyed.increment();
+                default -> {}
+            }
+            if (cost != 0) coins.add(cost);
+            if (consumed != 0) materialsConsumed.add(consumed);
+            if (returned != 0) materialsReturned.add(returned);
+        }
+
+        Totals totals() {
+            return new Totals(attempts.sum(), successes.sum(), protectedFailures.sum(), destroyed.sum(),
+                    coins.sum(), materialsConsumed.sum(), materialsReturned.sum());
+        }
+
+        void clear() {
+            attempts.reset();
+            successes.reset();
+            protectedFailures.reset();
+            destroyed.reset();
+            coins.reset();
+            materialsConsumed.reset();
+            materialsReturned.reset();
+        }
+    }
+
+    /** Counters for one time bucket; {@code period} is the bucket's start divided by its width. */
+    private static final class Bucket extends Counters {
+        final long period;
+
+        Bucket(long period) {
+            this.period = period;
+        }
+    }
+
+    /** Ring of {@code size} buckets of {@code bucketMs} each. */
+    private static final class Window {
+        final long bucketMs;
+        final AtomicReferenceArray<Bucket> buckets;
+
+        Window(long bucketMs, int size) {
+            this.bucketMs = bucketMs;
+            this.buckets = new AtomicReferenceArray<>(size);
+            clear();
+        }
+
+        void add(long now, ReforgeResult result, double cost, long consumed, long returned) {
+            long period = now / bucketMs;
+            int slot = (int) (period % buckets.length());
+            Bucket b = buckets.get(slot);
+            while (b.period < period) {
+                Bucket fresh = new Bucket(period);
+                if (buckets.compareAndSet(slot, b, fresh)) {
+                    b = fresh;
+                    break;
+                }
+                b = buckets.get(slot);
+            }
+            // A newer period already owns the slot: this write's bucket has left the window
+            if (b.period == period) b.add(result, cost, consumed, returned);
+        }
+
+        Totals totals(long now) {
+            long period = now / bucketMs;
+            long attempts = 0, successes = 0, protectedFailures = 0, destroyed = 0, consumed = 0, returned = 0;
+            double coins = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket b = buckets.get(i);
+                long age = period - b.period;
+                if (age < 0 || age >= buckets.length()) continue;
+                attempts += b.attempts.sum();
+                successes += b.successes.sum();
+                protectedFailures += b.protectedFailures.sum();
+                destroyed += b.destroyed.sum();
+                coins += b.coins.sum();
+                consumed += b.materialsConsumed.sum();
+                returned += b.materialsReturned.sum();
+            }
+            return attempts == 0 ? Totals.EMPTY
+                    : new Totals(attempts, successes, protectedFailures, destroyed, coins, consumed, returned);
+        }
+
+        void clear() {
+            for (int i = 0; i < buckets.length(); i++) buckets.set(i, new Bucket(-1));
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package com.crystalrealm.ecotalereforging.service;
 
 import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
+import com.crystalrealm.ecotalereforging.model.AutoReforgeSummary;
 import com.crystalrealm.ecotalereforging.model.ReforgeAttemptInfo;
 import com.crystalrealm.ecotalereforging.model.ReforgeResult;
 import com.crystalrealm.ecotalereforging.provider.economy.EconomyBridge;
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
 import com.crystalrealm.ecotalereforging.util.ReforgeMetadataHelper;
 import com.hypixel.hytale.server.core.entity.entities.Player;
-import com.hypixel.hytale.server.core.inventory.Inventory;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 
@@ -15,7 +15,10 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -28,7 +31,12 @@ import java.util.concurrent.ThreadLocalRandom;
  *   <li>On failure: destroys item, returns materials via reverse crafting</li>
  * </ul>
  *
- * Thread-safety: uses a per-player lock set to prevent double-click exploits.
+ * Each attempt runs as a {@link ReforgeTransaction}: if it cannot finish, the
+ * coins, consumed materials, item and stored level are put back.
+ *
+ * Thread-safety: attempts go through a per-player {@link AttemptQueue}, so a
+ * player's clicks are applied one after another in order (no double-click
+ * exploits) while different players are never blocked by each other.
  */
 public class ReforgeService {
 
@@ -38,18 +46,30 @@ public class ReforgeService {
     private final ItemValidationService validator;
     private final ReforgeDataStore dataStore;
     private final EconomyBridge economyBridge;
+    private final ReforgeJournal journal;
+    private final ReforgeAuditLog audit;
+    private final ReforgeMetrics metrics;
+
+    /** Attempts a player may have queued (including the running one) before clicks are refused. */
+    private static final int MAX_QUEUED_ATTEMPTS = 3;
 
-    /** Active reforges — prevents double-click. */
-    private final Set<UUID> activeReforges = ConcurrentHashMap.newKeySet();
+    /** Per-player attempt mailbox — serializes clicks, players run in parallel. */
+    private final AttemptQueue attemptQueue = new AttemptQueue(MAX_QUEUED_ATTEMPTS);
 
     public ReforgeService(@Nonnull ReforgeConfig config,
                           @Nonnull ItemValidationService validator,
                           @Nonnull ReforgeDataStore dataStore,
-                          @Nonnull EconomyBridge economyBridge) {
+                          @Nonnull EconomyBridge economyBridge,
+                          @Nonnull ReforgeJournal journal,
+                          @Nonnull ReforgeAuditLog audit,
+                          @Nonnull ReforgeMetrics metrics) {
         this.config = config;
         this.validator = validator;
         this.dataStore = dataStore;
         this.economyBridge = economyBridge;
+        this.journal = journal;
+        this.audit = audit;
+        this.metrics = metrics;
     }
 
     // ═══════════════════════════════════════════════════════
@@ -57,60 +77,283 @@ public class ReforgeService {
     // ═══════════════════════════════════════════════════════
 
     /**
-     * Attempt to reforge the player's held item.
+     * Queue a reforge of the item at a specific inventory slot, optionally with protection.
+     *
+     * <p>Attempts of one player run in click order on {@code executor}; if the
+     * player already has {@value #MAX_QUEUED_ATTEMPTS} attempts queued the
+     * future fails with {@link RejectedExecutionException}.</p>
      *
-     * @param player     the player
-     * @param playerUuid the player's UUID
-     * @return attempt info with result, or null if pre-checks fail
+     * @param player        the player
+     * @param playerUuid    the player's UUID
+     * @param slotIndex     inventory slot index, or -1 for held item
+     * @param useProtection if true, on failure the item resets to +0 instead of being destroyed
+     * @param executor      the player's world thread
+     * @return attempt info with result; completes with {@code null} if the attempt failed and was rolled back
      */
-    @Nullable
-    public ReforgeAttemptInfo attemptReforge(@Nonnull Player player,
-                                             @Nonnull UUID playerUuid) {
-        return attemptReforgeAtSlot(player, playerUuid, -1);
+    @Nonnull
+    public CompletableFuture<ReforgeAttemptInfo> attemptReforge(@Nonnull Player player,
+                                                                @Nonnull UUID playerUuid,
+                                                                int slotIndex,
+                                                                boolean useProtection,
+                                                                @Nonnull Executor executor) {
+        return attemptQueue.submit(playerUuid, executor,
+                () -> doReforge(player, playerUuid, slotIndex, useProtection, executor));
+    }
+
+    /** Number of attempts queued or running for the player. */
+    public int pendingAttempts(@Nonnull UUID playerUuid) {
+        return attemptQueue.pending(playerUuid);
     }
 
+    // ═══════════════════════════════════════════════════════
+    //  AUTO-REFORGE
+    // ═══════════════════════════════════════════════════════
+
     /**
-     * Attempt to reforge the item at a specific inventory slot.
+     * Keep reforging the item at {@code slotIndex} until it reaches
+     * {@code targetLevel}, the next attempt would exceed {@code spendCap},
+     * materials run out, or the item is destroyed.
      *
-     * @param player     the player
-     * @param playerUuid the player's UUID
-     * @param slotIndex  inventory slot index, or -1 for held item
-     * @return attempt info with result, or null if pre-checks fail
+     * <p>The run is a single transaction. Coins are reserved with one
+     * withdrawal (the cap, or the balance if lower) and the unspent part is
+     * refunded at the end. Materials come from one inventory snapshot, and the
+     * item, stored level and data file are each written once.</p>
+     *
+     * <p>The run shares the player's attempt queue with single attempts.</p>
+     *
+     * @return the summary; completes with {@code null} if the run failed and was rolled back
      */
-    @Nullable
-    public ReforgeAttemptInfo attemptReforgeAtSlot(@Nonnull Player player,
-                                                   @Nonnull UUID playerUuid,
-                                                   int slotIndex) {
-        return attemptReforgeAtSlot(player, playerUuid, slotIndex, false);
+    @Nonnull
+    public CompletableFuture<AutoReforgeSummary> autoReforge(@Nonnull Player player,
+                                                             @Nonnull UUID playerUuid,
+                                                             int slotIndex,
+                                                             int targetLevel,
+                                                             double spendCap,
+                                                             boolean useProtection,
+                                                             @Nonnull Executor executor) {
+        return attemptQueue.submit(playerUuid, executor,
+                () -> doAutoReforge(player, playerUuid, slotIndex, targetLevel, spendCap, useProtection, executor));
     }
 
     /**
-     * Attempt to reforge the item at a specific inventory slot, optionally with protection.
-     *
-     * @param player        the player
-     * @param playerUuid    the player's UUID
-     * @param slotIndex     inventory slot index, or -1 for held item
-     * @param useProtection if true, on failure the item resets to +0 instead of being destroyed
-     * @return attempt info with result, or null if pre-checks fail
+     * Validate on the world thread, reserve coins on the economy executor, run
+     * the loop and apply the outcome back on {@code world}, then hand back the
+     * unspent reserve off-thread.
      */
-    @Nullable
-    public ReforgeAttemptInfo attemptReforgeAtSlot(@Nonnull Player player,
-                                                   @Nonnull UUID playerUuid,
-                                                   int slotIndex,
-                                                   boolean useProtection) {
-        // Prevent concurrent reforges
-        if (!activeReforges.add(playerUuid)) {
-            LOGGER.debug("Reforge blocked — already in progress for {}", playerUuid);
-            return null;
+    private CompletableFuture<AutoReforgeSummary> doAutoReforge(@Nonnull Player player,
+                                                                @Nonnull UUID playerUuid,
+                                                                int slotIndex,
+                                                                int targetLevel,
+                                                                double spendCap,
+                                                                boolean useProtection,
+                                                                @Nonnull Executor world) {
+        ItemStack item = getItemAtSlot(player, slotIndex);
+        if (item == null || item.isEmpty() || !validator.isReforgeable(item)) {
+            return CompletableFuture.completedFuture(new AutoReforgeSummary(
+                    item != null ? item.getItemId() : "", 0, 0, targetLevel,
+                    0, 0, 0, 0, AutoReforgeSummary.StopReason.INVALID));
         }
 
-        try {
-            return doReforge(player, playerUuid, slotIndex, useProtection);
-        } finally {
-            activeReforges.remove(playerUuid);
+        String itemId = item.getItemId();
+        int startLevel = validator.getReforgeLevel(item, playerUuid);
+        int target = Math.min(targetLevel, config.getGeneral().getMaxReforgeLevel());
+        int maxAttempts = config.getGeneral().getAutoReforgeMaxAttempts();
+        if (target <= startLevel || maxAttempts <= 0) {
+            return CompletableFuture.completedFuture(new AutoReforgeSummary(itemId, startLevel, startLevel,
+                    targetLevel, 0, 0, 0, 0, AutoReforgeSummary.StopReason.INVALID));
+        }
+
+        boolean economy = economyBridge.isAvailable();
+        ReforgeTransaction tx = journal.begin(playerUuid);
+
+        // 1. Reserve coins for the whole run
+        CompletableFuture<Double> reserved = economy && spendCap > 0
+                ? reserveCoinsAsync(playerUuid, spendCap, tx)
+                : CompletableFuture.completedFuture(0.0);
+
+        return reserved
+                .thenApplyAsync(reserve -> {
+                    try {
+                        if (!isUnchanged(player, slotIndex, item, startLevel)) {
+                            tx.rollback();
+                            return AutoRun.finished(new AutoReforgeSummary(itemId, startLevel, startLevel,
+                                    targetLevel, 0, 0, 0, 0, AutoReforgeSummary.StopReason.INVALID));
+                        }
+                        AutoRun run = runAuto(player, playerUuid, slotIndex, item, startLevel, target,
+                                maxAttempts, spendCap, reserve, economy, useProtection, tx);
+                        // Commit here, with the outcome just applied, not after the change is paid
+                        return run.finished ? run : settleAuto(playerUuid, run, tx);
+                    } catch (RuntimeException e) {
+                        LOGGER.error("[auto] Run {} failed for {}, rolling back: {}",
+                                tx.getId(), playerUuid, e.toString());
+                        tx.rollback();
+                        return AutoRun.finished(null);
+                    }
+                }, world)
+                .handle((run, error) -> rollbackOnFailure(tx, run, error))
+                .thenCompose(run -> run.change.thenApply(paid -> run.summary))
+                // Callers touch the page and inventory — complete on the world thread
+                .thenApplyAsync(summary -> summary, world);
+    }
+
+    /**
+     * 4. Commit the run and hand back whatever it did not spend. World thread
+     * only: the commit (with the exact change owed) is journaled before the
+     * deposit goes to the economy executor.
+     */
+    private AutoRun settleAuto(@Nonnull UUID playerUuid, @Nonnull AutoRun run, @Nonnull ReforgeTransaction tx) {
+        double unused = run.reserve - run.summary.getCoinsSpent();
+        if (unused <= 0.000001) {
+            tx.commit();
+            return AutoRun.finished(run.summary);
+        }
+        return new AutoRun(run.summary, run.reserve, true,
+                tx.commitRefunding(unused, "EcoTaleReforging: auto-reforge change"));
+    }
+
+    /**
+     * Withdraw {@code min(cap, balance)}; completes with the amount taken (0 on
+     * any failure). The withdrawal is journaled in {@code tx} around the call.
+     */
+    private CompletableFuture<Double> reserveCoinsAsync(@Nonnull UUID playerUuid, double cap,
+                                                        @Nonnull ReforgeTransaction tx) {
+        // Size the reserve from the provider, not the cache — the withdraw must not be refused
+        return economyBridge.refreshBalanceAsync(playerUuid)
+                .thenCompose(balance -> {
+                    double reserve = Math.min(cap, balance);
+                    if (reserve <= 0) return CompletableFuture.completedFuture(0.0);
+                    tx.paying(reserve);
+                    return economyBridge.withdrawIfSufficientAsync(playerUuid, reserve,
+                                    "EcoTaleReforging: auto-reforge reserve")
+                            .handle((ok, e) -> {
+                                if (Boolean.TRUE.equals(ok)) {
+                                    tx.withdrew(economyBridge, reserve);
+                                    return reserve;
+                                }
+                                tx.notPaid();
+                                if (e != null) {
+                                    LOGGER.warn("[auto] Reserve withdraw failed for {}: {}", playerUuid, e.getMessage());
+                                }
+                                return 0.0;
+                            });
+                })
+                .exceptionally(e -> {
+                    LOGGER.warn("[auto] Balance lookup for the reserve failed for {}: {}", playerUuid, e.getMessage());
+                    return 0.0;
+                });
+    }
+
+    /** Auto-reforge loop result; unless {@code finished}, the reserve still has to be settled. */
+    private static final class AutoRun {
+        final AutoReforgeSummary summary;
+        final double reserve;
+        final boolean finished;
+        /** Deposit of the unspent reserve, set once finished; completes with whether it was paid. */
+        final CompletableFuture<Boolean> change;
+
+        AutoRun(@Nullable AutoReforgeSummary summary, double reserve, boolean finished,
+                @Nullable CompletableFuture<Boolean> change) {
+            this.summary = summary;
+            this.reserve = reserve;
+            this.finished = finished;
+            this.change = change;
+        }
+
+        static AutoRun finished(@Nullable AutoReforgeSummary summary) {
+            return new AutoRun(summary, 0, true, CompletableFuture.completedFuture(true));
         }
     }
 
+    /** One auto-reforge roll, kept in memory until the run's outcome is applied. */
+    private record AutoRoll(int fromLevel, int toLevel, double roll, double chance, double cost,
+                            ReforgeResult result, int materials) {}
+
+    /** Steps 2–3 of an auto-reforge run; world thread only. */
+    private AutoRun runAuto(@Nonnull Player player, @Nonnull UUID playerUuid, int slotIndex,
+                            @Nonnull ItemStack item, int startLevel, int target, int maxAttempts,
+                            double spendCap, double reserve, boolean economy, boolean useProtection,
+                            @Nonnull ReforgeTransaction tx) {
+        String itemId = item.getItemId();
+        boolean protect = useProtection && config.getGeneral().isProtectionEnabled();
+        double costFactor = 1 + (protect ? config.getGeneral().getProtectionCostMultiplier() : 0);
+        double budget = economy ? reserve : Double.POSITIVE_INFINITY;
+        InventorySnapshot inventory = InventorySnapshot.of(player.getInventory());
+
+        // 2. Attempt loop — everything stays in memory
+        int level = startLevel;
+        int attempts = 0, successes = 0, protectedFailures = 0;
+        double spent = 0;
+        AutoReforgeSummary.StopReason reason;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Audited only once the outcome has been applied, so a rolled-back run leaves no records
+        List<AutoRoll> rolls = new ArrayList<>();
+        while (true) {
+            if (level >= target) { reason = AutoReforgeSummary.StopReason.TARGET_REACHED; break; }
+            if (attempts >= maxAttempts) { reason = AutoReforgeSummary.StopReason.ATTEMPT_LIMIT; break; }
+            ReforgeConfig.LevelConfig lc = config.getLevelConfig(level + 1);
+            if (lc == null) { reason = AutoReforgeSummary.StopReason.INVALID; break; }
+
+            double cost = economy ? lc.getCoinCost() * costFactor : 0;
+            if (spent + cost > budget + 1e-9) {
+                reason = reserve < spendCap
+                        ? AutoReforgeSummary.StopReason.NO_COINS
+                        : AutoReforgeSummary.StopReason.SPEND_CAP;
+                break;
+            }
+            if (!inventory.consume(lc.getMaterials(), tx)) {
+                reason = AutoReforgeSummary.StopReason.NO_MATERIALS;
+                break;
+            }
+            spent += cost;
+            attempts++;
+
+            double roll = random.nextDouble();
+            int from = level;
+            ReforgeResult result;
+            if (roll < lc.getSuccessChance()) {
+                level++;
+                successes++;
+                result = ReforgeResult.SUCCESS;
+            } else if (protect) {
+                level = 0;
+                protectedFailures++;
+                result = ReforgeResult.FAILURE_PROTECTED;
+            } else {
+                result = ReforgeResult.FAILURE;
+            }
+            rolls.add(new AutoRoll(from, result == ReforgeResult.FAILURE ? -1 : level, roll,
+                    lc.getSuccessChance(), cost, result, countMaterials(lc.getMaterials())));
+            if (result == ReforgeResult.FAILURE) {
+                reason = AutoReforgeSummary.StopReason.DESTROYED;
+                break;
+            }
+        }
+
+        // 3. Apply the outcome once
+        boolean destroyed = reason == AutoReforgeSummary.StopReason.DESTROYED;
+        if (destroyed || level != startLevel) {
+            tx.levelChanging(dataStore, itemId, dataStore.getLevel(playerUuid, itemId));
+            if (destroyed || level == 0) dataStore.removeLevel(playerUuid, itemId, false);
+            else dataStore.setLevel(playerUuid, itemId, level, false);
+            writeSlot(player, slotIndex, item,
+                    destroyed ? null : ReforgeMetadataHelper.setReforgeLevel(item, level), tx);
+            dataStore.save();
+        }
+        int returned = destroyed ? returnMaterials(player, itemId, playerUuid) : 0;
+        for (AutoRoll r : rolls) {
+            audit.record(playerUuid, itemId, r.fromLevel(), r.toLevel(), r.roll(), r.chance(), r.cost(),
+                    r.result(), protect, true);
+            metrics.record(r.fromLevel() + 1, r.result(), r.cost(), r.materials(),
+                    r.result() == ReforgeResult.FAILURE ? returned : 0);
+        }
+
+        LOGGER.info("[auto] {} item={} lv={}->{} target={} attempts={} ok={} protected={} spent={} stop={}",
+                playerUuid, itemId, startLevel, destroyed ? -1 : level, target, attempts,
+                successes, protectedFailures, String.format("%.2f", spent), reason);
+        return new AutoRun(new AutoReforgeSummary(itemId, startLevel, destroyed ? 0 : level, target,
+                attempts, successes, protectedFailures, spent, reason), reserve, false, null);
+    }
+
     /**
      * Get the item at a specific inventory slot.
      */
@@ -175,28 +418,33 @@ public class ReforgeService {
         return result;
     }
 
-    private ReforgeAttemptInfo doReforge(@Nonnull Player player,
-                                         @Nonnull UUID playerUuid,
-                                         int slotIndex,
-                                         boolean useProtection) {
+    /**
+     * Validate on the world thread, pay on the economy executor, then consume
+     * materials and roll the dice back on {@code world}.
+     */
+    private CompletableFuture<ReforgeAttemptInfo> doReforge(@Nonnull Player player,
+                                                            @Nonnull UUID playerUuid,
+                                                            int slotIndex,
+                                                            boolean useProtection,
+                                                            @Nonnull Executor world) {
         // 1. Get item from slot or hand
         ItemStack heldItem;
         if (slotIndex >= 0) {
             ItemContainer container = player.getInventory().getCombinedHotbarFirst();
-            if (slotIndex >= container.getCapacity()) return null;
+            if (slotIndex >= container.getCapacity()) return CompletableFuture.completedFuture(null);
             heldItem = container.getItemStack((short) slotIndex);
         } else {
             heldItem = player.getInventory().getItemInHand();
         }
         if (heldItem == null || heldItem.isEmpty()) {
             LOGGER.debug("[reforge] Player {} has no item at slot {}", playerUuid, slotIndex);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         // 2. Validate item
         if (!validator.isReforgeable(heldItem)) {
             LOGGER.debug("[reforge] Item {} is not reforgeable", heldItem.getItemId());
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         // 3. Check max level
@@ -204,7 +452,7 @@ public class ReforgeService {
         int maxLevel = config.getGeneral().getMaxReforgeLevel();
         if (currentLevel >= maxLevel) {
             LOGGER.debug("[reforge] Item already at max level {}", currentLevel);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         int targetLevel = currentLevel + 1;
@@ -213,7 +461,7 @@ public class ReforgeService {
         ReforgeConfig.LevelConfig levelCfg = config.getLevelConfig(targetLevel);
         if (levelCfg == null) {
             LOGGER.warn("[reforge] No level config for level {}", targetLevel);
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         // 5. Check economy (EcotaleAPI)
@@ -223,64 +471,142 @@ public class ReforgeService {
             protectionCost = coinCost * config.getGeneral().getProtectionCostMultiplier();
         }
         double totalCost = coinCost + protectionCost;
-        if (totalCost > 0 && !withdrawCoins(playerUuid, totalCost)) {
-            return new ReforgeAttemptInfo(
-                    heldItem.getItemId(), currentLevel, targetLevel,
-                    levelCfg.getSuccessChance(), totalCost,
-                    levelCfg.getWeaponDamageBonus(), levelCfg.getArmorDefenseBonus(),
-                    ReforgeResult.CANNOT_ATTEMPT);
-        }
-
-        // 6. Check and consume materials
-        if (!consumeMaterials(player, levelCfg.getMaterials())) {
-            // Refund coins if materials insufficient
-            if (totalCost > 0) refundCoins(playerUuid, totalCost);
-            return new ReforgeAttemptInfo(
-                    heldItem.getItemId(), currentLevel, targetLevel,
-                    levelCfg.getSuccessChance(), totalCost,
-                    levelCfg.getWeaponDamageBonus(), levelCfg.getArmorDefenseBonus(),
-                    ReforgeResult.CANNOT_ATTEMPT);
-        }
-
-        // 7. Roll the dice
+
+        // Short on materials: refuse before any coins move. The same scan is consumed later.
+        InventorySnapshot inventory = snapshotInventory(player);
+        if (!inventory.hasAll(levelCfg.getMaterials())) {
+            return CompletableFuture.completedFuture(cannotAttempt(heldItem, currentLevel, levelCfg, totalCost,
+                    ReforgeAttemptInfo.Refusal.NO_MATERIALS));
+        }
+
+        // 6. Pay off-thread, then finish on the world thread
+        ReforgeTransaction tx = journal.begin(playerUuid);
+        ItemStack item = heldItem;
+        boolean charging = totalCost > 0 && economyBridge.isAvailable();
+        if (charging) tx.paying(totalCost);
+        return withdrawCoinsAsync(playerUuid, totalCost)
+                .thenApply(paid -> {
+                    // Journal the payment right away, even if the world never picks the attempt up
+                    if (charging) {
+                        if (paid) tx.withdrew(economyBridge, totalCost);
+                        else tx.notPaid();
+                    }
+                    return paid;
+                })
+                .thenApplyAsync(paid -> {
+                    try {
+                        ReforgeAttemptInfo info;
+                        if (!paid) {
+                            info = cannotAttempt(item, currentLevel, levelCfg, totalCost,
+                                    ReforgeAttemptInfo.Refusal.NO_COINS);
+                        } else if (!isUnchanged(player, slotIndex, item, currentLevel)) {
+                            info = cannotAttempt(item, currentLevel, levelCfg, totalCost,
+                                    ReforgeAttemptInfo.Refusal.ITEM_CHANGED);
+                        } else {
+                            info = runAttempt(player, playerUuid, slotIndex, useProtection,
+                                    item, currentLevel, targetLevel, levelCfg, totalCost, inventory, tx);
+                        }
+                        if (info.getResult() == ReforgeResult.CANNOT_ATTEMPT) tx.rollback();
+                        else tx.commit();
+                        return info;
+                    } catch (RuntimeException e) {
+                        LOGGER.error("[reforge] Attempt {} failed for {}, rolling back: {}",
+                                tx.getId(), playerUuid, e.toString());
+                        tx.rollback();
+                        return null;
+                    }
+                }, world)
+                .handle((info, error) -> rollbackOnFailure(tx, info, error));
+    }
+
+    /**
+     * Pass a stage result through, or roll {@code tx} back and rethrow if the
+     * stage after the withdraw failed — e.g. the world rejected the task while
+     * shutting down. Otherwise the coins would wait for the next start.
+     */
+    private static <T> T rollbackOnFailure(@Nonnull ReforgeTransaction tx, T value, @Nullable Throwable error) {
+        if (error == null) return value;
+        LOGGER.error("[tx {}] Stage after payment failed, rolling back: {}", tx.getId(), error.toString());
+        tx.rollback();
+        throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+    }
+
+    /** Whether the slot still holds the item the attempt was started for (it may change while paying). */
+    private boolean isUnchanged(@Nonnull Player player, int slotIndex, @Nonnull ItemStack item, int level) {
+        ItemStack now = getItemAtSlot(player, slotIndex);
+        return now != null && !now.isEmpty()
+                && Objects.equals(now.getItemId(), item.getItemId())
+                && validator.getReforgeLevel(now, player.getUuid()) == level;
+    }
+
+    private static ReforgeAttemptInfo cannotAttempt(@Nonnull ItemStack item, int currentLevel,
+                                                    @Nonnull ReforgeConfig.LevelConfig levelCfg, double totalCost,
+                                                    @Nonnull ReforgeAttemptInfo.Refusal refusal) {
+        return new ReforgeAttemptInfo(
+                item.getItemId(), currentLevel, currentLevel + 1,
+                levelCfg.getSuccessChance(), totalCost,
+                levelCfg.getWeaponDamageBonus(), levelCfg.getArmorDefenseBonus(),
+                ReforgeResult.CANNOT_ATTEMPT, refusal);
+    }
+
+    private ReforgeAttemptInfo runAttempt(@Nonnull Player player,
+                                          @Nonnull UUID playerUuid,
+                                          int slotIndex,
+                                          boolean useProtection,
+                                          @Nonnull ItemStack heldItem,
+                                          int currentLevel,
+                                          int targetLevel,
+                                          @Nonnull ReforgeConfig.LevelConfig levelCfg,
+                                          double totalCost,
+                                          @Nonnull InventorySnapshot inventory,
+                                          @Nonnull ReforgeTransaction tx) {
+        // 7. Consume materials (coins are refunded by the rollback if short or moved meanwhile)
+        if (!inventory.consume(levelCfg.getMaterials(), tx)) {
+            return cannotAttempt(heldItem, currentLevel, levelCfg, totalCost,
+                    ReforgeAttemptInfo.Refusal.NO_MATERIALS);
+        }
+
+        // 8. Roll the dice
         double roll = ThreadLocalRandom.current().nextDouble();
         boolean success = roll < levelCfg.getSuccessChance();
 
-        LOGGER.info("[reforge] {} item={} lv={}->{} chance={} roll={} result={} protection={}",
-                playerUuid, heldItem.getItemId(), currentLevel, targetLevel,
-                String.format("%.2f", levelCfg.getSuccessChance()),
-                String.format("%.4f", roll),
-                success ? "SUCCESS" : "FAIL",
-                useProtection);
-
+        LOGGER.debug("[reforge] {} item={} lv={}->{} chance={} roll={} result={} protection={}",
+                () -> playerUuid, heldItem::getItemId, () -> currentLevel, () -> targetLevel,
+                () -> String.format("%.2f", levelCfg.getSuccessChance()),
+                () -> String.format("%.4f", roll),
+                () -> success ? "SUCCESS" : "FAIL",
+                () -> useProtection);
+
+        boolean protect = useProtection && config.getGeneral().isProtectionEnabled();
+        ReforgeResult result;
+        int resultLevel;
+        int returned = 0;
         if (success) {
             // ── SUCCESS ──
-            handleSuccess(player, heldItem, currentLevel, targetLevel, levelCfg, slotIndex);
-
-            return new ReforgeAttemptInfo(
-                    heldItem.getItemId(), currentLevel, targetLevel,
-                    levelCfg.getSuccessChance(), totalCost,
-                    levelCfg.getWeaponDamageBonus(), levelCfg.getArmorDefenseBonus(),
-                    ReforgeResult.SUCCESS);
-        } else if (useProtection && config.getGeneral().isProtectionEnabled()) {
+            handleSuccess(player, heldItem, currentLevel, targetLevel, levelCfg, slotIndex, tx);
+            result = ReforgeResult.SUCCESS;
+            resultLevel = targetLevel;
+        } else if (protect) {
             // ── FAILURE with PROTECTION ── item stays, level resets to 0
-            handleFailureProtected(player, heldItem, playerUuid, slotIndex);
-
-            return new ReforgeAttemptInfo(
-                    heldItem.getItemId(), currentLevel, targetLevel,
-                    levelCfg.getSuccessChance(), totalCost,
-                    levelCfg.getWeaponDamageBonus(), levelCfg.getArmorDefenseBonus(),
-                    ReforgeResult.FAILURE_PROTECTED);
+            handleFailureProtected(player, heldItem, playerUuid, slotIndex, tx);
+            result = ReforgeResult.FAILURE_PROTECTED;
+            resultLevel = 0;
         } else {
             // ── FAILURE ──
-            handleFailure(player, heldItem, playerUuid, slotIndex);
-
-            return new ReforgeAttemptInfo(
-                    heldItem.getItemId(), currentLevel, targetLevel,
-                    levelCfg.getSuccessChance(), totalCost,
-                    levelCfg.getWeaponDamageBonus(), levelCfg.getArmorDefenseBonus(),
-                    ReforgeResult.FAILURE);
+            returned = handleFailure(player, heldItem, playerUuid, slotIndex, tx);
+            result = ReforgeResult.FAILURE;
+            resultLevel = -1;
         }
+        double charged = economyBridge.isAvailable() ? totalCost : 0;
+        audit.record(playerUuid, heldItem.getItemId(), currentLevel, resultLevel, roll,
+                levelCfg.getSuccessChance(), charged, result, protect, false);
+        metrics.record(targetLevel, result, charged, countMaterials(levelCfg.getMaterials()), returned);
+
+        return new ReforgeAttemptInfo(
+                heldItem.getItemId(), currentLevel, targetLevel,
+                levelCfg.getSuccessChance(), totalCost,
+                levelCfg.getWeaponDamageBonus(), levelCfg.getArmorDefenseBonus(),
+                result);
     }
 
     // ═══════════════════════════════════════════════════════
@@ -292,22 +618,19 @@ public class ReforgeService {
                                 int oldLevel,
                                 int newLevel,
                                 @Nonnull ReforgeConfig.LevelConfig levelCfg,
-                                int slotIndex) {
+                                int slotIndex,
+                                @Nonnull ReforgeTransaction tx) {
         // Save new level to server-side data store (backup/legacy)
         UUID playerUuid = player.getUuid();
         String itemId = item.getItemId();
+        tx.levelChanging(dataStore, itemId, dataStore.getLevel(playerUuid, itemId));
         dataStore.setLevel(playerUuid, itemId, newLevel);
 
         // ── Write reforge level into item metadata (per-instance) ──
         ItemStack upgraded = ReforgeMetadataHelper.setReforgeLevel(item, newLevel);
         try {
-            if (slotIndex >= 0) {
-                ItemContainer container = player.getInventory().getCombinedHotbarFirst();
-                container.setItemStackForSlot((short) slotIndex, upgraded);
-            } else {
-                player.getInventory().setItemInHand(upgraded);
-            }
-            LOGGER.info("[reforge] Item metadata updated: slot={}, level={}", slotIndex, newLevel);
+            writeSlot(player, slotIndex, item, upgraded, tx);
+            LOGGER.debug("[reforge] Item metadata updated: slot={}, level={}", slotIndex, newLevel);
         } catch (Exception e) {
             LOGGER.warn("[reforge] Failed to write upgraded item back to slot {}: {}", slotIndex, e.getMessage());
         }
@@ -335,9 +658,11 @@ public class ReforgeService {
             safeSendMessage(player, bonusText);
         }
 
-        LOGGER.info("[reforge] SUCCESS: item {} upgraded to +{} (slot={}, player={}, dmg+={}, def+={})",
-                itemId, newLevel, slotIndex, playerUuid,
-                String.format("%.1f", totalDmgBonus), String.format("%.1f", totalDefBonus));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("[reforge] SUCCESS: item {} upgraded to +{} (slot={}, player={}, dmg+={}, def+={})",
+                    itemId, newLevel, slotIndex, playerUuid,
+                    String.format("%.1f", totalDmgBonus), String.format("%.1f", totalDefBonus));
+        }
 
     }
 
@@ -345,24 +670,35 @@ public class ReforgeService {
     //  FAILURE HANDLER — REVERSE CRAFTING
     // ═══════════════════════════════════════════════════════
 
-    private void handleFailure(@Nonnull Player player,
-                                @Nonnull ItemStack item,
-                                @Nonnull UUID playerUuid,
-                                int slotIndex) {
+    /** Destroy the item and return part of its recipe; returns the number of materials given back. */
+    private int handleFailure(@Nonnull Player player,
+                              @Nonnull ItemStack item,
+                              @Nonnull UUID playerUuid,
+                              int slotIndex,
+                              @Nonnull ReforgeTransaction tx) {
         String itemId = item.getItemId();
 
         // 1. Remove reforge data for destroyed item
+        tx.levelChanging(dataStore, itemId, dataStore.getLevel(playerUuid, itemId));
         dataStore.removeLevel(playerUuid, itemId);
 
         // 2. Destroy the item at the appropriate slot
-        if (slotIndex >= 0) {
-            ItemContainer container = player.getInventory().getCombinedHotbarFirst();
-            container.removeItemStackFromSlot((short) slotIndex);
-        } else {
-            player.getInventory().setItemInHand(ItemStack.EMPTY);
-        }
+        writeSlot(player, slotIndex, item, null, tx);
+
+        // 3. Return configured % of the craft materials
+        int returned = returnMaterials(player, itemId, playerUuid);
+
+        LOGGER.debug("[reforge] FAIL: item {} destroyed for {}", itemId, playerUuid);
+        return returned;
+    }
 
-        // 3. Return configured % of the craft materials (rounded down, at least 1 per material if rate > 0)
+    /**
+     * Give back the configured share of the item's craft materials
+     * (rounded down, at least 1 per material if the rate is above zero).
+     * Returns how many items were actually handed back.
+     */
+    private int returnMaterials(@Nonnull Player player, @Nonnull String itemId, @Nonnull UUID playerUuid) {
+        int returned = 0;
         double returnRate = config.getGeneral().getFailureReturnRate();
         List<ReforgeConfig.MaterialEntry> recipe = getReverseCraftingRecipe(itemId);
         if (returnRate > 0 && recipe != null && !recipe.isEmpty()) {
@@ -377,9 +713,9 @@ public class ReforgeService {
                 try {
                     ItemStack matStack = new ItemStack(bareMatId, returnCount);
                     container.addItemStack(matStack);
-                    LOGGER.info("[reforge] Returned {} x{} ({}% of {}) to {}",
-                            bareMatId, returnCount,
-                            String.format("%.0f", returnRate * 100),
+                    returned += returnCount;
+                    LOGGER.debug("[reforge] Returned {} x{} ({}% of {}) to {}",
+                            bareMatId, returnCount, Math.round(returnRate * 100),
                             material.getCount(), playerUuid);
                 } catch (Exception e) {
                     LOGGER.warn("[reforge] Failed to return material {}: {}",
@@ -387,10 +723,9 @@ public class ReforgeService {
                 }
             }
         } else if (returnRate <= 0) {
-            LOGGER.info("[reforge] returnRate=0 — no materials returned to {}", playerUuid);
+            LOGGER.debug("[reforge] returnRate=0 — no materials returned to {}", playerUuid);
         }
-
-        LOGGER.info("[reforge] FAIL: item {} destroyed for {}", itemId, playerUuid);
+        return returned;
     }
 
     // ═══════════════════════════════════════════════════════
@@ -400,146 +735,87 @@ public class ReforgeService {
     private void handleFailureProtected(@Nonnull Player player,
                                          @Nonnull ItemStack item,
                                          @Nonnull UUID playerUuid,
-                                         int slotIndex) {
+                                         int slotIndex,
+                                         @Nonnull ReforgeTransaction tx) {
         String itemId = item.getItemId();
 
         // 1. Remove reforge data
+        tx.levelChanging(dataStore, itemId, dataStore.getLevel(playerUuid, itemId));
         dataStore.removeLevel(playerUuid, itemId);
 
         // 2. Reset item metadata to level 0 (keep item!)
         ItemStack reset = ReforgeMetadataHelper.setReforgeLevel(item, 0);
         try {
-            if (slotIndex >= 0) {
-                ItemContainer container = player.getInventory().getCombinedHotbarFirst();
-                container.setItemStackForSlot((short) slotIndex, reset);
-            } else {
-                player.getInventory().setItemInHand(reset);
-            }
+            writeSlot(player, slotIndex, item, reset, tx);
         } catch (Exception e) {
             LOGGER.warn("[reforge] Failed to write reset item back to slot {}: {}", slotIndex, e.getMessage());
         }
 
-        LOGGER.info("[reforge] FAIL_PROTECTED: item {} reset to +0 for {}", itemId, playerUuid);
+        LOGGER.debug("[reforge] FAIL_PROTECTED: item {} reset to +0 for {}", itemId, playerUuid);
+    }
+
+    /**
+     * Replace the item at {@code slotIndex} (or in hand for -1), recording the
+     * old stack in the transaction first. {@code replacement == null} clears the slot.
+     */
+    private void writeSlot(@Nonnull Player player, int slotIndex, @Nonnull ItemStack previous,
+                           @Nullable ItemStack replacement, @Nonnull ReforgeTransaction tx) {
+        if (slotIndex >= 0) {
+            ItemContainer container = player.getInventory().getCombinedHotbarFirst();
+            tx.slotChanging(container, (short) slotIndex, previous);
+            if (replacement == null) container.removeItemStackFromSlot((short) slotIndex);
+            else container.setItemStackForSlot((short) slotIndex, replacement);
+        } else {
+            tx.handChanging(player.getInventory(), previous);
+            player.getInventory().setItemInHand(replacement != null ? replacement : ItemStack.EMPTY);
+        }
     }
 
     // ═══════════════════════════════════════════════════════
     //  ECONOMY (EcotaleAPI)
     // ═══════════════════════════════════════════════════════
 
-    private boolean withdrawCoins(@Nonnull UUID uuid, double amount) {
-        try {
-            if (!economyBridge.isAvailable()) {
-                LOGGER.debug("Economy not available — coins check skipped");
-                return true;
-            }
-            if (!economyBridge.hasBalance(uuid, amount)) return false;
-            return economyBridge.withdraw(uuid, amount, "EcoTaleReforging: reforge cost");
-        } catch (Exception e) {
-            LOGGER.warn("Economy withdraw failed: {}", e.getMessage());
-            return false;
+    /** Completes with whether the cost was paid (always true without an economy); never fails. */
+    private CompletableFuture<Boolean> withdrawCoinsAsync(@Nonnull UUID uuid, double amount) {
+        if (amount <= 0) return CompletableFuture.completedFuture(true);
+        if (!economyBridge.isAvailable()) {
+            LOGGER.debug("Economy not available — coins check skipped");
+            return CompletableFuture.completedFuture(true);
         }
+        return economyBridge.withdrawIfSufficientAsync(uuid, amount, "EcoTaleReforging: reforge cost")
+                .exceptionally(e -> {
+                    LOGGER.warn("Economy withdraw failed: {}", e.getMessage());
+                    return false;
+                });
     }
 
-    private void refundCoins(@Nonnull UUID uuid, double amount) {
-        try {
-            if (!economyBridge.isAvailable()) return;
-            economyBridge.deposit(uuid, amount, "EcoTaleReforging: reforge refund");
-        } catch (Exception e) {
-            LOGGER.warn("Economy refund failed: {}", e.getMessage());
-        }
-    }
 
     // ═══════════════════════════════════════════════════════
     //  MATERIAL CONSUMPTION
     // ═══════════════════════════════════════════════════════
 
-    /**
-     * Check if player has required materials and consume them.
-     * Uses inventory scan pattern.
-     */
-    private boolean consumeMaterials(@Nonnull Player player,
-                                      @Nonnull List<ReforgeConfig.MaterialEntry> required) {
-        if (required.isEmpty()) return true;
-
-        Inventory inv = player.getInventory();
-
-        // First pass: verify all materials are present
-        for (ReforgeConfig.MaterialEntry mat : required) {
-            int needed = mat.getCount();
-            int found = countInInventory(inv, mat.getItemId());
-            if (found < needed) return false;
-        }
-
-        // Second pass: consume
-        for (ReforgeConfig.MaterialEntry mat : required) {
-            removeFromInventory(inv, mat.getItemId(), mat.getCount());
-        }
-
-        return true;
-    }
-
-    private int countInInventory(@Nonnull Inventory inv, @Nonnull String itemId) {
+    private static int countMaterials(@Nullable List<ReforgeConfig.MaterialEntry> materials) {
+        if (materials == null) return 0;
         int total = 0;
-        try {
-            ItemContainer container = inv.getCombinedHotbarFirst();
-            short slotCount = container.getCapacity();
-            for (short i = 0; i < slotCount; i++) {
-                ItemStack stack = container.getItemStack(i);
-                if (stack != null && !stack.isEmpty()) {
-                    String actualId = stack.getItemId();
-                    if (itemIdMatches(actualId, itemId)) {
-                        total += stack.getQuantity();
-                    } else if (config.getGeneral().isDebugMode()) {
-                        LOGGER.debug("[countInInventory] Slot {} id='{}' ≠ expected '{}'", i, actualId, itemId);
-                    }
-                }
-            }
-            if (config.getGeneral().isDebugMode()) {
-                LOGGER.debug("[countInInventory] Found {} of '{}' in {} slots", total, itemId, slotCount);
-            }
-        } catch (Exception e) {
-            LOGGER.debug("countInInventory failed: {}", e.getMessage());
-        }
+        for (ReforgeConfig.MaterialEntry m : materials) total += m.getCount();
         return total;
     }
 
+    /**
+     * Scan the player's inventory once for a series of material lookups.
+     * Used by the GUI so one refresh costs a single pass.
+     */
+    @Nonnull
+    public InventorySnapshot snapshotInventory(@Nonnull Player player) {
+        return InventorySnapshot.of(player.getInventory());
+    }
+
     /**
      * Public method to count how many of a specific material the player has.
      * Used by GUI to colour material labels red/green.
      */
     public int countMaterial(@Nonnull Player player, @Nonnull String itemId) {
-        return countInInventory(player.getInventory(), itemId);
-    }
-
-    private void removeFromInventory(@Nonnull Inventory inv, @Nonnull String itemId, int amount) {
-        int remaining = amount;
-        try {
-            ItemContainer container = inv.getCombinedHotbarFirst();
-            short slotCount = container.getCapacity();
-            for (short i = 0; i < slotCount && remaining > 0; i++) {
-                ItemStack stack = container.getItemStack(i);
-                if (stack != null && !stack.isEmpty() && itemIdMatches(stack.getItemId(), itemId)) {
-                    int count = stack.getQuantity();
-                    if (count <= remaining) {
-                        container.removeItemStackFromSlot(i);
-                        remaining -= count;
-                    } else {
-                        container.setItemStackForSlot(i, stack.withQuantity(count - remaining));
-                        remaining = 0;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.warn("removeFromInventory failed: {}", e.getMessage());
-        }
-    }
-
-    private static boolean itemIdMatches(@Nonnull String actual, @Nonnull String expected) {
-        if (actual.equalsIgnoreCase(expected)) return true;
-        // Handle with/without namespace
-        String actualName = actual.contains(":") ? actual.substring(actual.indexOf(':') + 1) : actual;
-        String expectedName = expected.contains(":") ? expected.substring(expected.indexOf(':') + 1) : expected;
-        return actualName.equalsIgnoreCase(expectedName);
+        return snapshotInventory(player).count(itemId);
     }
 
     /**
@@ -691,50 +967,50 @@ public class ReforgeService {
     }
 
     /**
-     * Check if a player has enough materials for the next reforge.
+     * Check materials for the next reforge against an existing snapshot.
      */
-    public boolean hasMaterials(@Nonnull Player player, int currentLevel) {
-        int target = currentLevel + 1;
-        ReforgeConfig.LevelConfig lc = config.getLevelConfig(target);
-        if (lc == null) return false;
-
-        Inventory inv = player.getInventory();
-        for (ReforgeConfig.MaterialEntry mat : lc.getMaterials()) {
-            if (countInInventory(inv, mat.getItemId()) < mat.getCount()) {
-                return false;
-            }
-        }
-        return true;
+    public boolean hasMaterials(@Nonnull InventorySnapshot inventory, int currentLevel) {
+        ReforgeConfig.LevelConfig lc = config.getLevelConfig(currentLevel + 1);
+        return lc != null && inventory.hasAll(lc.getMaterials());
     }
 
     /**
-     * Check if the player has enough coins for the next reforge.
+     * Check if a balance covers the next reforge. An unknown balance
+     * ({@code NaN}) passes — the attempt itself checks again when paying.
      */
-    public boolean hasCoins(@Nonnull UUID playerUuid, int currentLevel) {
+    public boolean hasCoins(double balance, int currentLevel) {
         int target = currentLevel + 1;
         ReforgeConfig.LevelConfig lc = config.getLevelConfig(target);
         if (lc == null) return false;
         if (lc.getCoinCost() <= 0) return true;
+        if (!economyBridge.isAvailable() || Double.isNaN(balance)) return true;
+        return balance >= lc.getCoinCost();
+    }
 
-        try {
-            if (!economyBridge.isAvailable()) return true;
-            return economyBridge.hasBalance(playerUuid, lc.getCoinCost());
-        } catch (Exception e) {
-            LOGGER.warn("Economy hasCoins check failed: {}", e.getMessage());
-            return false;
-        }
+    /**
+     * Get the player's current balance without blocking the caller.
+     * Completes with 0 if the economy is unavailable or fails.
+     */
+    @Nonnull
+    public CompletableFuture<Double> getPlayerBalanceAsync(@Nonnull UUID playerUuid) {
+        if (!economyBridge.isAvailable()) return CompletableFuture.completedFuture(0.0);
+        return economyBridge.getBalanceAsync(playerUuid).exceptionally(e -> {
+            LOGGER.warn("Economy balance lookup failed: {}", e.getMessage());
+            return 0.0;
+        });
     }
 
     /**
-     * Get the player's current balance.
+     * Like {@link #getPlayerBalanceAsync}, but always asks the provider instead
+     * of the short-lived balance cache. Completes with 0 on failure.
      */
-    public double getPlayerBalance(@Nonnull UUID playerUuid) {
-        try {
-            if (!economyBridge.isAvailable()) return 0;
-            return economyBridge.getBalance(playerUuid);
-        } catch (Exception e) {
-            return 0;
-        }
+    @Nonnull
+    public CompletableFuture<Double> refreshPlayerBalanceAsync(@Nonnull UUID playerUuid) {
+        if (!economyBridge.isAvailable()) return CompletableFuture.completedFuture(0.0);
+        return economyBridge.refreshBalanceAsync(playerUuid).exceptionally(e -> {
+            LOGGER.warn("Economy balance lookup failed: {}", e.getMessage());
+            return 0.0;
+        });
     }
 
     /**
@@ -0,0 +1,312 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import com.crystalrealm.ecotalereforging.config.ReforgeConfig;
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates what it takes to reach each reforge level with the current
+ * level table: expected attempts, coins, materials and the chance of losing
+ * the item on the way.
+ *
+ * <p>Two engines are offered for comparison:</p>
+ * <ul>
+ *   <li>{@link #exact} — closed-form results of the Markov chain over levels.
+ *       Without protection a failure is absorbing (item destroyed); with
+ *       protection it returns the chain to +0.</li>
+ *   <li>{@link #simulate} — Monte Carlo trials split across cores, each chunk
+ *       with its own {@link SplittableRandom} stream.</li>
+ * </ul>
+ *
+ * <p>Every trial starts from a fresh +0 item. Costs include the protection
+ * surcharge when simulating with protection.</p>
+ */
+public class ReforgeSimulator {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    /** A protected trial stuck on near-zero chances is abandoned after this many attempts. */
+    private static final long MAX_ATTEMPTS_PER_TRIAL = 5_000_000L;
+
+    /** Trials between deadline checks. */
+    private static final int DEADLINE_STRIDE = 256;
+
+    /** Attempts within one trial between deadline checks; a long protected trial is cut off here. */
+    private static final int DEADLINE_STEP_STRIDE = 4096;
+
+    /** Expected figures for reaching one level from +0. */
+    public record LevelEstimate(int level,
+                                double attempts,
+                                double coins,
+                                double reachChance,
+                                Map<String, Double> materials) {
+
+        /** Chance the item is destroyed before reaching the level (0 with protection). */
+        public double destroyChance() {
+            return Double.isNaN(reachChance) ? Double.NaN : 1 - reachChance;
+        }
+    }
+
+    /** Monte Carlo run, with the exact figures alongside. */
+    public record Report(boolean protection,
+                         long trials,
+                         long unfinished,
+                         long elapsedMs,
+                         List<LevelEstimate> exact,
+                         List<LevelEstimate> simulated) {}
+
+    private final ReforgeConfig config;
+
+    public ReforgeSimulator(@Nonnull ReforgeConfig config) {
+        this.config = config;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  EXACT (MARKOV CHAIN)
+    // ════════════════════════════════════════════════════════
+
+    /** Exact estimates for every level from +1 to the configured maximum. */
+    @Nonnull
+    public List<LevelEstimate> exact(boolean protection) {
+        return exact(Table.of(config, protection), protection);
+    }
+
+    /** Exact estimate for a single level, or {@code null} if it is out of range. */
+    public LevelEstimate exact(boolean protection, int level) {
+        Table t = Table.of(config, protection);
+        if (level < 1 || level > t.levels()) return null;
+        return estimate(t, level, expectedVisits(t, level, protection),
+                protection ? protectedReach(t, level) : reachChance(t, level));
+    }
+
+    private static List<LevelEstimate> exact(Table t, boolean protection) {
+        List<LevelEstimate> out = new ArrayList<>(t.levels());
+        for (int k = 1; k <= t.levels(); k++) {
+            out.add(estimate(t, k, expectedVisits(t, k, protection),
+                    protection ? protectedReach(t, k) : reachChance(t, k)));
+        }
+        return out;
+    }
+
+    /**
+     * Expected attempts made at each level {@code i < k} before first reaching {@code k}
+     * (or losing the item).
+     */
+    private static double[] expectedVisits(Table t, int k, boolean protection) {
+        double[] visits = new double[k];
+        if (!protection) {
+            // Each level is attempted at most once: only if every earlier attempt succeeded
+            double reach = 1;
+            for (int i = 0; i < k; i++) {
+                visits[i] = reach;
+                reach *= t.chance[i];
+            }
+            return visits;
+        }
+        // E_L = c_L + p_L·E_{L+1} + (1 − p_L)·E_0 with E_k = 0. Write E_L = a_L + b_L·E_0
+        // and solve E_0 = a_0 / (1 − b_0), once per indicator cost vector.
+        for (int target = 0; target < k; target++) {
+            double a = 0, b = 0;
+            for (int lvl = k - 1; lvl >= 0; lvl--) {
+                double p = t.chance[lvl];
+                a = (lvl == target ? 1 : 0) + p * a;
+                b = p * b + (1 - p);
+            }
+            visits[target] = b >= 1 - 1e-15 ? Double.POSITIVE_INFINITY : a / (1 - b);
+        }
+        return visits;
+    }
+
+    private static double reachChance(Table t, int k) {
+        double reach = 1;
+        for (int i = 0; i < k; i++) reach *= t.chance[i];
+        return reach;
+    }
+
+    /** With protection the level is reached eventually unless some chance is zero. */
+    private static double protectedReach(Table t, int k) {
+        for (int i = 0; i < k; i++) if (t.chance[i] <= 0) return 0;
+        return 1;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  MONTE CARLO
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Run up to {@code trials} Monte Carlo trials towards {@code targetLevel},
+     * stopping early once {@code timeBudgetMs} is spent. Blocks the calling
+     * thread; the work itself runs on the common fork-join pool.
+     */
+    @Nonnull
+    public Report simulate(int targetLevel, long trials, boolean protection, long timeBudgetMs) {
+        Table t = Table.of(config, protection);
+        int n = Math.max(1, Math.min(targetLevel, t.levels()));
+        if (t.levels() == 0 || trials <= 0) {
+            return new Report(protection, 0, 0, 0, Collections.emptyList(), Collections.emptyList());
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeBudgetMs * 1_000_000L;
+        int chunks = (int) Math.min(trials, Runtime.getRuntime().availableProcessors() * 4L);
+        SplittableRandom root = new SplittableRandom();
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) streams[c] = root.split();
+
+        Acc[] parts = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> runChunk(t, n, protection,
+                        trials / chunks + (c < trials % chunks ? 1 : 0), streams[c], deadline))
+                .toArray(Acc[]::new);
+        Acc total = new Acc(n);
+        for (Acc part : parts) total.merge(part);
+
+        List<LevelEstimate> simulated = new ArrayList<>(n);
+        for (int k = 1; k <= n; k++) {
+            // Protected averages only cover trials that got there; unprotected ones cover all
+            long denom = protection ? total.reached[k] : total.trials;
+            double[] visits = new double[k];
+            for (int i = 0; i < k; i++) visits[i] = denom == 0 ? Double.NaN : (double) total.visits[k][i] / denom;
+            double reach = total.trials == 0 ? Double.NaN : (double) total.reached[k] / total.trials;
+            simulated.add(estimate(t, k, visits, reach));
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info("Reforge simulation: {} trials to +{} (protection={}) in {}ms, {} unfinished",
+                total.trials, n, protection, elapsed, total.unfinished);
+        return new Report(protection, total.trials, total.unfinished, elapsed,
+                exact(t, protection).subList(0, n), simulated);
+    }
+
+    private static Acc runChunk(Table t, int n, boolean protection, long trials,
+                                SplittableRandom rng, long deadline) {
+        Acc acc = new Acc(n);
+        long[] attempts = new long[n];
+        double[] chance = t.chance;
+
+        for (long trial = 0; trial < trials; trial++) {
+            if (trial % DEADLINE_STRIDE == 0 && System.nanoTime() > deadline) break;
+            Arrays.fill(attempts, 0);
+            int level = 0, recorded = 0;
+            long steps = 0;
+            boolean destroyed = false, timedOut = false;
+
+            while (level < n) {
+                if (++steps > MAX_ATTEMPTS_PER_TRIAL) {
+                    acc.unfinished++;
+                    break;
+                }
+                if (steps % DEADLINE_STEP_STRIDE == 0 && System.nanoTime() > deadline) {
+                    acc.unfinished++;
+                    timedOut = true;
+                    break;
+                }
+                attempts[level]++;
+                if (rng.nextDouble() < chance[level]) {
+                    level++;
+                    if (level > recorded) {
+                        recorded = level;
+                        acc.record(level, attempts);
+                    }
+                } else if (protection) {
+                    level = 0;
+                } else {
+                    destroyed = true;
+                    break;
+                }
+            }
+            if (destroyed) {
+                // Levels never reached still count what was spent before the item broke
+                for (int k = recorded + 1; k <= n; k++) acc.addVisits(k, attempts);
+            }
+            acc.trials++;
+            if (timedOut) break;
+        }
+        return acc;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  HELPERS
+    // ════════════════════════════════════════════════════════
+
+    private static LevelEstimate estimate(Table t, int k, double[] visits, double reach) {
+        double attempts = 0, coins = 0;
+        Map<String, Double> materials = new LinkedHashMap<>();
+        for (int i = 0; i < k; i++) {
+            double v = visits[i];
+            attempts += v;
+            coins += v * t.cost[i];
+            for (ReforgeConfig.MaterialEntry m : t.materials.get(i)) {
+                materials.merge(m.getItemId(), v * m.getCount(), Double::sum);
+            }
+        }
+        return new LevelEstimate(k, attempts, coins, reach, materials);
+    }
+
+    /** Per-level chances, costs and materials, frozen at the start of a run. */
+    private record Table(double[] chance, double[] cost, List<List<ReforgeConfig.MaterialEntry>> materials) {
+        static Table of(ReforgeConfig config, boolean protection) {
+            int max = Math.max(0, config.getGeneral().getMaxReforgeLevel());
+            double factor = 1 + (protection ? config.getGeneral().getProtectionCostMultiplier() : 0);
+            List<Double> chances = new ArrayList<>();
+            List<Double> costs = new ArrayList<>();
+            List<List<ReforgeConfig.MaterialEntry>> mats = new ArrayList<>();
+            for (int lvl = 1; lvl <= max; lvl++) {
+                ReforgeConfig.LevelConfig lc = config.getLevelConfig(lvl);
+                if (lc == null) break; // no levels configured at all
+                chances.add(Math.max(0, Math.min(1, lc.getSuccessChance())));
+                costs.add(lc.getCoinCost() * factor);
+                mats.add(lc.getMaterials() != null ? List.copyOf(lc.getMaterials()) : List.of());
+            }
+            double[] c = new double[chances.size()], k = new double[costs.size()];
+            for (int i = 0; i < c.length; i++) {
+                c[i] = chances.get(i);
+                k[i] = costs.get(i);
+            }
+            return new Table(c, k, mats);
+        }
+
+        int levels() { return chance.length; }
+    }
+
+    /** Per-chunk sums, merged after the parallel run. */
+    private static final class Acc {
+        long trials;
+        long unfinished;
+        final long[] reached;
+        final long[][] visits;
+
+        Acc(int n) {
+            reached = new long[n + 1];
+            visits = new long[n + 1][];
+            for (int k = 1; k <= n; k++) visits[k] = new long[k];
+        }
+
+        void record(int level, long[] attempts) {
+            reached[level]++;
+            addVisits(level, attempts);
+        }
+
+        void addVisits(int level, long[] attempts) {
+            long[] row = visits[level];
+            for (int i = 0; i < row.length; i++) row[i] += attempts[i];
+        }
+
+        void merge(Acc other) {
+            trials += other.trials;
+            unfinished += other.unfinished;
+            for (int k = 1; k < reached.length; k++) {
+                reached[k] += other.reached[k];
+                for (int i = 0; i < k; i++) visits[k][i] += other.visits[k][i];
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import com.crystalrealm.ecotalereforging.provider.economy.EconomyBridge;
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One reforge attempt as a unit of work.
+ *
+ * <p>Every side effect (coin withdrawal, slot change, stored level change) is
+ * registered here <em>before</em> it is made, together with the action that
+ * undoes it. {@link #rollback()} runs those actions in reverse order and
+ * pays withdrawn coins back on the economy executor; {@link #commit()}
+ * discards them. Each step is also appended to the
+ * {@link ReforgeJournal} so an attempt cut short by a crash can be undone on
+ * the next start.</p>
+ *
+ * <p>Transactions are not thread-safe. An attempt may move between the world
+ * thread and the economy executor, but its steps never run concurrently.</p>
+ */
+public final class ReforgeTransaction {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    private final ReforgeJournal journal;
+    private final long id;
+    private final UUID playerUuid;
+    private final Deque<Step> steps = new ArrayDeque<>();
+    /** Coins withdrawn so far; paid back asynchronously on rollback, not as a step. */
+    private EconomyBridge economy;
+    private double withdrawn;
+    private boolean finished;
+
+    ReforgeTransaction(@Nonnull ReforgeJournal journal, long id, @Nonnull UUID playerUuid) {
+        this.journal = journal;
+        this.id = id;
+        this.playerUuid = playerUuid;
+    }
+
+    public long getId() { return id; }
+
+    // ════════════════════════════════════════════════════════
+    //  STEPS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Coins are about to be withdrawn. Journaled (and forced) before the
+     * provider is called; follow up with {@link #withdrew} or {@link #notPaid}.
+     */
+    public void paying(double amount) {
+        journal.append(id, ReforgeJournal.PAYING, Double.toString(amount));
+    }
+
+    /** The withdrawal announced by {@link #paying} was refused; nothing to refund. */
+    public void notPaid() {
+        journal.append(id, ReforgeJournal.UNPAID);
+    }
+
+    /** Coins were taken from the player; rollback deposits them back. */
+    public void withdrew(@Nonnull EconomyBridge economy, double amount) {
+        journal.append(id, ReforgeJournal.REFUND, Double.toString(amount));
+        this.economy = economy;
+        this.withdrawn += amount;
+    }
+
+    /** A container slot is about to change; undo puts {@code previous} back. */
+    public void slotChanging(@Nonnull ItemContainer container, short slot, @Nullable ItemStack previous) {
+        journal.append(id, ReforgeJournal.SLOT, Short.toString(slot), describe(previous));
+        steps.push(new Step("slot " + slot, () -> {
+            if (previous == null || previous.isEmpty()) container.removeItemStackFromSlot(slot);
+            else container.setItemStackForSlot(slot, previous);
+        }));
+    }
+
+    /** The held item is about to change; undo puts {@code previous} back in hand. */
+    public void handChanging(@Nonnull Inventory inventory, @Nullable ItemStack previous) {
+        journal.append(id, ReforgeJournal.SLOT, "hand", describe(previous));
+        steps.push(new Step("hand", () ->
+                inventory.setItemInHand(previous != null ? previous : ItemStack.EMPTY)));
+    }
+
+    /** A stored reforge level is about to change; undo restores {@code previousLevel}. */
+    public void levelChanging(@Nonnull ReforgeDataStore store, @Nonnull String itemId, int previousLevel) {
+        journal.append(id, ReforgeJournal.LEVEL, playerUuid.toString(), itemId, Integer.toString(previousLevel));
+        steps.push(new Step("level " + itemId, () -> restoreLevel(store, playerUuid, itemId, previousLevel)));
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  OUTCOME
+    // ════════════════════════════════════════════════════════
+
+    public void commit() {
+        if (finished) return;
+        finished = true;
+        steps.clear();
+        journal.finish(id, true);
+    }
+
+    /**
+     * Commit, handing {@code amount} of the withdrawn coins back to the player.
+     * The commit and an open refund of exactly {@code amount} are journaled
+     * together before anything else happens, so a crash while the deposit is
+     * in flight repays only that amount. The deposit runs on the economy
+     * executor; if it fails, the next {@link ReforgeJournal#recover} pays it.
+     *
+     * @return completes with whether the refund was paid now
+     */
+    @Nonnull
+    public CompletableFuture<Boolean> commitRefunding(double amount, @Nonnull String reason) {
+        if (finished) return CompletableFuture.completedFuture(false);
+        if (amount <= 0 || economy == null) {
+            commit();
+            return CompletableFuture.completedFuture(true);
+        }
+        finished = true;
+        steps.clear();
+        return refund(true, amount, reason);
+    }
+
+    /**
+     * Undo all recorded steps, newest first. A failing step is logged and
+     * the remaining ones still run. Withdrawn coins are then deposited on the
+     * economy executor, so this never waits on the provider; the refund stays
+     * in the journal until the deposit succeeds, and the next
+     * {@link ReforgeJournal#recover} pays it if it does not.
+     */
+    public void rollback() {
+        if (finished) return;
+        finished = true;
+        int undone = 0;
+        while (!steps.isEmpty()) {
+            Step step = steps.pop();
+            try {
+                step.undo.run();
+                undone++;
+            } catch (Exception e) {
+                LOGGER.error("[tx {}] Rollback of {} failed for {}: {}", id, step.label, playerUuid, e.getMessage());
+            }
+        }
+        if (undone > 0) LOGGER.info("[tx {}] Rolled back {} step(s) for {}", id, undone, playerUuid);
+        if (withdrawn <= 0) {
+            journal.finish(id, false);
+            return;
+        }
+        refund(false, withdrawn, "EcoTaleReforging: reforge rollback");
+    }
+
+    /** Finish this transaction into a refund-only one, then pay it off-thread and close it. */
+    private CompletableFuture<Boolean> refund(boolean committed, double amount, @Nonnull String reason) {
+        long owingId = journal.finishOwing(id, committed, playerUuid, amount);
+        return economy.depositAsync(playerUuid, amount, reason)
+                .handle((ok, error) -> {
+                    if (Boolean.TRUE.equals(ok)) {
+                        journal.finish(owingId, true);
+                        return true;
+                    }
+                    LOGGER.error("[tx {}] Refund of {} to {} failed, kept for the next start: {}", id, amount,
+                            playerUuid, error != null ? error.getMessage() : "deposit rejected");
+                    return false;
+                });
+    }
+
+    static void restoreLevel(@Nonnull ReforgeDataStore store, @Nonnull UUID playerUuid,
+                             @Nonnull String itemId, int level) {
+        if (level > 0) store.setLevel(playerUuid, itemId, level);
+        else store.removeLevel(playerUuid, itemId);
+    }
+
+    private static String describe(@Nullable ItemStack stack) {
+        if (stack == null || stack.isEmpty()) return "empty";
+        return stack.getItemId() + "x" + stack.getQuantity();
+    }
+
+    private record Step(String label, Runnable undo) {}
+}
@@ -0,0 +1,259 @@
+package com.crystalrealm.ecotalereforging.service;
+
+import com.crystalrealm.ecotalereforging.util.PluginLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Answers ranking queries over weapon/armor stats ("top swords by damage",
+ * "armor between 20 and 40 defense", "90th percentile of Rare weapons").
+ *
+ * <p>All items are read once from {@link WeaponStatsService} and grouped by
+ * quality, item level and quality+level. Each group keeps its values in a
+ * sorted {@code double[]}, so top-N is a tail read and range/percentile
+ * queries are binary searches. The index is rebuilt lazily whenever the
+ * stats service reports invalidated entries.</p>
+ */
+public class StatsQueryService {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    /** Group key for "all items of this metric". */
+    private static final String ALL = "*";
+
+    /** Sortable stat. Weapon metrics only index weapons, armor metrics only armor. */
+    public enum Metric {
+        DAMAGE, MAX_DAMAGE, DEFENSE, HEALTH;
+
+        @Nullable
+        public static Metric parse(@Nullable String raw) {
+            if (raw == null) return null;
+            return switch (raw.toLowerCase(Locale.ROOT)) {
+                case "damage", "dmg", "avg" -> DAMAGE;
+                case "maxdamage", "max" -> MAX_DAMAGE;
+                case "defense", "def" -> DEFENSE;
+                case "health", "hp" -> HEALTH;
+                default -> null;
+            };
+        }
+    }
+
+    /** One ranked item. */
+    public record Entry(String itemId, String quality, int itemLevel, double value) {}
+
+    /** Result of a range query: total match count plus the matching entries (descending). */
+    public record RangeResult(int count, List<Entry> entries) {}
+
+    private final WeaponStatsService weaponStats;
+
+    private volatile Index index;
+
+    public StatsQueryService(@Nonnull WeaponStatsService weaponStats) {
+        this.weaponStats = weaponStats;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  QUERIES
+    // ════════════════════════════════════════════════════════
+
+    public boolean isAvailable() {
+        return weaponStats.isAvailable();
+    }
+
+    /**
+     * Highest {@code n} items of a metric, best first.
+     *
+     * @param quality   quality filter (case-insensitive) or {@code null}
+     * @param itemLevel item level filter or {@code null}
+     */
+    @Nonnull
+    public List<Entry> top(@Nonnull Metric metric, @Nullable String quality,
+                           @Nullable Integer itemLevel, int n) {
+        SortedGroup group = group(metric, quality, itemLevel);
+        if (group == null || n <= 0) return Collections.emptyList();
+        int size = group.size();
+        int count = Math.min(n, size);
+        List<Entry> result = new ArrayList<>(count);
+        for (int i = size - 1; i >= size - count; i--) result.add(group.entries[i]);
+        return result;
+    }
+
+    /**
+     * Items whose value lies within {@code [min, max]}, best first, capped at
+     * {@code limit} entries. The count covers all matches.
+     */
+    @Nonnull
+    public RangeResult range(@Nonnull Metric metric, @Nullable String quality,
+                             @Nullable Integer itemLevel, double min, double max, int limit) {
+        SortedGroup group = group(metric, quality, itemLevel);
+        if (group == null || min > max) return new RangeResult(0, Collections.emptyList());
+        int from = lowerBound(group.values, min);
+        int to   = upperBound(group.values, max);
+        int count = to - from;
+        int shown = Math.max(0, Math.min(limit, count));
+        List<Entry> result = new ArrayList<>(shown);
+        for (int i = to - 1; i >= to - shown; i--) result.add(group.entries[i]);
+        return new RangeResult(count, result);
+    }
+
+    /**
+     * Item at the given percentile (nearest-rank, 0–100), or {@code null}
+     * when the group is empty.
+     */
+    @Nullable
+    public Entry percentile(@Nonnull Metric metric, @Nullable String quality,
+                            @Nullable Integer itemLevel, double percentile) {
+        SortedGroup group = group(metric, quality, itemLevel);
+        if (group == null) return null;
+        double p = Math.max(0, Math.min(100, percentile));
+        int rank = (int) Math.ceil(p / 100.0 * group.size());
+        return group.entries[Math.max(0, rank - 1)];
+    }
+
+    /** Share of items (0–100) whose value is at or below {@code value}. */
+    public double percentileRank(@Nonnull Metric metric, @Nullable String quality,
+                                 @Nullable Integer itemLevel, double value) {
+        SortedGroup group = group(metric, quality, itemLevel);
+        if (group == null) return 0;
+        return upperBound(group.values, value) * 100.0 / group.size();
+    }
+
+    /** Number of indexed items for the metric/filter. */
+    public int count(@Nonnull Metric metric, @Nullable String quality, @Nullable Integer itemLevel) {
+        SortedGroup group = group(metric, quality, itemLevel);
+        return group == null ? 0 : group.size();
+    }
+
+    /** Drop the index; the next query rebuilds it. */
+    public void invalidate() {
+        index = null;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  INDEX
+    // ════════════════════════════════════════════════════════
+
+    @Nullable
+    private SortedGroup group(Metric metric, @Nullable String quality, @Nullable Integer itemLevel) {
+        return currentIndex().groups.get(metric).get(groupKey(quality, itemLevel));
+    }
+
+    private Index currentIndex() {
+        long generation = weaponStats.getStatsGeneration();
+        Index current = index;
+        if (current != null && current.generation == generation) return current;
+        synchronized (this) {
+            current = index;
+            if (current != null && current.generation == generation) return current;
+            current = build(generation);
+            index = current;
+            return current;
+        }
+    }
+
+    private Index build(long generation) {
+        long start = System.nanoTime();
+        Map<Metric, Map<String, List<Entry>>> buckets = new EnumMap<>(Metric.class);
+        for (Metric m : Metric.values()) buckets.put(m, new HashMap<>());
+
+        List<String> ids = weaponStats.getAllItemIds();
+        for (String id : ids) {
+            WeaponStatsService.WeaponStats ws = weaponStats.getWeaponStats(id);
+            if (ws != null && ws.hasDamageData()) {
+                add(buckets.get(Metric.DAMAGE), new Entry(id, ws.quality, ws.itemLevel, ws.avgDamage));
+                add(buckets.get(Metric.MAX_DAMAGE), new Entry(id, ws.quality, ws.itemLevel, ws.maxDamage));
+                continue;
+            }
+            WeaponStatsService.ArmorStats as = weaponStats.getArmorStats(id);
+            if (as != null) {
+                if (as.defense > 0) add(buckets.get(Metric.DEFENSE), new Entry(id, as.quality, as.itemLevel, as.defense));
+                if (as.health > 0)  add(buckets.get(Metric.HEALTH), new Entry(id, as.quality, as.itemLevel, as.health));
+            }
+        }
+
+        Map<Metric, Map<String, SortedGroup>> groups = new EnumMap<>(Metric.class);
+        for (var metricEntry : buckets.entrySet()) {
+            Map<String, SortedGroup> sorted = new HashMap<>(metricEntry.getValue().size() * 2);
+            for (var bucket : metricEntry.getValue().entrySet()) {
+                sorted.put(bucket.getKey(), SortedGroup.of(bucket.getValue()));
+            }
+            groups.put(metricEntry.getKey(), sorted);
+        }
+
+        LOGGER.info("Stats index built: {} items scanned, {} weapons, {} armor pieces in {}ms",
+                ids.size(),
+                buckets.get(Metric.DAMAGE).getOrDefault(ALL, List.of()).size(),
+                Math.max(buckets.get(Metric.DEFENSE).getOrDefault(ALL, List.of()).size(),
+                        buckets.get(Metric.HEALTH).getOrDefault(ALL, List.of()).size()),
+                (System.nanoTime() - start) / 1_000_000);
+        return new Index(generation, groups);
+    }
+
+    /** Files an entry under every group it belongs to. */
+    private static void add(Map<String, List<Entry>> groups, Entry e) {
+        groups.computeIfAbsent(ALL, k -> new ArrayList<>()).add(e);
+        groups.computeIfAbsent(groupKey(null, e.itemLevel()), k -> new ArrayList<>()).add(e);
+        if (e.quality() != null) {
+            groups.computeIfAbsent(groupKey(e.quality(), null), k -> new ArrayList<>()).add(e);
+            groups.computeIfAbsent(groupKey(e.quality(), e.itemLevel()), k -> new ArrayList<>()).add(e);
+        }
+    }
+
+    private static String groupKey(@Nullable String quality, @Nullable Integer itemLevel) {
+        if (quality == null && itemLevel == null) return ALL;
+        String q = quality != null ? quality.toLowerCase(Locale.ROOT) : "";
+        return itemLevel != null ? q + "|" + itemLevel : q + "|";
+    }
+
+    /** First index with {@code values[i] >= key}. */
+    private static int lowerBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First index with {@code values[i] > key}. */
+    private static int upperBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private record Index(long generation, Map<Metric, Map<String, SortedGroup>> groups) {}
+
+    /** Entries sorted ascending by value, with the values unboxed alongside for searching. */
+    private static final class SortedGroup {
+        final Entry[]  entries;
+        final double[] values;
+
+        private SortedGroup(Entry[] entries, double[] values) {
+            this.entries = entries;
+            this.values  = values;
+        }
+
+        static SortedGroup of(List<Entry> list) {
+            Entry[] entries = list.toArray(new Entry[0]);
+            Arrays.sort(entries, (a, b) -> Double.compare(a.value(), b.value()));
+            double[] values = new double[entries.length];
+            for (int i = 0; i < entries.length; i++) values[i] = entries[i].value();
+            return new SortedGroup(entries, values);
+        }
+
+        int size() { return entries.length; }
+    }
+}
@@ -1,9 +1,12 @@
 package com.crystalrealm.ecotalereforging.service;
 
 import com.crystalrealm.ecotalereforging.util.PluginLogger;
+import com.hypixel.hytale.event.EventRegistry;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -11,7 +14,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Reads weapon/armor stats directly from Hytale's internal Item asset store
@@ -21,37 +27,61 @@ import java.util.concurrent.ConcurrentHashMap;
  * contained RootInteraction assets. This service discovers the RootInteraction
  * class from the Item's {@code data.containedRawAssets} map, then queries
  * the RootInteraction AssetStore for actual damage values.</p>
+ *
+ * <p>Reflection lookups happen once: the resolved methods and fields are
+ * turned into erased {@link MethodHandle}s and invoked with
+ * {@code invokeExact}. The asset map instances are cached until
+ * {@link #clearCache()} (or an asset reload) invalidates them.</p>
+ *
+ * <p>When the server hot-reloads assets, {@link #registerAssetListeners}
+ * drops only the affected items. Changed RootInteractions are mapped back
+ * to the weapons that reference them through a reverse dependency index.</p>
  */
 public class WeaponStatsService {
 
     private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
-
-    // ── Item reflection handles ─────────────────────────────
-    private Method itemGetAssetStore;
-    private Method assetStoreGetMap;
-    private Method assetMapGetAsset;
-    private Method itemGetWeapon;
-    private Field  weaponRawStatMods;
-    private Field  modifierAmount;
-    private Field  itemQualityId;
-    private Field  itemLevelField;
-    private Field  interactionVarsField;
-    private Field  maxDurabilityField;
-    private Method assetMapGetAssetMap;
-
-    // ── RootInteraction reflection handles ───────────────────
-    private Class<?> rootInteractionClass;
-    private Method   riGetAssetStore;
-    private Method   riAssetStoreGetMap;
-    private Method   riAssetMapGetAsset;
-    private Method   riAssetMapGetAssetMap;
-    private boolean  riAvailable = false;
-
-    // ── Armor reflection handles ────────────────────────────
-    private Method itemGetArmor;
-    private Field  armorRawStatMods;
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String[] LOADED_EVENT_CLASSES = {
+            "com.hypixel.hytale.assetstore.event.LoadedAssetsEvent",
+            "com.hypixel.hytale.server.core.asset.event.LoadedAssetsEvent",
+    };
+    private static final String[] REMOVED_EVENT_CLASSES = {
+            "com.hypixel.hytale.assetstore.event.RemovedAssetsEvent",
+            "com.hypixel.hytale.server.core.asset.event.RemovedAssetsEvent",
+    };
+
+    // ── Item handles ────────────────────────────────────────
+    private Class<?>     itemClass;
+    private MethodHandle itemGetAssetStore;      // ()Object
+    private MethodHandle assetStoreGetMap;       // (Object)Object
+    private MethodHandle assetMapGetAsset;       // (Object,Object)Object
+    private MethodHandle assetMapGetAssetMap;    // (Object)Object
+    private MethodHandle itemGetWeapon;          // (Object)Object
+    private MethodHandle weaponRawStatMods;      // (Object)Object
+    private MethodHandle modifierAmount;         // (Object)float
+    private MethodHandle itemQualityId;          // (Object)Object
+    private MethodHandle itemLevelField;         // (Object)int
+    private MethodHandle interactionVarsField;   // (Object)Object
+    private MethodHandle maxDurabilityField;     // (Object)double
+
+    // ── RootInteraction handles ──────────────────────────────
+    private Class<?>     rootInteractionClass;
+    private MethodHandle riGetAssetStore;        // ()Object
+    private MethodHandle riAssetStoreGetMap;     // (Object)Object
+    private MethodHandle riAssetMapGetAsset;     // (Object,Object)Object
+    private MethodHandle riAssetMapGetAssetMap;  // (Object)Object
+    private volatile boolean riAvailable = false;
+
+    // ── Armor handles ───────────────────────────────────────
+    private MethodHandle itemGetArmor;           // (Object)Object
+    private MethodHandle armorRawStatMods;       // (Object)Object
     private boolean armorAvailable = false;
 
+    // ── Cached asset maps (dropped on invalidation) ─────────
+    private volatile Object itemAssetMap;
+    private volatile Object riAssetMap;
+
     private boolean initialized = false;
     private boolean available = false;
     private int dumpCount = 0;
@@ -59,6 +89,11 @@ public class WeaponStatsService {
     private final Map<String, WeaponStats> cache = new ConcurrentHashMap<>();
     private final Map<String, ArmorStats> armorCache = new ConcurrentHashMap<>();
 
+    /** Interaction ref (without '*') → bare names of weapons whose stats used it. */
+    private final Map<String, Set<String>> interactionDependents = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation; loads started before a bump are not cached. */
+    private final AtomicLong statsGeneration = new AtomicLong();
+
     // ════════════════════════════════════════════════════════
     //  INIT
     // ════════════════════════════════════════════════════════
@@ -68,33 +103,34 @@ public class WeaponStatsService {
         initialized = true;
 
         try {
-            Class<?> itemClass = Class.forName(
+            itemClass = Class.forName(
                     "com.hypixel.hytale.server.core.asset.type.item.config.Item");
-            itemGetAssetStore = itemClass.getMethod("getAssetStore");
-
-            Class<?> assetStoreClass = itemGetAssetStore.getReturnType();
-            assetStoreGetMap = assetStoreClass.getMethod("getAssetMap");
-
-            Class<?> assetMapClass = assetStoreGetMap.getReturnType();
-            assetMapGetAsset = assetMapClass.getMethod("getAsset", Object.class);
-            assetMapGetAssetMap = assetMapClass.getMethod("getAssetMap");
+            Method getAssetStore = itemClass.getMethod("getAssetStore");
+            Method getMap = getAssetStore.getReturnType().getMethod("getAssetMap");
+            Class<?> assetMapClass = getMap.getReturnType();
 
-            itemGetWeapon = itemClass.getMethod("getWeapon");
+            itemGetAssetStore   = erase(LOOKUP.unreflect(getAssetStore), Object.class);
+            assetStoreGetMap    = erase(LOOKUP.unreflect(getMap), Object.class);
+            assetMapGetAsset    = erase(LOOKUP.unreflect(assetMapClass.getMethod("getAsset", Object.class)), Object.class);
+            assetMapGetAssetMap = erase(LOOKUP.unreflect(assetMapClass.getMethod("getAssetMap")), Object.class);
+            itemGetWeapon       = erase(LOOKUP.unreflect(itemClass.getMethod("getWeapon")), Object.class);
 
-            itemQualityId        = getDeclaredFieldSafe(itemClass, "qualityId");
-            itemLevelField       = getDeclaredFieldSafe(itemClass, "itemLevel");
-            interactionVarsField = getDeclaredFieldSafe(itemClass, "interactionVars");
-            maxDurabilityField   = getDeclaredFieldSafe(itemClass, "maxDurability");
+            itemQualityId        = getter(getDeclaredFieldSafe(itemClass, "qualityId"), Object.class);
+            itemLevelField       = getter(getDeclaredFieldSafe(itemClass, "itemLevel"), int.class);
+            interactionVarsField = getter(getDeclaredFieldSafe(itemClass, "interactionVars"), Object.class);
+            maxDurabilityField   = getter(getDeclaredFieldSafe(itemClass, "maxDurability"), double.class);
 
             Class<?> weaponClass = Class.forName(
                     "com.hypixel.hytale.server.core.asset.type.item.config.ItemWeapon");
-            weaponRawStatMods = weaponClass.getDeclaredField("rawStatModifiers");
-            weaponRawStatMods.setAccessible(true);
+            Field rawStatMods = weaponClass.getDeclaredField("rawStatModifiers");
+            rawStatMods.setAccessible(true);
+            weaponRawStatMods = getter(rawStatMods, Object.class);
 
             Class<?> modClass = Class.forName(
                     "com.hypixel.hytale.server.core.modules.entitystats.modifier.StaticModifier");
-            modifierAmount = modClass.getDeclaredField("amount");
-            modifierAmount.setAccessible(true);
+            Field amount = modClass.getDeclaredField("amount");
+            amount.setAccessible(true);
+            modifierAmount = getter(amount, float.class);
 
             available = true;
             LOGGER.info("WeaponStatsService initialised — fields: level={}, vars={}, quality={}, durability={}",
@@ -111,12 +147,14 @@ public class WeaponStatsService {
 
     private void initArmorReflection(Class<?> itemClass) {
         try {
-            itemGetArmor = itemClass.getMethod("getArmor");
-            Class<?> armorClass = itemGetArmor.getReturnType();
+            Method getArmor = itemClass.getMethod("getArmor");
+            Class<?> armorClass = getArmor.getReturnType();
             for (String fname : new String[]{"rawStatModifiers", "statModifiers"}) {
                 try {
-                    armorRawStatMods = armorClass.getDeclaredField(fname);
-                    armorRawStatMods.setAccessible(true);
+                    Field field = armorClass.getDeclaredField(fname);
+                    field.setAccessible(true);
+                    armorRawStatMods = getter(field, Object.class);
+                    itemGetArmor = erase(LOOKUP.unreflect(getArmor), Object.class);
                     armorAvailable = true;
                     LOGGER.info("Armor stats reflection initialised (field: {})", fname);
                     return;
@@ -127,6 +165,25 @@ public class WeaponStatsService {
         }
     }
 
+    /**
+     * Adapts a handle to an all-{@code Object} parameter list with the given
+     * return type, so call sites can use {@code invokeExact} without knowing
+     * the concrete Hytale classes.
+     */
+    private static MethodHandle erase(MethodHandle mh, Class<?> returnType) {
+        return MethodHandles.explicitCastArguments(mh, mh.type().generic().changeReturnType(returnType));
+    }
+
+    /**
+     * Getter handle for an already accessible field. {@code VarHandle}s are not
+     * used here because they ignore {@code setAccessible} and would reject
+     * Hytale's private fields.
+     */
+    @Nullable
+    private static MethodHandle getter(@Nullable Field field, Class<?> returnType) throws IllegalAccessException {
+        return field != null ? erase(LOOKUP.unreflectGetter(field), returnType) : null;
+    }
+
     /**
      * Discover the RootInteraction class by scanning an Item's data.containedRawAssets map.
      * The keys of that map are Class objects — one of them is RootInteraction.
@@ -134,15 +191,12 @@ public class WeaponStatsService {
     private void discoverRootInteraction() {
         if (riAvailable) return;
         try {
-            Object store = itemGetAssetStore.invoke(null);
-            Object map   = assetStoreGetMap.invoke(store);
-            @SuppressWarnings("unchecked")
-            Map<String, ?> allItems = (Map<String, ?>) assetMapGetAssetMap.invoke(map);
+            Map<String, ?> allItems = allItems();
 
             // Find any weapon item to scan its contained assets
             for (var entry : allItems.entrySet()) {
                 Object item = entry.getValue();
-                Object weapon = itemGetWeapon.invoke(item);
+                Object weapon = (Object) itemGetWeapon.invokeExact(item);
                 if (weapon == null) continue;
 
                 // Navigate to Item.data field
@@ -191,22 +245,21 @@ public class WeaponStatsService {
             }
 
             // Get AssetStore methods on RootInteraction
-            riGetAssetStore = rootInteractionClass.getMethod("getAssetStore");
-            Class<?> riStoreClass = riGetAssetStore.getReturnType();
-            riAssetStoreGetMap = riStoreClass.getMethod("getAssetMap");
-            Class<?> riMapClass = riAssetStoreGetMap.getReturnType();
-            riAssetMapGetAsset = riMapClass.getMethod("getAsset", Object.class);
-            riAssetMapGetAssetMap = riMapClass.getMethod("getAssetMap");
+            Method getStore = rootInteractionClass.getMethod("getAssetStore");
+            Method getMap = getStore.getReturnType().getMethod("getAssetMap");
+            Class<?> riMapClass = getMap.getReturnType();
+            riGetAssetStore       = erase(LOOKUP.unreflect(getStore), Object.class);
+            riAssetStoreGetMap    = erase(LOOKUP.unreflect(getMap), Object.class);
+            riAssetMapGetAsset    = erase(LOOKUP.unreflect(riMapClass.getMethod("getAsset", Object.class)), Object.class);
+            riAssetMapGetAssetMap = erase(LOOKUP.unreflect(riMapClass.getMethod("getAssetMap")), Object.class);
 
             // Count total interactions
-            Object riStore = riGetAssetStore.invoke(null);
-            Object riMap   = riAssetStoreGetMap.invoke(riStore);
             @SuppressWarnings("unchecked")
-            Map<String, ?> allRI = (Map<String, ?>) riAssetMapGetAssetMap.invoke(riMap);
+            Map<String, ?> allRI = (Map<String, ?>) (Object) riAssetMapGetAssetMap.invokeExact(riAssetMap());
             LOGGER.info("[WS] RootInteraction AssetStore: {} total entries", allRI.size());
 
             riAvailable = true;
-        } catch (Exception e) {
+        } catch (Throwable e) {
             LOGGER.warn("[WS] Failed to discover RootInteraction: {}", e.getMessage());
         }
     }
@@ -227,17 +280,15 @@ public class WeaponStatsService {
 
     private void logWeaponCount() {
         try {
-            Object store = itemGetAssetStore.invoke(null);
-            Object map   = assetStoreGetMap.invoke(store);
-            @SuppressWarnings("unchecked")
-            Map<String, ?> all = (Map<String, ?>) assetMapGetAssetMap.invoke(map);
+            Map<String, ?> all = allItems();
             int weapons = 0;
             for (var entry : all.entrySet()) {
-                Object weapon = itemGetWeapon.invoke(entry.getValue());
+                Object item = entry.getValue();
+                Object weapon = (Object) itemGetWeapon.invokeExact(item);
                 if (weapon != null) weapons++;
             }
             LOGGER.info("[WS] Item AssetStore: {} total items, {} weapons", all.size(), weapons);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             LOGGER.warn("[WS] Failed to count weapons: {}", e.getMessage());
         }
     }
@@ -261,14 +312,18 @@ public class WeaponStatsService {
         WeaponStats cached = cache.get(name);
         if (cached != null) return cached;
 
+        long generation = statsGeneration.get();
         WeaponStats stats = loadWeaponStats(name);
-        if (stats != null) cache.put(name, stats);
+        if (stats != null && generation == statsGeneration.get()) cache.put(name, stats);
         return stats;
     }
 
     public void clearCache() {
+        statsGeneration.incrementAndGet();
         cache.clear();
         armorCache.clear();
+        interactionDependents.clear();
+        invalidateAssetMaps();
         LOGGER.info("[WS] Cache cleared");
     }
 
@@ -279,15 +334,213 @@ public class WeaponStatsService {
         ArmorStats cached = armorCache.get(name);
         if (cached != null) return cached;
 
+        long generation = statsGeneration.get();
         ArmorStats stats = loadArmorStats(name);
-        if (stats != null) armorCache.put(name, stats);
+        if (stats != null && generation == statsGeneration.get()) armorCache.put(name, stats);
         return stats;
     }
 
+    /**
+     * Bare names of every item currently in the Item asset store.
+     * Returns an empty list when the store is not reachable.
+     */
+    @Nonnull
+    public java.util.List<String> getAllItemIds() {
+        if (!available) return Collections.emptyList();
+        try {
+            Map<String, ?> all = allItems();
+            java.util.List<String> ids = new java.util.ArrayList<>(all.size());
+            for (String key : all.keySet()) ids.add(stripNamespace(key));
+            return ids;
+        } catch (Throwable e) {
+            LOGGER.warn("[WS] Failed to list items: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /** Changes whenever cached stats are invalidated; lets derived indexes detect staleness. */
+    public long getStatsGeneration() {
+        return statsGeneration.get();
+    }
+
     private static String stripNamespace(String itemId) {
         return itemId.contains(":") ? itemId.substring(itemId.indexOf(':') + 1) : itemId;
     }
 
+    // ════════════════════════════════════════════════════════
+    //  ASSET MAP ACCESS
+    // ════════════════════════════════════════════════════════
+
+    /** Forget the cached asset map instances; they are re-fetched on next use. */
+    private void invalidateAssetMaps() {
+        itemAssetMap = null;
+        riAssetMap = null;
+    }
+
+    private Object itemAssetMap() throws Throwable {
+        Object map = itemAssetMap;
+        if (map == null) {
+            Object store = (Object) itemGetAssetStore.invokeExact();
+            map = (Object) assetStoreGetMap.invokeExact(store);
+            itemAssetMap = map;
+        }
+        return map;
+    }
+
+    private Object riAssetMap() throws Throwable {
+        Object map = riAssetMap;
+        if (map == null) {
+            Object store = (Object) riGetAssetStore.invokeExact();
+            map = (Object) riAssetStoreGetMap.invokeExact(store);
+            riAssetMap = map;
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> allItems() throws Throwable {
+        return (Map<String, ?>) (Object) assetMapGetAssetMap.invokeExact(itemAssetMap());
+    }
+
+    /** Looks up an Item asset by bare name, retrying with the default namespace. */
+    @Nullable
+    private Object findItem(String name) throws Throwable {
+        Object map  = itemAssetMap();
+        Object item = (Object) assetMapGetAsset.invokeExact(map, (Object) name);
+        if (item == null) item = (Object) assetMapGetAsset.invokeExact(map, (Object) ("hytale:" + name));
+        return item;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  ASSET RELOAD TRACKING
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Subscribe to the asset store's loaded/removed events so hot-reloaded
+     * items are re-read on next access. Event classes are resolved by
+     * reflection; when none are found, caches are only reset by
+     * {@link #clearCache()}.
+     */
+    public void registerAssetListeners(@Nonnull EventRegistry eventRegistry) {
+        if (!available) return;
+        ClassLoader serverLoader = eventRegistry.getClass().getClassLoader();
+        int registered = 0;
+        if (registerAssetEvent(eventRegistry, serverLoader, LOADED_EVENT_CLASSES)) registered++;
+        if (registerAssetEvent(eventRegistry, serverLoader, REMOVED_EVENT_CLASSES)) registered++;
+        if (registered == 0) {
+            LOGGER.info("[WS] Asset reload events not found — stats cache refreshes manually only.");
+        }
+    }
+
+    private boolean registerAssetEvent(EventRegistry eventRegistry, ClassLoader serverLoader,
+                                       String[] candidates) {
+        for (String className : candidates) {
+            try {
+                Class<?> eventClass = Class.forName(className, true, serverLoader);
+                Method registerMethod = eventRegistry.getClass()
+                        .getMethod("registerGlobal", Class.class, Consumer.class);
+
+                Consumer<Object> handler = event -> {
+                    try {
+                        onAssetsChanged(event);
+                    } catch (Exception e) {
+                        LOGGER.debug("[WS] Asset event handling failed: {}", e.getMessage());
+                    }
+                };
+
+                registerMethod.invoke(eventRegistry, eventClass, handler);
+                LOGGER.info("[WS] Listening for asset reloads via {}", className);
+                return true;
+            } catch (ClassNotFoundException ignored) {
+            } catch (Exception e) {
+                LOGGER.debug("[WS] Could not register {}: {}", className, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /** Route a loaded/removed event to item or interaction invalidation. */
+    private void onAssetsChanged(@Nonnull Object event) {
+        Class<?> assetClass = readAssetClass(event);
+        boolean isItem = assetClass == null || (itemClass != null && itemClass.isAssignableFrom(assetClass));
+        boolean isInteraction = assetClass == null || (rootInteractionClass != null
+                && rootInteractionClass.isAssignableFrom(assetClass));
+        if (!isItem && !isInteraction) return;
+
+        Collection<?> keys = readAffectedKeys(event);
+        if (keys == null) {
+            clearCache();
+            return;
+        }
+        if (keys.isEmpty()) return;
+
+        statsGeneration.incrementAndGet();
+        int dropped = 0;
+        if (isItem) {
+            itemAssetMap = null;
+            dropped += invalidateItems(keys);
+        }
+        if (isInteraction) {
+            riAssetMap = null;
+            dropped += invalidateInteractions(keys);
+        }
+        LOGGER.debug("[WS] Asset event {}: {} keys, {} cached stats dropped",
+                event.getClass().getSimpleName(), keys.size(), dropped);
+    }
+
+    private int invalidateItems(Collection<?> keys) {
+        int dropped = 0;
+        for (Object key : keys) {
+            String name = stripNamespace(String.valueOf(key));
+            if (cache.remove(name) != null) dropped++;
+            if (armorCache.remove(name) != null) dropped++;
+        }
+        return dropped;
+    }
+
+    private int invalidateInteractions(Collection<?> keys) {
+        int dropped = 0;
+        for (Object key : keys) {
+            Set<String> dependents = interactionDependents.remove(interactionKey(String.valueOf(key)));
+            if (dependents == null) continue;
+            for (String name : dependents) {
+                if (cache.remove(name) != null) dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /** Asset type carried by the event, or {@code null} if it cannot be determined. */
+    @Nullable
+    private static Class<?> readAssetClass(Object event) {
+        for (String m : new String[]{"getTClass", "getAssetClass", "getType"}) {
+            try {
+                Object result = event.getClass().getMethod(m).invoke(event);
+                if (result instanceof Class<?> c) return c;
+            } catch (NoSuchMethodException ignored) {
+            } catch (Exception e) { break; }
+        }
+        return null;
+    }
+
+    /** Keys of the loaded/removed assets, or {@code null} if they cannot be read. */
+    @Nullable
+    private static Collection<?> readAffectedKeys(Object event) {
+        for (String m : new String[]{"getLoadedAssets", "getRemovedAssets", "getAssets", "getKeys"}) {
+            try {
+                Object result = event.getClass().getMethod(m).invoke(event);
+                if (result instanceof Map<?, ?> map) return map.keySet();
+                if (result instanceof Collection<?> c) return c;
+            } catch (NoSuchMethodException ignored) {
+            } catch (Exception e) { break; }
+        }
+        return null;
+    }
+
+    private static String interactionKey(String ref) {
+        return ref.startsWith("*") ? ref.substring(1) : ref;
+    }
+
     // ════════════════════════════════════════════════════════
     //  WEAPON LOADING
     // ════════════════════════════════════════════════════════
@@ -295,13 +548,10 @@ public class WeaponStatsService {
     @Nullable
     private WeaponStats loadWeaponStats(String name) {
         try {
-            Object store = itemGetAssetStore.invoke(null);
-            Object map   = assetStoreGetMap.invoke(store);
-            Object item  = assetMapGetAsset.invoke(map, name);
-            if (item == null) item = assetMapGetAsset.invoke(map, "hytale:" + name);
+            Object item = findItem(name);
             if (item == null) return null;
 
-            Object weapon = itemGetWeapon.invoke(item);
+            Object weapon = (Object) itemGetWeapon.invokeExact(item);
             if (weapon == null) return null;
 
             // ── Item-level properties ──
@@ -317,7 +567,7 @@ public class WeaponStatsService {
             if (interactionVarsField != null) {
                 try {
                     @SuppressWarnings("unchecked")
-                    Map<String, ?> vars = (Map<String, ?>) interactionVarsField.get(item);
+                    Map<String, ?> vars = (Map<String, ?>) (Object) interactionVarsField.invokeExact(item);
                     if (vars != null) {
                         for (var vEntry : vars.entrySet()) {
                             String varKey = vEntry.getKey();
@@ -327,6 +577,9 @@ public class WeaponStatsService {
                             // Try to look up RootInteraction and extract damage
                             if (riAvailable && vEntry.getValue() instanceof String) {
                                 String ref = (String) vEntry.getValue();
+                                interactionDependents
+                                        .computeIfAbsent(interactionKey(ref), k -> ConcurrentHashMap.newKeySet())
+                                        .add(name);
                                 double dmg = lookupInteractionDamage(ref, varKey);
                                 if (dmg > 0) {
                                     attackDamages.put(varKey, dmg);
@@ -336,7 +589,7 @@ public class WeaponStatsService {
                             }
                         }
                     }
-                } catch (Exception e) {
+                } catch (Throwable e) {
                     LOGGER.debug("[WS] Failed to read interactionVars for '{}': {}", name, e.getMessage());
                 }
             }
@@ -349,7 +602,7 @@ public class WeaponStatsService {
             try {
                 @SuppressWarnings("unchecked")
                 Map<String, Object[]> rawMods =
-                        (Map<String, Object[]>) weaponRawStatMods.get(weapon);
+                        (Map<String, Object[]>) (Object) weaponRawStatMods.invokeExact(weapon);
                 if (rawMods != null) {
                     for (var entry : rawMods.entrySet()) {
                         String statName = entry.getKey();
@@ -357,7 +610,7 @@ public class WeaponStatsService {
                         if (mods == null || mods.length == 0) continue;
 
                         double total = 0;
-                        for (Object mod : mods) total += modifierAmount.getFloat(mod);
+                        for (Object mod : mods) total += (float) modifierAmount.invokeExact(mod);
 
                         if (statName.toLowerCase().contains("signature")) {
                             signatureEnergy = total;
@@ -365,24 +618,26 @@ public class WeaponStatsService {
                         passiveStats.put(statName, total);
                     }
                 }
-            } catch (Exception e) {
+            } catch (Throwable e) {
                 LOGGER.debug("[WS] rawStatModifiers read failed for '{}': {}", name, e.getMessage());
             }
 
-            LOGGER.info("[WS] Loaded '{}': level={}, quality={}, dur={}, attacks={}/{}, " +
-                            "avg={}, max={}, SE={}, damages={}",
-                    name, itemLevel, quality,
-                    String.format("%.0f", maxDurability),
-                    attackDamages.size(), attackCount,
-                    String.format("%.1f", avgDamage),
-                    String.format("%.1f", maxDamage),
-                    String.format("%.1f", signatureEnergy),
-                    attackDamages);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("[WS] Loaded '{}': level={}, quality={}, dur={}, attacks={}/{}, " +
+                                "avg={}, max={}, SE={}, damages={}",
+                        name, itemLevel, quality,
+                        String.format("%.0f", maxDurability),
+                        attackDamages.size(), attackCount,
+                        String.format("%.1f", avgDamage),
+                        String.format("%.1f", maxDamage),
+                        String.format("%.1f", signatureEnergy),
+                        attackDamages);
+            }
 
             return new WeaponStats(quality, itemLevel, maxDurability,
                     signatureEnergy, maxDamage, avgDamage,
                     attackCount, attackDamages, passiveStats);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             LOGGER.warn("[WS] Failed to load weapon stats for '{}': {}", name, e.getMessage());
             return null;
         }
@@ -402,15 +657,14 @@ public class WeaponStatsService {
      */
     private double lookupInteractionDamage(String ref, String varKey) {
         try {
-            Object riStore = riGetAssetStore.invoke(null);
-            Object riMap   = riAssetStoreGetMap.invoke(riStore);
+            Object riMap = riAssetMap();
 
             // Try with original ref (which starts with *)
-            Object ri = riAssetMapGetAsset.invoke(riMap, ref);
+            Object ri = (Object) riAssetMapGetAsset.invokeExact(riMap, (Object) ref);
             if (ri == null) {
                 // Try without * prefix
                 String noStar = ref.startsWith("*") ? ref.substring(1) : ref;
-                ri = riAssetMapGetAsset.invoke(riMap, noStar);
+                ri = (Object) riAssetMapGetAsset.invokeExact(riMap, (Object) noStar);
             }
 
             if (ri == null) {
@@ -426,7 +680,7 @@ public class WeaponStatsService {
 
             // Try to extract damage from the RootInteraction hierarchy
             return extractDamageValue(ri);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             LOGGER.debug("[WS-RI] Failed to lookup '{}': {}", varKey, e.getMessage());
             return 0;
         }
@@ -795,20 +1049,18 @@ public class WeaponStatsService {
     @Nullable
     private ArmorStats loadArmorStats(String name) {
         try {
-            Object store = itemGetAssetStore.invoke(null);
-            Object map   = assetStoreGetMap.invoke(store);
-            Object item  = assetMapGetAsset.invoke(map, name);
-            if (item == null) item = assetMapGetAsset.invoke(map, "hytale:" + name);
+            Object item = findItem(name);
             if (item == null) return null;
 
-            Object armor = itemGetArmor.invoke(item);
+            Object armor = (Object) itemGetArmor.invokeExact(item);
             if (armor == null) return null;
 
             String quality = readStringField(item, itemQualityId);
+            int itemLevel  = readIntField(item, itemLevelField, 0);
 
             @SuppressWarnings("unchecked")
             Map<String, Object[]> rawMods =
-                    (Map<String, Object[]>) armorRawStatMods.get(armor);
+                    (Map<String, Object[]>) (Object) armorRawStatMods.invokeExact(armor);
 
             Map<String, Double> stats = new LinkedHashMap<>();
             double health = 0, defense = 0;
@@ -820,7 +1072,7 @@ public class WeaponStatsService {
                     if (mods == null || mods.length == 0) continue;
 
                     double total = 0;
-                    for (Object mod : mods) total += modifierAmount.getFloat(mod);
+                    for (Object mod : mods) total += (float) modifierAmount.invokeExact(mod);
 
                     stats.put(statName, total);
 
@@ -835,12 +1087,14 @@ public class WeaponStatsService {
                 }
             }
 
-            LOGGER.info("[WS] Loaded armor '{}': HP={}, DEF={}, quality={}, stats={}",
-                    name, String.format("%.1f", health), String.format("%.1f", defense),
-                    quality, stats.keySet());
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("[WS] Loaded armor '{}': HP={}, DEF={}, quality={}, stats={}",
+                        name, String.format("%.1f", health), String.format("%.1f", defense),
+                        quality, stats.keySet());
+            }
 
-            return new ArmorStats(health, defense, quality, stats);
-        } catch (Exception e) {
+            return new ArmorStats(health, defense, quality, itemLevel, stats);
+        } catch (Throwable e) {
             LOGGER.warn("[WS] Failed to load armor stats for '{}': {}", name, e.getMessage());
             return null;
         }
@@ -851,19 +1105,19 @@ public class WeaponStatsService {
     // ════════════════════════════════════════════════════════
 
     @Nullable
-    private static String readStringField(Object obj, @Nullable Field field) {
-        if (field == null) return null;
-        try { return (String) field.get(obj); } catch (Exception e) { return null; }
+    private static String readStringField(Object obj, @Nullable MethodHandle getter) {
+        if (getter == null) return null;
+        try { return (String) (Object) getter.invokeExact(obj); } catch (Throwable e) { return null; }
     }
 
-    private static int readIntField(Object obj, @Nullable Field field, int fallback) {
-        if (field == null) return fallback;
-        try { return field.getInt(obj); } catch (Exception e) { return fallback; }
+    private static int readIntField(Object obj, @Nullable MethodHandle getter, int fallback) {
+        if (getter == null) return fallback;
+        try { return (int) getter.invokeExact(obj); } catch (Throwable e) { return fallback; }
     }
 
-    private static double readDoubleField(Object obj, @Nullable Field field, double fallback) {
-        if (field == null) return fallback;
-        try { return field.getDouble(obj); } catch (Exception e) { return fallback; }
+    private static double readDoubleField(Object obj, @Nullable MethodHandle getter, double fallback) {
+        if (getter == null) return fallback;
+        try { return (double) getter.invokeExact(obj); } catch (Throwable e) { return fallback; }
     }
 
     // ════════════════════════════════════════════════════════
@@ -1051,13 +1305,15 @@ public class WeaponStatsService {
         public final double health;
         public final double defense;
         public final String quality;
+        public final int    itemLevel;
         public final Map<String, Double> statModifiers;
 
-        public ArmorStats(double health, double defense, String quality,
+        public ArmorStats(double health, double defense, String quality, int itemLevel,
                           Map<String, Double> statModifiers) {
             this.health        = health;
             this.defense       = defense;
             this.quality       = quality;
+            this.itemLevel     = itemLevel;
             this.statModifiers = statModifiers != null
                     ? Collections.unmodifiableMap(statModifiers)
                     : Collections.emptyMap();
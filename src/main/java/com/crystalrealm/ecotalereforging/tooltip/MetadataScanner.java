@@ -0,0 +1,389 @@
+package com.crystalrealm.ecotalereforging.tooltip;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Single-pass reader for item metadata JSON.
+ *
+ * <p>Walks the document once and picks up the two values tooltips need:
+ * the first {@code reforge_level} (at any depth) and the first
+ * {@code Enchantments} object. Numbers may be plain ({@code 3}), quoted
+ * ({@code "3"}) or extended JSON ({@code {"$numberInt": "3"}}). Keys may be
+ * unquoted, as older metadata sometimes was.</p>
+ *
+ * <p>Scanners are reused per thread and record enchantment ids as offsets
+ * into the source string, so a scan allocates nothing. Ids are only
+ * materialised by {@link #enchantmentId(int)}. Malformed input never throws;
+ * the scan stops and whatever was read so far is kept.</p>
+ */
+final class MetadataScanner {
+
+    private static final String REFORGE_LEVEL_KEY = "reforge_level";
+    private static final String ENCHANTMENTS_KEY  = "Enchantments";
+    private static final String NUMBER_KEY_PREFIX = "$number";
+    private static final int    MAX_DEPTH = 32;
+
+    private static final ThreadLocal<MetadataScanner> LOCAL =
+            ThreadLocal.withInitial(MetadataScanner::new);
+
+    private String src = "";
+    private int pos;
+    private int len;
+
+    // Last string/key token: [tokStart, tokEnd) excluding quotes
+    private int tokStart;
+    private int tokEnd;
+    private boolean tokEscaped;
+
+    private int reforgeLevel;
+    private boolean levelSeen;
+    private boolean enchantmentsSeen;
+
+    private int[] enchStart = new int[8];
+    private int[] enchEnd   = new int[8];
+    private int[] enchLevel = new int[8];
+    private boolean[] enchEscaped = new boolean[8];
+    private int enchCount;
+
+    private MetadataScanner() {}
+
+    /**
+     * Scan {@code metadata} with this thread's scanner. The returned instance
+     * is only valid until the next {@code scan} call on the same thread.
+     */
+    @Nonnull
+    static MetadataScanner scan(@Nullable String metadata) {
+        MetadataScanner scanner = LOCAL.get();
+        scanner.reset(metadata);
+        if (scanner.len > 0) {
+            try {
+                scanner.skipWhitespace();
+                scanner.walkValue(0);
+            } catch (RuntimeException ignored) {
+                // Defensive: keep whatever was parsed before the bad input
+            }
+        }
+        return scanner;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  RESULTS
+    // ════════════════════════════════════════════════════════
+
+    /** Value of the first {@code reforge_level} key, or 0. */
+    int reforgeLevel() { return reforgeLevel; }
+
+    /** Number of enchantments with a level above zero. */
+    int enchantmentCount() { return enchCount; }
+
+    int enchantmentLevel(int i) { return enchLevel[i]; }
+
+    @Nonnull
+    String enchantmentId(int i) {
+        return enchEscaped[i]
+                ? unescape(src, enchStart[i], enchEnd[i])
+                : src.substring(enchStart[i], enchEnd[i]);
+    }
+
+    /**
+     * Hash of the enchantment ids and levels, computed without allocating.
+     * Equal to {@code Map<String, Integer>.hashCode()} over the raw (still
+     * escaped) ids, which is what tooltip hashes were built from before this
+     * scanner, so existing tooltip fingerprints stay valid.
+     */
+    int enchantmentHash() {
+        int h = 0;
+        for (int i = 0; i < enchCount; i++) {
+            int idHash = 0;
+            for (int c = enchStart[i]; c < enchEnd[i]; c++) idHash = 31 * idHash + src.charAt(c);
+            h += idHash ^ enchLevel[i];
+        }
+        return h;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  TOKENIZER
+    // ════════════════════════════════════════════════════════
+
+    private void reset(@Nullable String metadata) {
+        src = metadata != null ? metadata : "";
+        pos = 0;
+        len = src.length();
+        reforgeLevel = 0;
+        levelSeen = false;
+        enchantmentsSeen = false;
+        enchCount = 0;
+    }
+
+    /** Stop scanning: everything after the current position is ignored. */
+    private void abort() {
+        pos = len;
+    }
+
+    private void walkValue(int depth) {
+        if (pos >= len) return;
+        char c = src.charAt(pos);
+        if (c == '{') walkObject(depth + 1);
+        else if (c == '[') walkArray(depth + 1);
+        else if (c == '"') readString();
+        else skipScalar();
+    }
+
+    private void walkObject(int depth) {
+        if (depth > MAX_DEPTH) { abort(); return; }
+        pos++; // '{'
+        while (true) {
+            skipWhitespace();
+            if (pos >= len) return;
+            if (src.charAt(pos) == '}') { pos++; return; }
+            if (!readKey()) { abort(); return; }
+            int keyStart = tokStart, keyEnd = tokEnd;
+
+            skipWhitespace();
+            if (pos >= len || src.charAt(pos) != ':') { abort(); return; }
+            pos++;
+            skipWhitespace();
+
+            if (!levelSeen && keyEquals(keyStart, keyEnd, REFORGE_LEVEL_KEY)) {
+                reforgeLevel = readInt(depth);
+                levelSeen = true;
+            } else if (!enchantmentsSeen && pos < len && src.charAt(pos) == '{'
+                    && keyEquals(keyStart, keyEnd, ENCHANTMENTS_KEY)) {
+                readEnchantments(depth + 1);
+                enchantmentsSeen = true;
+            } else {
+                walkValue(depth);
+            }
+
+            if (!nextMember('}')) return;
+        }
+    }
+
+    private void walkArray(int depth) {
+        if (depth > MAX_DEPTH) { abort(); return; }
+        pos++; // '['
+        while (true) {
+            skipWhitespace();
+            if (pos >= len) return;
+            if (src.charAt(pos) == ']') { pos++; return; }
+            walkValue(depth);
+            if (!nextMember(']')) return;
+        }
+    }
+
+    /** Consume a separator; returns {@code false} once the container is closed or input is bad. */
+    private boolean nextMember(char close) {
+        skipWhitespace();
+        if (pos >= len) return false;
+        char c = src.charAt(pos);
+        if (c == ',') { pos++; return true; }
+        if (c == close) { pos++; return false; }
+        abort();
+        return false;
+    }
+
+    /** {@code "Enchantments": { "id": level, ... }} — keeps entries with a positive level. */
+    private void readEnchantments(int depth) {
+        if (depth > MAX_DEPTH) { abort(); return; }
+        pos++; // '{'
+        while (true) {
+            skipWhitespace();
+            if (pos >= len) return;
+            if (src.charAt(pos) == '}') { pos++; return; }
+            if (!readKey()) { abort(); return; }
+            int idStart = tokStart, idEnd = tokEnd;
+            boolean idEscaped = tokEscaped;
+
+            skipWhitespace();
+            if (pos >= len || src.charAt(pos) != ':') { abort(); return; }
+            pos++;
+            skipWhitespace();
+
+            int level = readInt(depth);
+            if (level > 0 && idEnd > idStart && src.charAt(idStart) != '$') {
+                putEnchantment(idStart, idEnd, idEscaped, level);
+            }
+
+            if (!nextMember('}')) return;
+        }
+    }
+
+    private void putEnchantment(int start, int end, boolean escaped, int level) {
+        for (int i = 0; i < enchCount; i++) {
+            if (enchEnd[i] - enchStart[i] == end - start
+                    && src.regionMatches(enchStart[i], src, start, end - start)) {
+                enchLevel[i] = level; // later duplicate wins, like Map.put
+                return;
+            }
+        }
+        if (enchCount == enchStart.length) {
+            int n = enchCount * 2;
+            enchStart   = java.util.Arrays.copyOf(enchStart, n);
+            enchEnd     = java.util.Arrays.copyOf(enchEnd, n);
+            enchLevel   = java.util.Arrays.copyOf(enchLevel, n);
+            enchEscaped = java.util.Arrays.copyOf(enchEscaped, n);
+        }
+        enchStart[enchCount]   = start;
+        enchEnd[enchCount]     = end;
+        enchLevel[enchCount]   = level;
+        enchEscaped[enchCount] = escaped;
+        enchCount++;
+    }
+
+    /**
+     * Read an integer value: {@code 3}, {@code "3"} or {@code {"$numberInt": "3"}}
+     * (any {@code $number*} key). Fractions are truncated; anything else is
+     * consumed and yields 0.
+     */
+    private int readInt(int depth) {
+        if (pos >= len) return 0;
+        char c = src.charAt(pos);
+        if (c == '"') {
+            readString();
+            return parseInt(tokStart, tokEnd);
+        }
+        if (c == '{') {
+            if (depth + 1 > MAX_DEPTH) { abort(); return 0; }
+            int value = 0;
+            pos++;
+            while (true) {
+                skipWhitespace();
+                if (pos >= len) return value;
+                if (src.charAt(pos) == '}') { pos++; return value; }
+                if (!readKey()) { abort(); return value; }
+                boolean numberKey = src.startsWith(NUMBER_KEY_PREFIX, tokStart);
+                skipWhitespace();
+                if (pos >= len || src.charAt(pos) != ':') { abort(); return value; }
+                pos++;
+                skipWhitespace();
+                if (numberKey) value = readInt(depth + 1);
+                else walkValue(depth + 1);
+                if (!nextMember('}')) return value;
+            }
+        }
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            int start = pos;
+            skipScalar();
+            return parseInt(start, pos);
+        }
+        walkValue(depth);
+        return 0;
+    }
+
+    /** Leading integer of {@code src[start, end)}; 0 if absent or out of int range. */
+    private int parseInt(int start, int end) {
+        int i = start;
+        while (i < end && Character.isWhitespace(src.charAt(i))) i++;
+        boolean negative = i < end && src.charAt(i) == '-';
+        if (negative) i++;
+        long value = 0;
+        int digits = 0;
+        for (; i < end; i++) {
+            char d = src.charAt(i);
+            if (d < '0' || d > '9') break;
+            value = value * 10 + (d - '0');
+            if (value > Integer.MAX_VALUE + 1L) return 0;
+            digits++;
+        }
+        if (digits == 0) return 0;
+        long signed = negative ? -value : value;
+        return signed > Integer.MAX_VALUE ? 0 : (int) signed;
+    }
+
+    /** Quoted string or bare identifier key; sets the token bounds. */
+    private boolean readKey() {
+        char c = src.charAt(pos);
+        if (c == '"') return readString();
+        int start = pos;
+        while (pos < len) {
+            char k = src.charAt(pos);
+            if (!(Character.isLetterOrDigit(k) || k == '_' || k == '$' || k == '-')) break;
+            pos++;
+        }
+        tokStart = start;
+        tokEnd = pos;
+        tokEscaped = false;
+        return pos > start;
+    }
+
+    /** Reads a quoted string at {@code pos}; returns {@code false} if it is unterminated. */
+    private boolean readString() {
+        int start = ++pos;
+        boolean escaped = false;
+        while (pos < len) {
+            char c = src.charAt(pos);
+            if (c == '\\') {
+                escaped = true;
+                pos += 2;
+                continue;
+            }
+            if (c == '"') {
+                tokStart = start;
+                tokEnd = pos;
+                tokEscaped = escaped;
+                pos++;
+                return true;
+            }
+            pos++;
+        }
+        tokStart = start;
+        tokEnd = Math.min(pos, len);
+        tokEscaped = escaped;
+        pos = len;
+        return false;
+    }
+
+    /** Numbers and literals (true/false/null): consume up to the next structural character. */
+    private void skipScalar() {
+        int start = pos;
+        while (pos < len) {
+            char c = src.charAt(pos);
+            if (c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c)) break;
+            pos++;
+        }
+        if (pos == start) abort(); // unexpected structural char in value position
+    }
+
+    private void skipWhitespace() {
+        while (pos < len && Character.isWhitespace(src.charAt(pos))) pos++;
+    }
+
+    private boolean keyEquals(int start, int end, String key) {
+        return end - start == key.length() && src.startsWith(key, start);
+    }
+
+    /** Decode JSON escapes in {@code s[start, end)}. */
+    private static String unescape(String s, int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c != '\\' || i + 1 >= end) {
+                sb.append(c);
+                continue;
+            }
+            char e = s.charAt(++i);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (i + 4 < end) {
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                            i += 4;
+                        } catch (NumberFormatException ex) {
+                            sb.append('u');
+                        }
+                    } else {
+                        sb.append('u');
+                    }
+                }
+                default -> sb.append(e);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -8,15 +8,15 @@ import org.herolias.tooltips.api.TooltipProvider;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 /**
  * DynamicTooltipsLib provider that shows reforge level, stat bonuses
  * <b>and</b> enchantment info on items.
  *
- * <p>Reads the {@code reforge_level} field from item metadata (JSON string).
- * Calculates cumulative DMG/DEF bonus from config and renders colored lines.</p>
+ * <p>Reads the {@code reforge_level} field and the Simple Enchantments
+ * {@code Enchantments} object from item metadata (JSON string) in a single
+ * {@link MetadataScanner} pass. Calculates cumulative DMG/DEF bonus from
+ * config and renders colored lines.</p>
  *
  * <h3>Simple Enchantments compatibility</h3>
  * <p>Simple Enchantments uses {@code descriptionTranslationKey} combined with
@@ -36,6 +36,9 @@ import java.util.Map;
  *
  * <p>SE's gameplay systems (damage modifiers, enchanting recipes, etc.)
  * remain fully functional &mdash; only the tooltip provider is replaced.</p>
+ *
+ * <p>Finished results are kept in a {@link TooltipCache} keyed by item id and
+ * metadata, and are dropped when the config generation changes.</p>
  */
 public class ReforgeTooltipProvider implements TooltipProvider {
 
@@ -47,10 +50,11 @@ public class ReforgeTooltipProvider implements TooltipProvider {
         "XI", "XII", "XIII", "XIV", "XV", "XVI", "XVII", "XVIII", "XIX", "XX"
     };
 
-    /** Enchantment key used by Simple Enchantments in item metadata (capital E). */
-    private static final String ENCHANTMENTS_KEY = "Enchantments";
+    /** Weight budget of the result cache (≈ characters of cached tooltip text). */
+    private static final long CACHE_MAX_WEIGHT = 512 * 1024;
 
     private final ReforgeConfig config;
+    private final TooltipCache cache = new TooltipCache(CACHE_MAX_WEIGHT);
 
     public ReforgeTooltipProvider(@Nonnull ReforgeConfig config) {
         this.config = config;
@@ -70,19 +74,38 @@ public class ReforgeTooltipProvider implements TooltipProvider {
     @Nullable
     @Override
     public TooltipData getTooltipData(@Nonnull String itemId, @Nullable String metadata) {
+        long key = TooltipCache.fingerprint(itemId, metadata);
+        int generation = config.getGeneration();
+        Object cached = cache.get(key, generation);
+        if (cached != null) {
+            return cached == TooltipCache.NO_TOOLTIP ? null : (TooltipData) cached;
+        }
+
+        TooltipData data = buildTooltip(itemId, metadata);
+        cache.put(key, generation, data);
+        return data;
+    }
+
+    /** One-line summary of cache effectiveness for logs/admin output. */
+    @Nonnull
+    public String getCacheStats() {
+        return String.format("entries=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%",
+                cache.size(), cache.hits(), cache.misses(), cache.evictions(), cache.hitRate() * 100);
+    }
+
+    @Nullable
+    private TooltipData buildTooltip(@Nonnull String itemId, @Nullable String metadata) {
         String bareId = itemId.contains(":") ? itemId.substring(itemId.indexOf(':') + 1) : itemId;
         boolean isWeapon = config.getAllowedItems().isWeapon(bareId);
         boolean isArmor  = config.getAllowedItems().isArmor(bareId);
 
-        // Parse reforge level (only for weapons/armor)
-        int reforgeLevel = 0;
-        if (isWeapon || isArmor) {
-            reforgeLevel = parseReforgeLevel(metadata);
-        }
+        // One pass over the metadata for both reforge level and enchantments
+        MetadataScanner meta = MetadataScanner.scan(metadata);
 
-        // Parse enchantments (any item may have them)
-        Map<String, Integer> enchantments = parseEnchantments(metadata);
-        boolean hasEnchantments = !enchantments.isEmpty();
+        // Reforge level only counts on weapons/armor; any item may be enchanted
+        int reforgeLevel = (isWeapon || isArmor) ? meta.reforgeLevel() : 0;
+        int enchantmentCount = meta.enchantmentCount();
+        boolean hasEnchantments = enchantmentCount > 0;
 
         // Nothing to display -> null (DynamicTooltipsLib skips this provider)
         if (reforgeLevel <= 0 && !hasEnchantments) return null;
@@ -103,7 +126,7 @@ public class ReforgeTooltipProvider implements TooltipProvider {
         // -- Build stable hash --------------------------------------------
         String hash = "combined"
                 + (reforgeLevel > 0 ? ":r" + reforgeLevel + ":" + bareId + ":d" + totalDmg + ":a" + totalDef : "")
-                + (hasEnchantments  ? ":enc" + enchantments.hashCode() : "");
+                + (hasEnchantments  ? ":enc" + meta.enchantmentHash() : "");
 
         // -- Additive lines only ------------------------------------------
         // Using ONLY additive lines ensures no descriptionTranslationKey is
@@ -114,9 +137,9 @@ public class ReforgeTooltipProvider implements TooltipProvider {
         // Enchantment lines (displayed first, like SE does)
         if (hasEnchantments) {
             builder.addLine("<color is=\"#C8A2C8\">Enchantments:</color>");
-            for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
-                String name  = formatEnchantmentName(entry.getKey());
-                String level = toRoman(entry.getValue());
+            for (int i = 0; i < enchantmentCount; i++) {
+                String name  = formatEnchantmentName(meta.enchantmentId(i));
+                String level = toRoman(meta.enchantmentLevel(i));
                 builder.addLine(String.format(
                         "<color is=\"#D4A4FF\">\u2022 %s %s</color>", name, level));
             }
@@ -139,147 +162,6 @@ public class ReforgeTooltipProvider implements TooltipProvider {
         return builder.build();
     }
 
-    // =================================================================
-    //  ENCHANTMENT PARSING
-    // =================================================================
-
-    /**
-     * Parse enchantment data from the item's metadata JSON string.
-     *
-     * <p>Simple Enchantments stores enchantments as a BSON document in item
-     * metadata.  The serialised JSON form is typically:</p>
-     * <pre>
-     * { "Enchantments": { "sharpness": 3, "durability": 3 } }
-     * // or in extended JSON:
-     * { "Enchantments": { "sharpness": {"$numberInt":"3"}, ... } }
-     * </pre>
-     *
-     * @return ordered map of enchantment-id to level; empty if none found
-     */
-    @Nonnull
-    private Map<String, Integer> parseEnchantments(@Nullable String metadata) {
-        Map<String, Integer> result = new LinkedHashMap<>();
-        if (metadata == null || metadata.isEmpty()) return result;
-
-        // Find the "Enchantments" key
-        int keyIdx = metadata.indexOf("\"" + ENCHANTMENTS_KEY + "\"");
-        if (keyIdx < 0) return result;
-
-        // Find the opening brace of the enchantments object
-        int colonIdx = metadata.indexOf(':', keyIdx + ENCHANTMENTS_KEY.length() + 2);
-        if (colonIdx < 0) return result;
-
-        int braceStart = metadata.indexOf('{', colonIdx);
-        if (braceStart < 0) return result;
-
-        // Find matching closing brace (handle nested objects for extended JSON)
-        int braceEnd = findMatchingBrace(metadata, braceStart);
-        if (braceEnd < 0) return result;
-
-        String enchBlock = metadata.substring(braceStart + 1, braceEnd);
-
-        // Parse key-value pairs from the enchantments block.
-        // Handles both: "sharpness": 3  and  "sharpness": {"$numberInt": "3"}
-        int pos = 0;
-        while (pos < enchBlock.length()) {
-            int qStart = enchBlock.indexOf('"', pos);
-            if (qStart < 0) break;
-            int qEnd = enchBlock.indexOf('"', qStart + 1);
-            if (qEnd < 0) break;
-
-            String enchId = enchBlock.substring(qStart + 1, qEnd);
-
-            // Skip internal BSON keys like $numberInt
-            if (enchId.startsWith("$")) {
-                pos = qEnd + 1;
-                continue;
-            }
-
-            int eColon = enchBlock.indexOf(':', qEnd);
-            if (eColon < 0) break;
-
-            int level = parseIntValue(enchBlock, eColon + 1);
-            if (level > 0) {
-                result.put(enchId, level);
-            }
-
-            pos = eColon + 1;
-            while (pos < enchBlock.length()) {
-                char c = enchBlock.charAt(pos);
-                if (c == ',') { pos++; break; }
-                if (c == '}') break;
-                pos++;
-            }
-        }
-
-        return result;
-    }
-
-    /** Find the index of the brace that closes the one at {@code openIdx}. */
-    private int findMatchingBrace(String s, int openIdx) {
-        int depth = 0;
-        boolean inString = false;
-        for (int i = openIdx; i < s.length(); i++) {
-            char c = s.charAt(i);
-            if (c == '"' && (i == 0 || s.charAt(i - 1) != '\\')) {
-                inString = !inString;
-            }
-            if (inString) continue;
-            if (c == '{') depth++;
-            else if (c == '}') {
-                depth--;
-                if (depth == 0) return i;
-            }
-        }
-        return -1;
-    }
-
-    /**
-     * Parse an integer value starting at {@code offset}.
-     * Handles plain numbers ({@code 3}) and extended JSON
-     * ({@code {"$numberInt": "3"}}).
-     */
-    private int parseIntValue(String s, int offset) {
-        while (offset < s.length() && Character.isWhitespace(s.charAt(offset))) offset++;
-        if (offset >= s.length()) return 0;
-
-        char c = s.charAt(offset);
-
-        // Extended JSON: {"$numberInt": "3"}
-        if (c == '{') {
-            int numIntIdx = s.indexOf("$numberInt", offset);
-            if (numIntIdx < 0) return 0;
-            int vColon = s.indexOf(':', numIntIdx);
-            if (vColon < 0) return 0;
-            int vqStart = s.indexOf('"', vColon + 1);
-            if (vqStart < 0) return 0;
-            int vqEnd = s.indexOf('"', vqStart + 1);
-            if (vqEnd < 0) return 0;
-            try {
-                return Integer.parseInt(s.substring(vqStart + 1, vqEnd));
-            } catch (NumberFormatException e) {
-                return 0;
-            }
-        }
-
-        // Plain number
-        StringBuilder numStr = new StringBuilder();
-        for (int i = offset; i < s.length(); i++) {
-            char nc = s.charAt(i);
-            if (Character.isDigit(nc) || nc == '-') {
-                numStr.append(nc);
-            } else {
-                break;
-            }
-        }
-        if (numStr.length() == 0) return 0;
-        try {
-            return Integer.parseInt(numStr.toString());
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-
     // =================================================================
     //  FORMATTING HELPERS
     // =================================================================
@@ -308,27 +190,4 @@ public class ReforgeTooltipProvider implements TooltipProvider {
         if (level >= 1 && level < ROMAN.length) return ROMAN[level];
         return String.valueOf(level);
     }
-
-    // =================================================================
-    //  REFORGE LEVEL PARSING
-    // =================================================================
-
-    /**
-     * Parse the reforge_level integer from a metadata JSON string.
-     * Expected format: {"reforge_level": 3} or {"reforge_level": {"$numberInt": "3"}}
-     */
-    private int parseReforgeLevel(@Nullable String metadata) {
-        if (metadata == null || metadata.isEmpty()) return 0;
-
-        int keyIdx = metadata.indexOf("\"reforge_level\"");
-        if (keyIdx < 0) {
-            keyIdx = metadata.indexOf("reforge_level");
-            if (keyIdx < 0) return 0;
-        }
-
-        int colonIdx = metadata.indexOf(':', keyIdx);
-        if (colonIdx < 0) return 0;
-
-        return parseIntValue(metadata, colonIdx + 1);
-    }
 }
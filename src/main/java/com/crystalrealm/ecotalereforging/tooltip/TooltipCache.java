@@ -0,0 +1,180 @@
+package com.crystalrealm.ecotalereforging.tooltip;
+
+import org.herolias.tooltips.api.TooltipData;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU of finished {@link TooltipData}, keyed by a 64-bit fingerprint
+ * of (bare item id, metadata).
+ *
+ * <p>The cache is split into lock-striped segments, each an access-ordered
+ * {@link LinkedHashMap}, so concurrent tooltip requests rarely contend.
+ * Capacity is a weight budget (roughly the characters held by an entry)
+ * rather than an entry count. Entries remember the config generation they
+ * were built under and count as misses once the config changes.</p>
+ *
+ * <p>"No tooltip" results are cached too, as {@link #NO_TOOLTIP}, since most
+ * items carry no reforge level or enchantments.</p>
+ */
+final class TooltipCache {
+
+    /** Cached value for items that render no tooltip. Compared by identity. */
+    static final Object NO_TOOLTIP = new Object();
+
+    private static final int SEGMENTS = 16;
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME  = 0x100000001b3L;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits      = new LongAdder();
+    private final LongAdder misses    = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    TooltipCache(long maxWeight) {
+        long perSegment = Math.max(1, maxWeight / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment(perSegment);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  KEY
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * FNV-1a over the item id without its namespace, a separator, and the
+     * metadata. Reads the strings in place — nothing is allocated.
+     */
+    static long fingerprint(String itemId, @Nullable String metadata) {
+        long h = FNV_OFFSET;
+        int colon = itemId.indexOf(':');
+        for (int i = colon + 1; i < itemId.length(); i++) {
+            h = (h ^ itemId.charAt(i)) * FNV_PRIME;
+        }
+        h = (h ^ 0xFFFF) * FNV_PRIME;
+        if (metadata != null) {
+            for (int i = 0; i < metadata.length(); i++) {
+                h = (h ^ metadata.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // Final avalanche so the low bits used for striping are well mixed
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  ACCESS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Cached value for the key under {@code generation}: a {@link TooltipData},
+     * {@link #NO_TOOLTIP}, or {@code null} on a miss.
+     */
+    @Nullable
+    Object get(long key, int generation) {
+        Object value = segmentFor(key).get(key, generation);
+        if (value != null) hits.increment(); else misses.increment();
+        return value;
+    }
+
+    /** Cache a rendered tooltip, or {@code null} for "nothing to show". */
+    void put(long key, int generation, @Nullable TooltipData data) {
+        int weight = ENTRY_OVERHEAD;
+        if (data != null) {
+            weight += data.getStableHashInput().length();
+            for (String line : data.getLines()) weight += line.length();
+        }
+        Object value = data != null ? data : NO_TOOLTIP;
+        evictions.add(segmentFor(key).put(key, new Entry(generation, value, weight)));
+    }
+
+    void clear() {
+        for (Segment s : segments) s.clear();
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  METRICS
+    // ════════════════════════════════════════════════════════
+
+    long hits()      { return hits.sum(); }
+    long misses()    { return misses.sum(); }
+    long evictions() { return evictions.sum(); }
+
+    /** Hit rate in [0, 1]; 0 before the first lookup. */
+    double hitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    int size() {
+        int n = 0;
+        for (Segment s : segments) n += s.size();
+        return n;
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) (key ^ (key >>> 32)) & (SEGMENTS - 1)];
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  SEGMENT
+    // ════════════════════════════════════════════════════════
+
+    private record Entry(int generation, Object value, int weight) {}
+
+    private static final class Segment {
+        private final long maxWeight;
+        private final LinkedHashMap<Long, Entry> map = new LinkedHashMap<>(64, 0.75f, true);
+        private long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized Object get(long key, int generation) {
+            Entry e = map.get(key);
+            if (e == null) return null;
+            if (e.generation() != generation) {
+                map.remove(key);
+                weight -= e.weight();
+                return null;
+            }
+            return e.value();
+        }
+
+        /** @return number of entries evicted to make room */
+        synchronized int put(long key, Entry entry) {
+            Entry old = map.put(key, entry);
+            if (old != null) weight -= old.weight();
+            weight += entry.weight();
+
+            int evicted = 0;
+            Iterator<Map.Entry<Long, Entry>> it = map.entrySet().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                Map.Entry<Long, Entry> eldest = it.next();
+                if (eldest.getKey() == key) continue; // never evict what we just added
+                weight -= eldest.getValue().weight();
+                it.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void clear() {
+            map.clear();
+            weight = 0;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
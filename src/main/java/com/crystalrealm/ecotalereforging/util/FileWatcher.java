@@ -0,0 +1,256 @@
+package com.crystalrealm.ecotalereforging.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One background thread watching plugin files and calling a reload handler
+ * when they change.
+ *
+ * <p>Editors often save in bursts (truncate, write, rename), so events are
+ * debounced: a target reloads once no event for it has arrived for
+ * {@link #DEBOUNCE_MS}. Handlers run on the watcher thread, so parsing stays
+ * off the world threads. Each handler decides for itself whether the content
+ * actually changed (see {@link #contentHash}) and how to swap it in.</p>
+ *
+ * <p>Saves that delete the file and rename a new one into place (vim, some
+ * IDEs) can surface as a bare delete, and a busy directory can overflow the
+ * event queue. Both make a watched file re-stat itself when due: it reloads
+ * if it exists and its size, modification time or file key differ from the
+ * last load, and otherwise waits for the next event.</p>
+ *
+ * <p>A watched directory that does not exist yet is picked up as soon as it
+ * is created inside an already watched directory.</p>
+ */
+public final class FileWatcher {
+
+    private static final PluginLogger LOGGER = PluginLogger.forEnclosingClass();
+
+    /** Quiet period after the last event before a target reloads. */
+    private static final long DEBOUNCE_MS = 500;
+
+    private record Target(String name, Path dir, @Nullable String fileName, @Nullable String suffix, Runnable reload) {
+        boolean matches(Path changed) {
+            String n = changed.getFileName().toString();
+            return fileName != null ? n.equals(fileName) : n.endsWith(suffix);
+        }
+    }
+
+    /** What a file looked like when it was last loaded. */
+    private record Stamp(FileTime modified, long size, @Nullable Object fileKey) {}
+
+    private final List<Target> targets = new CopyOnWriteArrayList<>();
+    private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+    /** Last loaded stamp per file target; only touched by the watcher thread after {@link #start}. */
+    private final Map<Target, Stamp> stamps = new ConcurrentHashMap<>();
+
+    @Nullable
+    private WatchService service;
+    @Nullable
+    private Thread thread;
+
+    /** Reload {@code reload} when {@code file} is created, modified or replaced. */
+    public void watchFile(@Nonnull String name, @Nonnull Path file, @Nonnull Runnable reload) {
+        Path abs = file.toAbsolutePath().normalize();
+        targets.add(new Target(name, abs.getParent(), abs.getFileName().toString(), null, reload));
+    }
+
+    /** Reload {@code reload} when any file ending in {@code suffix} in {@code dir} changes. */
+    public void watchDirectory(@Nonnull String name, @Nonnull Path dir, @Nonnull String suffix,
+                               @Nonnull Runnable reload) {
+        targets.add(new Target(name, dir.toAbsolutePath().normalize(), null, suffix, reload));
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  LIFECYCLE
+    // ════════════════════════════════════════════════════════
+
+    public synchronized void start() {
+        if (thread != null) return;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            LOGGER.warn("File watching unavailable: {} — use /reforgeadmin reload", e.getMessage());
+            return;
+        }
+        for (Target t : targets) {
+            if (!register(t.dir) && t.dir.getParent() != null) register(t.dir.getParent());
+            restamp(t);
+        }
+        thread = new Thread(this::run, "EcoTaleReforging-FileWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        LOGGER.info("Watching {} target(s) for changes", targets.size());
+    }
+
+    public synchronized void stop() {
+        if (service == null) return;
+        try {
+            service.close();
+        } catch (IOException ignored) {
+        }
+        if (thread != null) thread.interrupt();
+        service = null;
+        thread = null;
+        keys.clear();
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  LOOP
+    // ════════════════════════════════════════════════════════
+
+    private void run() {
+        WatchService ws = service;
+        Map<Target, Long> due = new HashMap<>();
+        Set<Target> restat = new HashSet<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                if (due.isEmpty()) {
+                    key = ws.take();
+                } else {
+                    long wait = due.values().stream().mapToLong(Long::longValue).min().getAsLong()
+                            - System.currentTimeMillis();
+                    key = ws.poll(Math.max(0, wait), TimeUnit.MILLISECONDS);
+                }
+                if (key != null) collect(key, due, restat);
+                fireDue(due, restat);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    private void collect(WatchKey key, Map<Target, Long> due, Set<Target> restat) {
+        Path dir = keys.get(key);
+        long deadline = System.currentTimeMillis() + DEBOUNCE_MS;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) continue;
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, possibly including the creation of a target's directory
+                for (Target t : targets) {
+                    if (t.dir.equals(dir) || dir.equals(t.dir.getParent()) && register(t.dir)) {
+                        schedule(t, deadline, true, due, restat);
+                    }
+                }
+                continue;
+            }
+            boolean deleted = event.kind() == StandardWatchEventKinds.ENTRY_DELETE;
+            Path changed = dir.resolve((Path) event.context());
+            for (Target t : targets) {
+                if (!deleted && t.dir.equals(changed) && Files.isDirectory(changed) && register(changed)) {
+                    schedule(t, deadline, false, due, restat); // directory appeared — load what it already holds
+                } else if (t.dir.equals(dir) && t.matches(changed)) {
+                    schedule(t, deadline, deleted, due, restat);
+                }
+            }
+        }
+        if (!key.reset()) keys.remove(key);
+    }
+
+    /**
+     * Queue {@code t} to reload at {@code deadline}. A file target queued only
+     * by deletes or overflows re-stats before reloading; one real create or
+     * modify event makes the reload unconditional.
+     */
+    private static void schedule(Target t, long deadline, boolean restatOnly,
+                                 Map<Target, Long> due, Set<Target> restat) {
+        boolean queued = due.put(t, deadline) != null;
+        if (!restatOnly || t.fileName == null) restat.remove(t);
+        else if (!queued) restat.add(t);
+    }
+
+    private void fireDue(Map<Target, Long> due, Set<Target> restat) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Target, Long>> it = due.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Target, Long> e = it.next();
+            if (e.getValue() > now) continue;
+            it.remove();
+            Target t = e.getKey();
+            if (restat.remove(t) && !restatChanged(t)) continue;
+            try {
+                t.reload.run();
+            } catch (RuntimeException ex) {
+                LOGGER.error("Hot reload of {} failed: {}", t.name, ex.getMessage());
+            }
+            restamp(t);
+        }
+    }
+
+    /** Whether a watched file exists and no longer matches the stamp of its last load. */
+    private boolean restatChanged(Target t) {
+        Stamp now = stamp(t);
+        return now != null && !now.equals(stamps.get(t));
+    }
+
+    private void restamp(Target t) {
+        Stamp now = stamp(t);
+        if (now != null) stamps.put(t, now);
+        else stamps.remove(t);
+    }
+
+    @Nullable
+    private static Stamp stamp(Target t) {
+        if (t.fileName == null) return null;
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(t.dir.resolve(t.fileName), BasicFileAttributes.class);
+            return new Stamp(attrs.lastModifiedTime(), attrs.size(), attrs.fileKey());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Cannot stat {}: {}", t.dir.resolve(t.fileName), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean register(Path dir) {
+        WatchService ws = service;
+        if (ws == null || !Files.isDirectory(dir) || keys.containsValue(dir)) return keys.containsValue(dir);
+        try {
+            keys.put(dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Cannot watch {}: {}", dir, e.getMessage());
+            return false;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  HELPERS
+    // ════════════════════════════════════════════════════════
+
+    /** SHA-256 of file content, for telling real edits from rewrites of the same bytes. */
+    @Nonnull
+    public static byte[] contentHash(@Nonnull byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+    }
+}
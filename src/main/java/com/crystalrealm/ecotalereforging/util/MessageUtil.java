@@ -1,5 +1,10 @@
 package com.crystalrealm.ecotalereforging.util;
 
+import com.hypixel.hytale.server.core.Message;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -18,6 +23,32 @@ public final class MessageUtil {
     private static final DecimalFormat COIN_FORMAT;
     private static final Map<UUID, Object> PLAYER_REF_CACHE = new ConcurrentHashMap<>();
 
+    /**
+     * MiniMessage text → parsed message. Most sends repeat a small set of
+     * strings (prefix, errors, no-permission), so they are parsed once.
+     * Cleared when full; longer strings are almost always one-off and are
+     * parsed every time.
+     */
+    private static final Map<String, Message> MESSAGE_CACHE = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_MESSAGES = 1024;
+    private static final int MAX_CACHED_LENGTH = 512;
+
+    private static final MethodType SEND_TYPE = MethodType.methodType(void.class, Object.class, Message.class);
+
+    /** {@code sendMessage(Message)} per PlayerRef class, typed {@code (Object, Message)void}; {@code null} if absent. */
+    private static final ClassValue<MethodHandle> SEND_HANDLES = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                Method send = type.getMethod("sendMessage", Message.class);
+                return MethodHandles.publicLookup().unreflect(send).asType(SEND_TYPE);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.warn("{} has no usable sendMessage(Message): {}", type.getName(), e.getMessage());
+                return null;
+            }
+        }
+    };
+
     static {
         DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.US);
         symbols.setDecimalSeparator('.');
@@ -46,6 +77,17 @@ public final class MessageUtil {
         return PLAYER_REF_CACHE.keySet();
     }
 
+    /** UUID of the online player with this name (case-insensitive), or {@code null}. */
+    public static UUID findPlayerUuid(String username) {
+        for (Map.Entry<UUID, Object> e : PLAYER_REF_CACHE.entrySet()) {
+            try {
+                Object name = e.getValue().getClass().getMethod("getUsername").invoke(e.getValue());
+                if (name instanceof String s && s.equalsIgnoreCase(username)) return e.getKey();
+            } catch (ReflectiveOperationException | RuntimeException ignored) {}
+        }
+        return null;
+    }
+
     // ── Message Sending ─────────────────────────────────────────
 
     /**
@@ -64,17 +106,32 @@ public final class MessageUtil {
 
     private static void trySendViaPlayerRef(Object playerRef, String text) {
         try {
-            String jsonText = MiniMessageParser.toJson(text);
-            Class<?> msgClass = Class.forName("com.hypixel.hytale.server.core.Message");
-            Method parseMethod = msgClass.getMethod("parse", String.class);
-            Object parsedMsg = parseMethod.invoke(null, jsonText);
-            Method sendMethod = playerRef.getClass().getMethod("sendMessage", msgClass);
-            sendMethod.invoke(playerRef, parsedMsg);
+            MethodHandle send = SEND_HANDLES.get(playerRef.getClass());
+            if (send == null) return;
+            send.invokeExact(playerRef, toMessage(text));
         } catch (Throwable e) {
             LOGGER.warn("[sendMsg] failed: {}", e.getMessage());
         }
     }
 
+    /**
+     * Parse a MiniMessage string into a {@link Message}, reusing the parsed
+     * instance for strings seen before. The returned message is shared and
+     * must not be modified.
+     */
+    public static Message toMessage(String miniMessage) {
+        if (miniMessage.length() > MAX_CACHED_LENGTH) {
+            return Message.parse(MiniMessageParser.toJson(miniMessage));
+        }
+        Message cached = MESSAGE_CACHE.get(miniMessage);
+        if (cached != null) return cached;
+
+        Message parsed = Message.parse(MiniMessageParser.toJson(miniMessage));
+        if (MESSAGE_CACHE.size() >= MAX_CACHED_MESSAGES) MESSAGE_CACHE.clear();
+        MESSAGE_CACHE.put(miniMessage, parsed);
+        return parsed;
+    }
+
     // ── Formatting ──────────────────────────────────────────────
 
     public static String formatCoins(double amount) {
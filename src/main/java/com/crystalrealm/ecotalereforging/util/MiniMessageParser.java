@@ -1,12 +1,18 @@
 package com.crystalrealm.ecotalereforging.util;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Converts MiniMessage-formatted strings to Hytale JSON rich text.
  * Hytale's Message.parse() expects PascalCase keys and hex colors.
+ *
+ * <p>A single left-to-right scan: text runs are written as components
+ * straight into one builder, tags push and pop a style stack. A closing tag
+ * pops back to its matching opening tag, so {@code <gold>a<red>b</red>c}
+ * renders {@code c} in gold again. Unknown tags such as {@code <player>}
+ * are removed, so an unfilled placeholder never shows through; write
+ * {@code \<} for a literal {@code <}. A {@code <} that does not start a
+ * tag ({@code a < b}) is kept as text.</p>
  */
 public final class MiniMessageParser {
 
@@ -30,78 +36,198 @@ public final class MiniMessageParser {
         COLOR_HEX.put("white",        "#ffffff");
     }
 
-    private static final Pattern TAG_PATTERN = Pattern.compile("<(/?)([a-z_]+|#[0-9a-fA-F]{6})>");
+    private static final String EMPTY_JSON = "{\"RawText\":\"\"}";
+    private static final String CHILDREN_PREFIX = "{\"RawText\":\"\",\"Children\":[";
+
+    private static final int BOLD = 1;
+    private static final int ITALIC = 2;
+    private static final int UNDERLINE = 4;
 
     private MiniMessageParser() {}
 
     public static String toJson(String input) {
-        if (input == null || input.isEmpty()) return "{\"RawText\":\"\"}";
-        if (!input.contains("<")) return "{\"RawText\":\"" + escapeJson(input) + "\"}";
-
-        List<String> components = new ArrayList<>();
-        String color = null;
-        boolean bold = false, italic = false, underline = false;
-        Matcher m = TAG_PATTERN.matcher(input);
-        int lastEnd = 0;
-
-        while (m.find()) {
-            if (m.start() > lastEnd) {
-                String text = input.substring(lastEnd, m.start());
-                if (!text.isEmpty()) components.add(buildComponent(text, color, bold, italic, underline));
+        if (input == null || input.isEmpty()) return EMPTY_JSON;
+        if (input.indexOf('<') < 0) {
+            return appendComponent(new StringBuilder(input.length() + 16), input, 0, input.length(), null, 0)
+                    .toString();
+        }
+        return render(input, true);
+    }
+
+    /** The text with every tag removed; {@code \<} becomes a literal {@code <}. */
+    public static String stripTags(String input) {
+        if (input == null) return "";
+        if (input.indexOf('<') < 0) return input;
+        return render(input, false);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  SCANNER
+    // ════════════════════════════════════════════════════════
+
+    private static String render(String input, boolean json) {
+        Renderer out = new Renderer(input, json);
+        int textStart = 0;
+        int lt = input.indexOf('<');
+        while (lt >= 0) {
+            if (lt > 0 && input.charAt(lt - 1) == '\\') {
+                // Escaped: drop the backslash and keep the '<' as text
+                out.text(textStart, lt - 1);
+                textStart = lt;
+                lt = input.indexOf('<', lt + 1);
+                continue;
             }
-            boolean closing = "/".equals(m.group(1));
-            String tag = m.group(2);
-            if (closing) {
-                if ("bold".equals(tag)) bold = false;
-                else if ("italic".equals(tag)) italic = false;
-                else if ("underlined".equals(tag)) underline = false;
-                else if (tag.startsWith("#")) color = null;
-                else color = null;
+            int gt = tagEnd(input, lt);
+            if (gt >= 0) {
+                out.tag(lt, gt, textStart);
+                textStart = gt + 1;
+                lt = input.indexOf('<', textStart);
             } else {
-                if ("bold".equals(tag)) bold = true;
-                else if ("italic".equals(tag)) italic = true;
-                else if ("underlined".equals(tag)) underline = true;
-                else if (tag.startsWith("#")) color = tag.toLowerCase();
-                else if (COLOR_HEX.containsKey(tag)) color = COLOR_HEX.get(tag);
+                lt = input.indexOf('<', lt + 1);
             }
-            lastEnd = m.end();
         }
+        out.text(textStart, input.length());
+        return out.finish();
+    }
 
-        if (lastEnd < input.length()) {
-            String text = input.substring(lastEnd);
-            if (!text.isEmpty()) components.add(buildComponent(text, color, bold, italic, underline));
+    /**
+     * Index of the {@code >} closing a tag shaped {@code <name>} or
+     * {@code </name>}, where the name is not empty and has no whitespace or
+     * {@code <}, or {@code -1}.
+     */
+    private static int tagEnd(String input, int lt) {
+        int i = lt + 1;
+        int len = input.length();
+        if (i < len && input.charAt(i) == '/') i++;
+        int start = i;
+        while (i < len) {
+            char c = input.charAt(i);
+            if (c == '>') return i > start ? i : -1;
+            if (c == '<' || Character.isWhitespace(c)) return -1;
+            i++;
         }
+        return -1;
+    }
 
-        if (components.isEmpty()) return "{\"RawText\":\"\"}";
-        if (components.size() == 1) return components.get(0);
+    /** Decoration flag for a tag name, or 0 if it is not a decoration. */
+    private static int decoration(String name) {
+        switch (name) {
+            case "bold":       return BOLD;
+            case "italic":     return ITALIC;
+            case "underlined": return UNDERLINE;
+            default:           return 0;
+        }
+    }
 
-        StringBuilder sb = new StringBuilder("{\"RawText\":\"\",\"Children\":[");
-        for (int i = 0; i < components.size(); i++) {
-            if (i > 0) sb.append(",");
-            sb.append(components.get(i));
+    /** Hex color for a tag name, or {@code null} if it is not a color. */
+    private static String color(String name) {
+        if (name.charAt(0) != '#') return COLOR_HEX.get(name);
+        if (name.length() != 7) return null;
+        for (int i = 1; i < 7; i++) {
+            if (Character.digit(name.charAt(i), 16) < 0) return null;
         }
-        sb.append("]}");
-        return sb.toString();
+        return name;
     }
 
-    public static String stripTags(String input) {
-        if (input == null) return "";
-        return TAG_PATTERN.matcher(input).replaceAll("");
+    /** Output plus the style stack for one {@link #render} call. */
+    private static final class Renderer {
+        final String input;
+        final boolean json;
+        final StringBuilder sb;
+
+        String[] tags = new String[8];
+        String[] colors = new String[8];
+        int[] flags = new int[8];
+        int depth;
+
+        int components;
+        int firstComponent;
+
+        Renderer(String input, boolean json) {
+            this.input = input;
+            this.json = json;
+            this.sb = new StringBuilder(input.length() + (json ? 64 : 0));
+            if (json) sb.append(CHILDREN_PREFIX);
+        }
+
+        /**
+         * Apply the tag spanning {@code lt..gt}, flushing the text before it.
+         * An unknown tag is dropped without touching the style stack.
+         */
+        void tag(int lt, int gt, int textStart) {
+            text(textStart, lt);
+            boolean closing = input.charAt(lt + 1) == '/';
+            String name = input.substring(closing ? lt + 2 : lt + 1, gt);
+            if (name.charAt(0) == '#') name = name.toLowerCase(Locale.ROOT);
+            int decoration = decoration(name);
+            String color = decoration == 0 ? color(name) : null;
+            if (decoration == 0 && color == null) return;
+
+            if (closing) close(name);
+            else open(name, color, decoration);
+        }
+
+        void text(int from, int to) {
+            if (from >= to) return;
+            if (!json) {
+                sb.append(input, from, to);
+                return;
+            }
+            if (components++ > 0) sb.append(',');
+            else firstComponent = sb.length();
+            int top = depth - 1;
+            appendComponent(sb, input, from, to, top >= 0 ? colors[top] : null, top >= 0 ? flags[top] : 0);
+        }
+
+        void open(String name, String color, int decoration) {
+            if (depth == tags.length) {
+                tags = Arrays.copyOf(tags, depth * 2);
+                colors = Arrays.copyOf(colors, depth * 2);
+                flags = Arrays.copyOf(flags, depth * 2);
+            }
+            int top = depth - 1;
+            tags[depth] = name;
+            colors[depth] = color != null ? color : top >= 0 ? colors[top] : null;
+            flags[depth] = (top >= 0 ? flags[top] : 0) | decoration;
+            depth++;
+        }
+
+        /** Pop back to the innermost matching open tag; a closing tag without one is dropped. */
+        void close(String name) {
+            for (int i = depth - 1; i >= 0; i--) {
+                if (tags[i].equals(name)) {
+                    depth = i;
+                    return;
+                }
+            }
+        }
+
+        String finish() {
+            if (!json) return sb.toString();
+            if (components == 0) return EMPTY_JSON;
+            if (components == 1) return sb.substring(firstComponent);
+            return sb.append("]}").toString();
+        }
     }
 
-    private static String buildComponent(String text, String hex, boolean bold, boolean italic, boolean underline) {
-        StringBuilder sb = new StringBuilder("{\"RawText\":\"").append(escapeJson(text)).append("\"");
-        if (hex != null) sb.append(",\"Color\":\"").append(hex).append("\"");
-        if (bold) sb.append(",\"Bold\":true");
-        if (italic) sb.append(",\"Italic\":true");
-        if (underline) sb.append(",\"Underline\":true");
-        sb.append("}");
-        return sb.toString();
+    // ════════════════════════════════════════════════════════
+    //  JSON
+    // ════════════════════════════════════════════════════════
+
+    private static StringBuilder appendComponent(StringBuilder sb, String text, int from, int to,
+                                                 String hex, int flags) {
+        sb.append("{\"RawText\":\"");
+        appendEscaped(sb, text, from, to);
+        sb.append('"');
+        if (hex != null) sb.append(",\"Color\":\"").append(hex).append('"');
+        if ((flags & BOLD) != 0) sb.append(",\"Bold\":true");
+        if ((flags & ITALIC) != 0) sb.append(",\"Italic\":true");
+        if ((flags & UNDERLINE) != 0) sb.append(",\"Underline\":true");
+        return sb.append('}');
     }
 
-    private static String escapeJson(String text) {
-        StringBuilder sb = new StringBuilder(text.length());
-        for (int i = 0; i < text.length(); i++) {
+    private static void appendEscaped(StringBuilder sb, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
             char c = text.charAt(i);
             switch (c) {
                 case '\\': sb.append("\\\\"); break;
@@ -112,6 +238,5 @@ public final class MiniMessageParser {
                 default:   sb.append(c); break;
             }
         }
-        return sb.toString();
     }
 }
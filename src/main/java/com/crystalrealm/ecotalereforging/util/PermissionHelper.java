@@ -6,19 +6,28 @@ import com.google.gson.reflect.TypeToken;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Reads {@code permissions.json} and resolves group-based permissions manually,
  * with LuckPerms API reflection fallback.
+ *
+ * <p>LuckPerms calls go through method handles resolved once. Decisions are
+ * cached per player and permission for a few seconds and dropped on
+ * {@link #reload()}. A check never waits for LuckPerms to load a user.</p>
  */
 public final class PermissionHelper {
 
@@ -27,10 +36,16 @@ public final class PermissionHelper {
 
     private static volatile PermissionHelper instance;
 
-    private final Map<String, List<String>> userGroups = new ConcurrentHashMap<>();
-    private final Map<String, Set<String>> groupPermissions = new ConcurrentHashMap<>();
+    /** permissions.json compiled into tries; replaced as a whole on every load. */
+    private record Compiled(Map<UUID, PermissionTrie> users, @Nullable PermissionTrie defaults) {
+        static final Compiled EMPTY = new Compiled(Map.of(), null);
+    }
+
+    private volatile Compiled compiled = Compiled.EMPTY;
 
     private Path permissionsFile;
+    /** Hash of the permissions.json content last compiled. */
+    private volatile byte[] contentHash;
 
     private PermissionHelper() {}
 
@@ -59,143 +74,245 @@ public final class PermissionHelper {
         if (permissionsFile != null && Files.exists(permissionsFile)) {
             load();
         }
+        decisions.clear();
+    }
+
+    /** Recompile only if permissions.json content changed. Called by the file watcher. */
+    public void reloadIfChanged() {
+        if (permissionsFile == null) return;
+        try {
+            byte[] hash = FileWatcher.contentHash(Files.readAllBytes(permissionsFile));
+            if (MessageDigest.isEqual(hash, contentHash)) return;
+        } catch (IOException e) {
+            LOGGER.debug("permissions.json not readable yet: {}", e.getMessage());
+            return;
+        }
+        reload();
+    }
+
+    /** The discovered permissions.json, or {@code null} if none was found. */
+    @Nullable
+    public Path getPermissionsFile() {
+        return permissionsFile;
     }
 
     // ── LuckPerms API (reflection) ─────────────────────────
 
-    private Object luckPermsApi;
-    private Object luckPermsUserManager;
-    private boolean luckPermsAvailable = false;
-    private boolean luckPermsChecked = false;
+    /** LuckPerms entry points, resolved once into method handles. */
+    private record LuckPerms(MethodHandle getUser,
+                             MethodHandle loadUser,
+                             MethodHandle getCachedData,
+                             MethodHandle getPermissionData,
+                             MethodHandle checkPermission,
+                             MethodHandle asBoolean) {}
+
+    @Nullable
+    private volatile LuckPerms luckPerms;
+    private volatile boolean luckPermsChecked = false;
 
-    private void initLuckPerms() {
+    /** Users whose LuckPerms data is being loaded in the background. */
+    private final Set<UUID> loadingUsers = ConcurrentHashMap.newKeySet();
+
+    @Nullable
+    private LuckPerms luckPerms() {
+        if (!luckPermsChecked) initLuckPerms();
+        return luckPerms;
+    }
+
+    private synchronized void initLuckPerms() {
         if (luckPermsChecked) return;
-        luckPermsChecked = true;
         try {
             Class<?> providerClass = Class.forName("net.luckperms.api.LuckPermsProvider");
-            luckPermsApi = providerClass.getMethod("get").invoke(null);
-            luckPermsUserManager = luckPermsApi.getClass().getMethod("getUserManager").invoke(luckPermsApi);
-            luckPermsAvailable = true;
+            Object api = providerClass.getMethod("get").invoke(null);
+            ClassLoader loader = api.getClass().getClassLoader();
+            Object userManager = api.getClass().getMethod("getUserManager").invoke(api);
+
+            // Resolve against the public API interfaces — implementation classes may not be accessible
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> userManagerClass = Class.forName("net.luckperms.api.model.user.UserManager", false, loader);
+            Class<?> userClass = Class.forName("net.luckperms.api.model.user.User", false, loader);
+            Class<?> cachedDataClass = Class.forName("net.luckperms.api.cacheddata.CachedDataManager", false, loader);
+            Class<?> permDataClass = Class.forName("net.luckperms.api.cacheddata.CachedPermissionData", false, loader);
+            Class<?> triStateClass = Class.forName("net.luckperms.api.util.Tristate", false, loader);
+
+            MethodHandle getUser = lookup.unreflect(userManagerClass.getMethod("getUser", UUID.class))
+                    .bindTo(userManager).asType(MethodType.methodType(Object.class, UUID.class));
+            MethodHandle loadUser = lookup.unreflect(userManagerClass.getMethod("loadUser", UUID.class))
+                    .bindTo(userManager).asType(MethodType.methodType(Object.class, UUID.class));
+
+            luckPerms = new LuckPerms(getUser, loadUser,
+                    generic(lookup.unreflect(userClass.getMethod("getCachedData"))),
+                    generic(lookup.unreflect(cachedDataClass.getMethod("getPermissionData"))),
+                    lookup.unreflect(permDataClass.getMethod("checkPermission", String.class))
+                            .asType(MethodType.methodType(Object.class, Object.class, String.class)),
+                    lookup.unreflect(triStateClass.getMethod("asBoolean"))
+                            .asType(MethodType.methodType(boolean.class, Object.class)));
             LOGGER.info("LuckPerms API detected — using it for permission resolution");
         } catch (ClassNotFoundException e) {
             LOGGER.info("LuckPerms not found — using permissions.json only");
-        } catch (Exception e) {
+        } catch (Throwable e) {
             LOGGER.warn("LuckPerms API init failed: {} — using permissions.json", e.getMessage());
+        } finally {
+            luckPermsChecked = true;
         }
     }
 
+    private static MethodHandle generic(MethodHandle mh) {
+        return mh.asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    /**
+     * Never blocks: a user LuckPerms has not loaded yet is loaded in the
+     * background and this check returns {@code null} (undecided).
+     */
     @Nullable
     private Boolean checkLuckPerms(@Nonnull UUID uuid, @Nonnull String permission) {
-        initLuckPerms();
-        if (!luckPermsAvailable || luckPermsUserManager == null) return null;
+        LuckPerms lp = luckPerms();
+        if (lp == null) return null;
 
         try {
-            Object user = luckPermsUserManager.getClass()
-                    .getMethod("getUser", UUID.class)
-                    .invoke(luckPermsUserManager, uuid);
-
+            Object user = (Object) lp.getUser.invokeExact(uuid);
             if (user == null) {
-                Object future = luckPermsUserManager.getClass()
-                        .getMethod("loadUser", UUID.class)
-                        .invoke(luckPermsUserManager, uuid);
-                user = future.getClass().getMethod("join").invoke(future);
+                preload(uuid);
+                return null;
             }
 
-            if (user == null) return null;
-
-            Object cachedData = user.getClass().getMethod("getCachedData").invoke(user);
-            Object permData = cachedData.getClass().getMethod("getPermissionData").invoke(cachedData);
-            Object triState = permData.getClass().getMethod("checkPermission", String.class)
-                    .invoke(permData, permission);
-            return (Boolean) triState.getClass().getMethod("asBoolean").invoke(triState);
-        } catch (Exception e) {
+            Object cachedData = (Object) lp.getCachedData.invokeExact(user);
+            Object permData = (Object) lp.getPermissionData.invokeExact(cachedData);
+            Object triState = (Object) lp.checkPermission.invokeExact(permData, permission);
+            return (boolean) lp.asBoolean.invokeExact(triState);
+        } catch (Throwable e) {
             LOGGER.debug("LuckPerms permission check failed for {}: {}", uuid, e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Ask LuckPerms to load the user in the background (e.g. on join) so later
+     * checks find it cached. No-op without LuckPerms or while a load is running.
+     */
+    public void preload(@Nonnull UUID uuid) {
+        LuckPerms lp = luckPerms();
+        if (lp == null || !loadingUsers.add(uuid)) return;
+        try {
+            Object future = (Object) lp.loadUser.invokeExact(uuid);
+            if (future instanceof CompletionStage<?> stage) {
+                stage.whenComplete((user, error) -> {
+                    loadingUsers.remove(uuid);
+                    invalidate(uuid);
+                    if (error != null) LOGGER.debug("LuckPerms preload failed for {}: {}", uuid, error.getMessage());
+                });
+            } else {
+                loadingUsers.remove(uuid);
+            }
+        } catch (Throwable e) {
+            loadingUsers.remove(uuid);
+            LOGGER.debug("LuckPerms preload failed for {}: {}", uuid, e.getMessage());
+        }
+    }
+
+    // ── Decision cache ──────────────────────────────────────
+
+    /** How long a resolved decision is reused. */
+    private static final long DECISION_TTL_NANOS = 5_000_000_000L;
+    private static final int MAX_DECISIONS = 8192;
+
+    private record DecisionKey(UUID uuid, String permission) {}
+    private record Decision(boolean allowed, long expiresAt) {}
+
+    private final Map<DecisionKey, Decision> decisions = new ConcurrentHashMap<>();
+
+    /** Forget cached decisions for one player (group or LuckPerms data changed). */
+    public void invalidate(@Nonnull UUID uuid) {
+        decisions.keySet().removeIf(k -> k.uuid.equals(uuid));
+    }
+
     // ── Permission check ────────────────────────────────────
 
+    /**
+     * Resolves the permission from cache, LuckPerms or permissions.json.
+     * Never blocks on I/O, so it is safe on world and ECS threads.
+     */
     public boolean hasPermission(@Nonnull UUID uuid, @Nonnull String permission) {
+        DecisionKey key = new DecisionKey(uuid, permission);
+        long now = System.nanoTime();
+        Decision cached = decisions.get(key);
+        if (cached != null && now - cached.expiresAt < 0) return cached.allowed;
+
         Boolean lpResult = checkLuckPerms(uuid, permission);
-        if (lpResult != null) return lpResult;
-
-        String uuidStr = uuid.toString();
-        List<String> groups = userGroups.get(uuidStr);
-        if (groups == null || groups.isEmpty()) {
-            Set<String> defaultPerms = groupPermissions.get("Default");
-            if (defaultPerms != null) {
-                return matchesAny(defaultPerms, permission);
-            }
-            return false;
-        }
+        boolean allowed = lpResult != null ? lpResult : checkPermissionsFile(uuid, permission);
 
-        for (String group : groups) {
-            Set<String> perms = groupPermissions.get(group);
-            if (perms != null && matchesAny(perms, permission)) {
-                return true;
-            }
+        // Don't pin a permissions.json answer while LuckPerms is still loading the user
+        if (lpResult != null || luckPerms() == null) {
+            if (decisions.size() >= MAX_DECISIONS) decisions.clear();
+            decisions.put(key, new Decision(allowed, now + DECISION_TTL_NANOS));
         }
-        return false;
+        return allowed;
     }
 
-    private boolean matchesAny(@Nonnull Set<String> grantedPerms, @Nonnull String requested) {
-        if (grantedPerms.contains(requested)) return true;
-        if (grantedPerms.contains("*")) return true;
-
-        for (String granted : grantedPerms) {
-            if (granted.endsWith(".*")) {
-                String prefix = granted.substring(0, granted.length() - 2);
-                if (requested.startsWith(prefix + ".") || requested.equals(prefix)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    /** Users without groups in permissions.json fall back to the {@code Default} group. */
+    private boolean checkPermissionsFile(@Nonnull UUID uuid, @Nonnull String permission) {
+        Compiled c = compiled;
+        PermissionTrie trie = c.users.get(uuid);
+        if (trie == null) trie = c.defaults;
+        return trie != null && trie.matches(permission);
     }
 
+    /**
+     * Parse permissions.json and compile it: one trie per group, plus each
+     * user's groups merged into a single trie. Keeps the previous result if
+     * the file cannot be read.
+     */
     @SuppressWarnings("unchecked")
-    private void load() {
-        userGroups.clear();
-        groupPermissions.clear();
-
-        try (Reader reader = new InputStreamReader(
-                Files.newInputStream(permissionsFile), StandardCharsets.UTF_8)) {
+    private synchronized void load() {
+        try {
+            byte[] bytes = Files.readAllBytes(permissionsFile);
+            Reader reader = new StringReader(new String(bytes, StandardCharsets.UTF_8));
 
             Type mapType = new TypeToken<Map<String, Object>>() {}.getType();
             Map<String, Object> root = GSON.fromJson(reader, mapType);
 
+            Map<String, PermissionTrie> groupTries = new HashMap<>();
+            Map<String, Object> groups = (Map<String, Object>) root.get("groups");
+            if (groups != null) {
+                for (Map.Entry<String, Object> entry : groups.entrySet()) {
+                    List<String> perms = (List<String>) entry.getValue();
+                    if (perms == null) continue;
+                    PermissionTrie trie = new PermissionTrie();
+                    for (String p : perms) {
+                        if (p != null) trie.grant(p);
+                    }
+                    groupTries.put(entry.getKey(), trie);
+                }
+            }
+
+            Map<UUID, PermissionTrie> userTries = new HashMap<>();
             Map<String, Object> users = (Map<String, Object>) root.get("users");
             if (users != null) {
                 for (Map.Entry<String, Object> entry : users.entrySet()) {
-                    String uuid = entry.getKey();
                     Map<String, Object> userData = (Map<String, Object>) entry.getValue();
-                    List<String> groups = (List<String>) userData.get("groups");
-                    if (groups != null) {
-                        userGroups.put(uuid, new ArrayList<>(groups));
+                    List<String> userGroups = userData != null ? (List<String>) userData.get("groups") : null;
+                    if (userGroups == null || userGroups.isEmpty()) continue;
+                    UUID uuid;
+                    try {
+                        uuid = UUID.fromString(entry.getKey());
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.debug("permissions.json: skipping non-UUID user key {}", entry.getKey());
+                        continue;
                     }
-                }
-            }
-
-            Map<String, Object> groups = (Map<String, Object>) root.get("groups");
-            if (groups != null) {
-                for (Map.Entry<String, Object> entry : groups.entrySet()) {
-                    String groupName = entry.getKey();
-                    List<String> perms = (List<String>) entry.getValue();
-                    if (perms != null) {
-                        Set<String> permSet = new HashSet<>();
-                        for (String p : perms) {
-                            if (p != null && !p.startsWith("#")) {
-                                permSet.add(p.trim());
-                            }
-                        }
-                        groupPermissions.put(groupName, permSet);
+                    PermissionTrie merged = new PermissionTrie();
+                    for (String group : userGroups) {
+                        PermissionTrie g = groupTries.get(group);
+                        if (g != null) merged.grantAll(g);
                     }
+                    userTries.put(uuid, merged);
                 }
             }
 
+            compiled = new Compiled(userTries, groupTries.get("Default"));
+            contentHash = FileWatcher.contentHash(bytes);
             LOGGER.info("permissions.json loaded: {} users, {} groups",
-                    userGroups.size(), groupPermissions.size());
+                    userTries.size(), groupTries.size());
 
         } catch (IOException e) {
             LOGGER.error("Failed to load permissions.json: {}", e.getMessage());
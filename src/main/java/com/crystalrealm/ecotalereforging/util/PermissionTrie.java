@@ -0,0 +1,113 @@
+package com.crystalrealm.ecotalereforging.util;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Granted permission nodes compiled into a trie over their dot-separated
+ * segments.
+ *
+ * <p>Grants follow permissions.json semantics: {@code a.b} grants exactly
+ * that node, {@code a.b.*} grants {@code a.b} and everything below it, and
+ * {@code *} grants everything. {@link #matches} walks the requested node
+ * segment by segment, comparing regions of the string in place, so a check
+ * allocates nothing.</p>
+ *
+ * <p>Built once per load and never modified afterwards, so it is safe to
+ * share between threads once published.</p>
+ */
+final class PermissionTrie {
+
+    private final Node root = new Node();
+
+    /** Add one granted node; {@code #}-comments and blanks are ignored. */
+    void grant(@Nonnull String permission) {
+        String perm = permission.trim();
+        if (perm.isEmpty() || perm.startsWith("#")) return;
+        if (perm.equals("*")) {
+            root.wildcard = true;
+            return;
+        }
+        boolean wildcard = perm.endsWith(".*");
+        if (wildcard) perm = perm.substring(0, perm.length() - 2);
+
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int dot = perm.indexOf('.', start);
+            int end = dot < 0 ? perm.length() : dot;
+            node = node.childOrCreate(perm.substring(start, end));
+            if (dot < 0) break;
+            start = dot + 1;
+        }
+        if (wildcard) node.wildcard = true;
+        else node.terminal = true;
+    }
+
+    /** Add every node granted by another trie. */
+    void grantAll(@Nonnull PermissionTrie other) {
+        root.merge(other.root);
+    }
+
+    boolean matches(@Nonnull String requested) {
+        Node node = root;
+        int len = requested.length();
+        int start = 0;
+        while (true) {
+            if (node.wildcard) return true;
+            int end = start;
+            int hash = 0;
+            while (end < len) {
+                char c = requested.charAt(end);
+                if (c == '.') break;
+                hash = 31 * hash + c;
+                end++;
+            }
+            node = node.child(requested, start, end - start, hash);
+            if (node == null) return false;
+            if (end == len) return node.terminal || node.wildcard;
+            start = end + 1;
+        }
+    }
+
+    private static final class Node {
+        /** Child segments in parallel arrays; nodes rarely have more than a handful. */
+        String[] keys = new String[0];
+        int[] hashes = new int[0];
+        Node[] children = new Node[0];
+        /** The node itself was granted. */
+        boolean terminal;
+        /** {@code node.*} was granted: the node and everything below it. */
+        boolean wildcard;
+
+        Node child(String s, int offset, int length, int hash) {
+            for (int i = 0; i < keys.length; i++) {
+                String key = keys[i];
+                if (hashes[i] == hash && key.length() == length && s.regionMatches(offset, key, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(String segment) {
+            Node existing = child(segment, 0, segment.length(), segment.hashCode());
+            if (existing != null) return existing;
+            int n = keys.length;
+            keys = Arrays.copyOf(keys, n + 1);
+            hashes = Arrays.copyOf(hashes, n + 1);
+            children = Arrays.copyOf(children, n + 1);
+            keys[n] = segment;
+            hashes[n] = segment.hashCode();
+            return children[n] = new Node();
+        }
+
+        void merge(Node other) {
+            terminal |= other.terminal;
+            wildcard |= other.wildcard;
+            for (int i = 0; i < other.keys.length; i++) {
+                childOrCreate(other.keys[i]).merge(other.children[i]);
+            }
+        }
+    }
+}
@@ -1,14 +1,35 @@
 package com.crystalrealm.ecotalereforging.util;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 /**
  * Lightweight SLF4J-style logger wrapper over java.util.logging.
  * Supports {} placeholders.
+ *
+ * <p>Nothing is formatted unless the level is enabled. Arguments that are
+ * expensive to build can be passed as {@link Supplier}s, which are only
+ * called when the message is actually logged. Debug messages are also
+ * shown at INFO while the config's {@code debugMode} is on.</p>
+ *
+ * <p>With {@link #startAsync} records are handed to a bounded buffer and
+ * written by a background thread, so console and file handlers never run
+ * on a world thread. When the buffer is full, debug and info records are
+ * dropped and counted; warnings and errors are written inline instead.</p>
  */
 public final class PluginLogger {
 
+    private static final BooleanSupplier NO_DEBUG = () -> false;
+
+    private static volatile BooleanSupplier debugMode = NO_DEBUG;
+    private static volatile AsyncAppender appender;
+
     private final Logger logger;
 
     private PluginLogger(String name) {
@@ -20,59 +41,136 @@ public final class PluginLogger {
         return new PluginLogger(caller.getClassName());
     }
 
+    // ════════════════════════════════════════════════════════
+    //  CONFIGURATION
+    // ════════════════════════════════════════════════════════
+
+    /** Source of the config's {@code debugMode} flag, read on every debug call. */
+    public static void setDebugMode(BooleanSupplier enabled) {
+        debugMode = enabled != null ? enabled : NO_DEBUG;
+    }
+
+    /** Start writing records from a background thread through a buffer of {@code capacity} records. */
+    public static synchronized void startAsync(int capacity) {
+        if (appender != null) return;
+        AsyncAppender a = new AsyncAppender(Math.max(64, capacity));
+        a.thread.start();
+        appender = a;
+    }
+
+    /** Write out whatever is still buffered and go back to logging inline. */
+    public static synchronized void stopAsync() {
+        AsyncAppender a = appender;
+        if (a == null) return;
+        appender = null;
+        a.running = false;
+        a.thread.interrupt();
+        try {
+            a.thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        a.drain();
+    }
+
+    /** Records dropped because the async buffer was full, since the plugin started. */
+    public static long droppedCount() {
+        return AsyncAppender.DROPPED.get();
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  LOGGING
+    // ════════════════════════════════════════════════════════
+
+    public boolean isInfoEnabled() {
+        return logger.isLoggable(Level.INFO);
+    }
+
+    public boolean isDebugEnabled() {
+        return logger.isLoggable(Level.FINE) || debugMode.getAsBoolean();
+    }
+
     public void info(String msg, Object... args) {
         if (logger.isLoggable(Level.INFO)) {
-            logger.info(format(msg, args));
+            log(Level.INFO, format(msg, args), null);
+        }
+    }
+
+    /** Like {@link #info(String, Object...)}, calling the suppliers only if INFO is enabled. */
+    public void info(String msg, Supplier<?>... args) {
+        if (logger.isLoggable(Level.INFO)) {
+            log(Level.INFO, format(msg, resolve(args)), null);
         }
     }
 
     public void warn(String msg, Object... args) {
         if (logger.isLoggable(Level.WARNING)) {
             FormattedMessage fm = formatWithThrowable(msg, args);
-            if (fm.throwable != null) {
-                logger.log(Level.WARNING, fm.message, fm.throwable);
-            } else {
-                logger.warning(fm.message);
-            }
+            log(Level.WARNING, fm.message, fm.throwable);
         }
     }
 
     public void error(String msg, Object... args) {
         if (logger.isLoggable(Level.SEVERE)) {
             FormattedMessage fm = formatWithThrowable(msg, args);
-            if (fm.throwable != null) {
-                logger.log(Level.SEVERE, fm.message, fm.throwable);
-            } else {
-                logger.severe(fm.message);
-            }
+            log(Level.SEVERE, fm.message, fm.throwable);
         }
     }
 
     public void debug(String msg, Object... args) {
         if (logger.isLoggable(Level.FINE)) {
-            logger.fine(format(msg, args));
+            log(Level.FINE, format(msg, args), null);
+        } else if (debugMode.getAsBoolean()) {
+            log(Level.INFO, "[debug] " + format(msg, args), null);
+        }
+    }
+
+    /** Like {@link #debug(String, Object...)}, calling the suppliers only if debug output is on. */
+    public void debug(String msg, Supplier<?>... args) {
+        if (logger.isLoggable(Level.FINE)) {
+            log(Level.FINE, format(msg, resolve(args)), null);
+        } else if (debugMode.getAsBoolean()) {
+            log(Level.INFO, "[debug] " + format(msg, resolve(args)), null);
         }
     }
 
+    private void log(Level level, String message, Throwable thrown) {
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName(logger.getName());
+        // Set explicitly: JUL would otherwise walk the stack, and on the appender thread find the wrong caller
+        record.setSourceClassName(logger.getName());
+        record.setSourceMethodName(null);
+        if (thrown != null) record.setThrown(thrown);
+
+        AsyncAppender a = appender;
+        if (a == null || !a.offer(logger, record)) logger.log(record);
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  FORMATTING
+    // ════════════════════════════════════════════════════════
+
+    private static Object[] resolve(Supplier<?>[] args) {
+        if (args == null || args.length == 0) return null;
+        Object[] values = new Object[args.length];
+        for (int i = 0; i < args.length; i++) values[i] = args[i] != null ? args[i].get() : null;
+        return values;
+    }
+
     private String format(String pattern, Object... args) {
         if (args == null || args.length == 0) return pattern;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(pattern.length() + 16 * args.length);
         int argIdx = 0;
         int i = 0;
         while (i < pattern.length()) {
-            if (pattern.charAt(i) == '{') {
-                int end = pattern.indexOf('}', i);
-                if (end != -1 && argIdx < args.length) {
-                    sb.append(args[argIdx++]);
-                    i = end + 1;
-                } else {
-                    sb.append(pattern.charAt(i));
-                    i++;
-                }
-            } else {
-                sb.append(pattern.charAt(i));
-                i++;
+            int open = pattern.indexOf('{', i);
+            int end = open != -1 ? pattern.indexOf('}', open) : -1;
+            if (end == -1 || argIdx >= args.length) {
+                sb.append(pattern, i, pattern.length());
+                break;
             }
+            sb.append(pattern, i, open).append(args[argIdx++]);
+            i = end + 1;
         }
         return sb.toString();
     }
@@ -102,4 +200,68 @@ public final class PluginLogger {
     }
 
     private record FormattedMessage(String message, Throwable throwable) {}
+
+    // ════════════════════════════════════════════════════════
+    //  ASYNC APPENDER
+    // ════════════════════════════════════════════════════════
+
+    /** Fixed-size ring of pending records, written out by one daemon thread. */
+    private static final class AsyncAppender implements Runnable {
+        static final AtomicLong DROPPED = new AtomicLong();
+
+        final ArrayBlockingQueue<Pending> buffer;
+        final Thread thread;
+        volatile boolean running = true;
+        long reported;
+
+        AsyncAppender(int capacity) {
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+            this.reported = DROPPED.get();
+            this.thread = new Thread(this, "EcoTaleReforging-Logger");
+            thread.setDaemon(true);
+        }
+
+        /** Queue the record; {@code false} means the caller has to write it itself. */
+        boolean offer(Logger logger, LogRecord record) {
+            if (buffer.offer(new Pending(logger, record))) return true;
+            if (record.getLevel().intValue() >= Level.WARNING.intValue()) return false;
+            DROPPED.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    Pending next = buffer.poll(1, TimeUnit.SECONDS);
+                    if (next != null) write(next);
+                    if (buffer.isEmpty()) reportDrops();
+                } catch (InterruptedException e) {
+                    if (!running) break;
+                } catch (RuntimeException e) {
+                    // A broken handler must not kill the thread; nothing sensible to log it to
+                }
+            }
+        }
+
+        void drain() {
+            Pending next;
+            while ((next = buffer.poll()) != null) write(next);
+            reportDrops();
+        }
+
+        private void write(Pending pending) {
+            pending.logger.log(pending.record);
+        }
+
+        private void reportDrops() {
+            long dropped = DROPPED.get();
+            if (dropped == reported) return;
+            Logger.getLogger(PluginLogger.class.getName()).warning(
+                    "Log buffer full — dropped " + (dropped - reported) + " debug/info message(s)");
+            reported = dropped;
+        }
+
+        private record Pending(Logger logger, LogRecord record) {}
+    }
 }
@@ -0,0 +1,70 @@
+package com.crystalrealm.ecotalereforging.provider.economy;
+
+import com.sennecoolgames.economyapi.EconomyAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+/**
+ * {@link EconomyApiProvider} against the in-memory {@link EconomyAPI} stand-in.
+ */
+class EconomyApiProviderTest {
+
+    private final UUID player = UUID.randomUUID();
+
+    @AfterEach
+    void uninstall() {
+        EconomyAPI.install(null);
+    }
+
+    @Test
+    void unavailableWhenApiReturnsNull() {
+        EconomyAPI.install(null);
+        EconomyApiProvider provider = new EconomyApiProvider();
+        Assertions.assertFalse(provider.isAvailable());
+        Assertions.assertFalse(provider.deposit(player, 10, "test"));
+        Assertions.assertEquals(0, provider.getBalance(player), 0);
+    }
+
+    @Test
+    void boundHandlesCallThroughToTheApi() {
+        EconomyAPI.install(new EconomyAPI());
+        EconomyApiProvider provider = new EconomyApiProvider();
+        Assertions.assertTrue(provider.isAvailable());
+
+        // void deposit counts as success; boolean withdraw reports the API's answer
+        Assertions.assertTrue(provider.deposit(player, 50, "test"));
+        Assertions.assertEquals(50, provider.getBalance(player), 0);
+        Assertions.assertTrue(provider.withdraw(player, 20, "test"));
+        Assertions.assertFalse(provider.withdraw(player, 100, "test"));
+        Assertions.assertEquals(30, provider.getBalance(player), 0);
+        Assertions.assertEquals("12.5 coins", provider.format(12.5));
+    }
+
+    @Test
+    void hasBalanceFallsBackToGetBalanceWhenProbeMissing() {
+        EconomyAPI.install(new EconomyAPI());
+        EconomyApiProvider provider = new EconomyApiProvider();
+        provider.deposit(player, 40, "test");
+
+        Assertions.assertTrue(provider.hasBalance(player, 40));
+        Assertions.assertFalse(provider.hasBalance(player, 41));
+        Assertions.assertTrue(provider.withdrawIfSufficient(player, 40, "test"));
+        Assertions.assertEquals(0, provider.getBalance(player), 0);
+    }
+
+    @Test
+    void hasBalanceUsesNativeMethodWhenProbeFinds() {
+        EconomyAPI.WithHasBalance api = new EconomyAPI.WithHasBalance(100);
+        EconomyAPI.install(api);
+        EconomyApiProvider provider = new EconomyApiProvider();
+        provider.deposit(player, 40, "test");
+
+        // The overdraft is only visible through the native method
+        Assertions.assertTrue(provider.hasBalance(player, 120));
+        Assertions.assertFalse(provider.hasBalance(player, 141));
+        Assertions.assertEquals(2, api.getHasBalanceCalls());
+    }
+}
@@ -0,0 +1,215 @@
+package com.crystalrealm.ecotalereforging.tooltip;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@link MetadataScanner} against a full Gson parse of the same document.
+ */
+class MetadataScannerTest {
+
+    private static final Gson GSON = new Gson();
+    private static final String[] KEYS = {"a", "b", "Damage", "durability", "Owner", "tags", "x_y"};
+    private static final String ID_CHARS = "abcdefghijklmnopqrstuvwxyz_<>&\"\\é";
+    private static final String NOISE = "{}[]\":,\\ 0a$";
+
+    // ════════════════════════════════════════════════════════
+    //  EXAMPLES
+    // ════════════════════════════════════════════════════════
+
+    @Test
+    void readsPlainQuotedAndExtendedNumbers() {
+        MetadataScanner m = MetadataScanner.scan("{\"reforge_level\": {\"$numberInt\": \"4\"}, "
+                + "\"Enchantments\": {\"sharpness\": 3, \"fire\": \"2\", \"leech\": {\"$numberLong\": 1}, \"gone\": 0}}");
+        Assertions.assertEquals(4, m.reforgeLevel());
+        Assertions.assertEquals(3, m.enchantmentCount());
+        Assertions.assertEquals("sharpness", m.enchantmentId(0));
+        Assertions.assertEquals(2, m.enchantmentLevel(1));
+        Assertions.assertEquals("leech", m.enchantmentId(2));
+    }
+
+    @Test
+    void acceptsUnquotedKeys() {
+        MetadataScanner m = MetadataScanner.scan("{reforge_level: 7, Enchantments: {smite: 2}}");
+        Assertions.assertEquals(7, m.reforgeLevel());
+        Assertions.assertEquals(1, m.enchantmentCount());
+        Assertions.assertEquals("smite", m.enchantmentId(0));
+    }
+
+    @Test
+    void hashMatchesMapHashCode() {
+        // Tooltip fingerprints were built from LinkedHashMap<String, Integer>.hashCode()
+        MetadataScanner m = MetadataScanner.scan("{\"Enchantments\": {\"sharpness\": 3, \"durability\": 5}}");
+        Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("sharpness", 3);
+        map.put("durability", 5);
+        Assertions.assertEquals(map.hashCode(), m.enchantmentHash());
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  PROPERTIES
+    // ════════════════════════════════════════════════════════
+
+    @Test
+    void agreesWithFullParseOnRandomDocuments() {
+        Random random = new Random(20240601L);
+        for (int run = 0; run < 5000; run++) {
+            String json = GSON.toJson(randomObject(random, 0));
+            JsonElement parsed = JsonParser.parseString(json);
+            Expected expected = new Expected();
+            expected.walk(parsed);
+
+            MetadataScanner m = MetadataScanner.scan(json);
+            Assertions.assertEquals(expected.level, m.reforgeLevel(), json);
+            Assertions.assertEquals(expected.enchantments.size(), m.enchantmentCount(), json);
+            int i = 0;
+            for (Map.Entry<String, Integer> e : expected.enchantments.entrySet()) {
+                Assertions.assertEquals(e.getKey(), m.enchantmentId(i), json);
+                Assertions.assertEquals(e.getValue().intValue(), m.enchantmentLevel(i), json);
+                i++;
+            }
+        }
+    }
+
+    @Test
+    void malformedInputNeverThrows() {
+        Random random = new Random(7L);
+        for (int run = 0; run < 5000; run++) {
+            String json = GSON.toJson(randomObject(random, 0));
+            String broken = switch (random.nextInt(3)) {
+                case 0 -> json.substring(0, random.nextInt(json.length() + 1));
+                case 1 -> mutate(json, random);
+                default -> json.replace(":", random.nextBoolean() ? "" : "::");
+            };
+            Assertions.assertDoesNotThrow(() -> MetadataScanner.scan(broken), broken);
+        }
+        Assertions.assertDoesNotThrow(() -> MetadataScanner.scan("[".repeat(100_000)));
+        Assertions.assertDoesNotThrow(() -> MetadataScanner.scan("{\"a\":".repeat(100_000)));
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  GENERATOR
+    // ════════════════════════════════════════════════════════
+
+    private static JsonObject randomObject(Random random, int depth) {
+        JsonObject obj = new JsonObject();
+        int members = random.nextInt(5);
+        for (int i = 0; i < members; i++) {
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                obj.add("reforge_level", randomNumber(random));
+            } else if (kind == 1) {
+                obj.add("Enchantments", random.nextInt(6) == 0 ? new JsonPrimitive(5) : randomEnchantments(random));
+            } else {
+                obj.add(KEYS[random.nextInt(KEYS.length)], randomValue(random, depth + 1));
+            }
+        }
+        return obj;
+    }
+
+    private static JsonElement randomValue(Random random, int depth) {
+        int kind = random.nextInt(depth > 4 ? 4 : 6);
+        return switch (kind) {
+            case 0 -> new JsonPrimitive(random.nextInt(1000) - 500);
+            case 1 -> new JsonPrimitive(randomId(random));
+            case 2 -> new JsonPrimitive(random.nextBoolean());
+            case 3 -> new JsonPrimitive(random.nextDouble());
+            case 4 -> randomObject(random, depth);
+            default -> {
+                JsonArray array = new JsonArray();
+                for (int i = random.nextInt(4); i > 0; i--) array.add(randomValue(random, depth + 1));
+                yield array;
+            }
+        };
+    }
+
+    private static JsonObject randomEnchantments(Random random) {
+        JsonObject obj = new JsonObject();
+        for (int i = random.nextInt(6); i > 0; i--) obj.add(randomId(random), randomNumber(random));
+        return obj;
+    }
+
+    /** An integer as a plain number, a quoted string or an extended-JSON object. */
+    private static JsonElement randomNumber(Random random) {
+        int value = random.nextInt(25) - 3;
+        return switch (random.nextInt(4)) {
+            case 0 -> new JsonPrimitive(String.valueOf(value));
+            case 1 -> {
+                JsonObject ext = new JsonObject();
+                ext.addProperty(random.nextBoolean() ? "$numberInt" : "$numberLong", String.valueOf(value));
+                yield ext;
+            }
+            default -> new JsonPrimitive(value);
+        };
+    }
+
+    private static String randomId(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1 + random.nextInt(10); i > 0; i--) {
+            // Mostly plain letters; now and then a character Gson escapes
+            String pool = random.nextInt(8) == 0 ? ID_CHARS : ID_CHARS.substring(0, 27);
+            sb.append(pool.charAt(random.nextInt(pool.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String mutate(String json, Random random) {
+        StringBuilder sb = new StringBuilder(json);
+        for (int i = 1 + random.nextInt(4); i > 0 && sb.length() > 0; i--) {
+            sb.setCharAt(random.nextInt(sb.length()), NOISE.charAt(random.nextInt(NOISE.length())));
+        }
+        return sb.toString();
+    }
+
+    // ════════════════════════════════════════════════════════
+    //  REFERENCE
+    // ════════════════════════════════════════════════════════
+
+    /** What the scanner should find, read from the parsed tree in document order. */
+    private static final class Expected {
+        int level;
+        boolean levelSeen;
+        boolean enchantmentsSeen;
+        final Map<String, Integer> enchantments = new LinkedHashMap<>();
+
+        void walk(JsonElement e) {
+            if (e.isJsonArray()) {
+                for (JsonElement item : e.getAsJsonArray()) walk(item);
+            } else if (e.isJsonObject()) {
+                for (Map.Entry<String, JsonElement> member : e.getAsJsonObject().entrySet()) {
+                    if (!levelSeen && member.getKey().equals("reforge_level")) {
+                        level = toInt(member.getValue());
+                        levelSeen = true;
+                    } else if (!enchantmentsSeen && member.getKey().equals("Enchantments")
+                            && member.getValue().isJsonObject()) {
+                        for (Map.Entry<String, JsonElement> ench : member.getValue().getAsJsonObject().entrySet()) {
+                            int lvl = toInt(ench.getValue());
+                            if (lvl > 0 && !ench.getKey().startsWith("$")) enchantments.put(ench.getKey(), lvl);
+                        }
+                        enchantmentsSeen = true;
+                    } else {
+                        walk(member.getValue());
+                    }
+                }
+            }
+        }
+
+        private static int toInt(JsonElement e) {
+            if (e.isJsonPrimitive()) return Integer.parseInt(e.getAsString());
+            for (Map.Entry<String, JsonElement> member : e.getAsJsonObject().entrySet()) {
+                if (member.getKey().startsWith("$number")) return toInt(member.getValue());
+            }
+            return 0;
+        }
+    }
+}
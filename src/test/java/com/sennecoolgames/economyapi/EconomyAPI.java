@@ -0,0 +1,65 @@
+package com.sennecoolgames.economyapi;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-in for EconomyAPI, found by {@code EconomyApiProvider}
+ * under the real class name. Mirrors the API's shape: {@code deposit}
+ * returns nothing, {@code withdraw} reports success, and there is no
+ * {@code hasBalance} — see {@link WithHasBalance} for an API that has one.
+ */
+public class EconomyAPI {
+
+    private static volatile EconomyAPI instance;
+
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+
+    /** Install the instance {@link #getAPI()} hands out; {@code null} disables the API. */
+    public static void install(EconomyAPI api) {
+        instance = api;
+    }
+
+    public static EconomyAPI getAPI() {
+        return instance;
+    }
+
+    public void deposit(UUID player, double amount, String reason) {
+        balances.merge(player, amount, Double::sum);
+    }
+
+    public boolean withdraw(UUID player, double amount, String reason) {
+        double balance = getBalance(player);
+        if (balance < amount) return false;
+        balances.put(player, balance - amount);
+        return true;
+    }
+
+    public double getBalance(UUID player) {
+        return balances.getOrDefault(player, 0.0);
+    }
+
+    public String format(double amount) {
+        return amount + " coins";
+    }
+
+    /** An API with a native {@code hasBalance} that also allows an overdraft. */
+    public static class WithHasBalance extends EconomyAPI {
+        private final double overdraft;
+        private int hasBalanceCalls;
+
+        public WithHasBalance(double overdraft) {
+            this.overdraft = overdraft;
+        }
+
+        public boolean hasBalance(UUID player, double amount) {
+            hasBalanceCalls++;
+            return getBalance(player) + overdraft >= amount;
+        }
+
+        public int getHasBalanceCalls() {
+            return hasBalanceCalls;
+        }
+    }
+}